@@ -1,9 +1,24 @@
 package dev;
 
+import dev.database.DBConnection;
+import dev.database.EntityCache;
+import dev.database.Page;
+import dev.database.Query;
+import dev.database.SORMDAO;
+import dev.database.SORMSession;
+import dev.database.SORMTransaction;
+import dev.database.SchemaRegistry;
+import dev.database.hikaricp.DataSource;
+import dev.model.enumeration.ExecutionStrategy;
 import dev.service.thread.DBThreadService;
 
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Primary Class SimpleORM (SORM)
@@ -12,18 +27,79 @@ import java.util.concurrent.Future;
  */
 public class SORM implements AutoCloseable{
 
+    private final DataSource DATA_SOURCE;
     private final DBThreadService THREAD_SERVICE;
 
-    private SORM(){
-        this.THREAD_SERVICE = DBThreadService.createDBThreadService();
+    private SORM(ExecutionStrategy strategy, Executor completionExecutor){
+        this.DATA_SOURCE = DBConnection.getInstance().createDataSource();
+        if(strategy == null) {
+            this.THREAD_SERVICE = completionExecutor == null ? DBThreadService.createDBThreadService(DATA_SOURCE)
+                    : DBThreadService.createDBThreadService(DATA_SOURCE, completionExecutor);
+        } else {
+            this.THREAD_SERVICE = completionExecutor == null ? DBThreadService.createDBThreadService(DATA_SOURCE, strategy, DATA_SOURCE.getMaximumPoolSize())
+                    : DBThreadService.createDBThreadService(DATA_SOURCE, strategy, DATA_SOURCE.getMaximumPoolSize(), completionExecutor);
+        }
     }
 
     /**
      * Creates a new SORM object
+     * <p>
+     *     Opens the connection pool shared by every operation of this SORM object,
+     *     the pool stays open until {@link #close()} is called. Operations run as configured by the
+     *     "sorm.executionStrategy" and "sorm.threadPoolSize" system properties, see {@link ExecutionStrategy}
+     * </p>
      * @return Returns a SORM object
      */
     public static SORM createSORM(){
-        return new SORM();
+        return new SORM(null, null);
+    }
+
+    /**
+     * Creates a new SORM object whose futures are completed on a caller supplied executor
+     * <p>
+     *     Callbacks chained onto the returned futures without an executor, such as {@code thenApply} or {@code thenCompose},
+     *     then run on completionExecutor rather than on the threads querying the database
+     * </p>
+     * @param completionExecutor The executor completing the futures of this SORM object, it is not shut down by SORM
+     * @return Returns a SORM object
+     * @throws IllegalArgumentException Thrown when parameter completionExecutor is null
+     */
+    public static SORM createSORM(Executor completionExecutor) throws IllegalArgumentException{
+        if(completionExecutor == null)
+            throw new IllegalArgumentException("Parameter completionExecutor cannot be null");
+        return new SORM(null, completionExecutor);
+    }
+
+    /**
+     * Creates a new SORM object running its operations with the given strategy
+     * <p>
+     *     FIXED and FORK_JOIN strategies use as many threads as the connection pool has connections,
+     *     see {@link ExecutionStrategy}
+     * </p>
+     * @param strategy How operations of this SORM object are run
+     * @return Returns a SORM object
+     * @throws IllegalArgumentException Thrown when parameter strategy is null
+     */
+    public static SORM createSORM(ExecutionStrategy strategy) throws IllegalArgumentException{
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+        return new SORM(strategy, null);
+    }
+
+    /**
+     * Creates a new SORM object running its operations with the given strategy, whose futures are completed on a caller supplied executor
+     * @param strategy How operations of this SORM object are run, see {@link #createSORM(ExecutionStrategy)}
+     * @param completionExecutor The executor completing the futures of this SORM object, it is not shut down by SORM,
+     *                           see {@link #createSORM(Executor)}
+     * @return Returns a SORM object
+     * @throws IllegalArgumentException Thrown when parameter strategy or completionExecutor is null
+     */
+    public static SORM createSORM(ExecutionStrategy strategy, Executor completionExecutor) throws IllegalArgumentException{
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+        if(completionExecutor == null)
+            throw new IllegalArgumentException("Parameter completionExecutor cannot be null");
+        return new SORM(strategy, completionExecutor);
     }
 
     /**
@@ -33,12 +109,121 @@ public class SORM implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
-     * @return Returns a future of optional of the object being retrieved from the database
+     * @return Returns a CompletableFuture of optional of the object being retrieved from the database
      */
-    public <T, I> Future<Optional<T>> getByID(I id, Class<T> tClass, Class<I> iClass){
+    public <T, I> CompletableFuture<Optional<T>> getByID(I id, Class<T> tClass, Class<I> iClass){
         return THREAD_SERVICE.getByID(id, tClass, iClass);
     }
 
+    /**
+     * Get several objects from database by ID
+     * <p>
+     *     Objects are selected with chunked "in" statements over a single connection,
+     *     objects they reference are also retrieved per chunk rather than per object
+     * </p>
+     * @param ids The ids (primary keys) marked with {@link dev.model.annotation.SORMID} of the objects being retrieved
+     * @param tClass The class of the objects being retrieved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being retrieved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture of the retrieved objects by id, ids without an object in the database are left out
+     */
+    public <T, I> CompletableFuture<Map<I, T>> getByIds(Collection<I> ids, Class<T> tClass, Class<I> iClass){
+        return THREAD_SERVICE.getByIds(ids, tClass, iClass);
+    }
+
+    /**
+     * Get several objects from database by ID, using statements of at most batchSize ids
+     * @param ids The ids (primary keys) marked with {@link dev.model.annotation.SORMID} of the objects being retrieved
+     * @param tClass The class of the objects being retrieved
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of ids bound into a single statement
+     * @param <T> The type of objects being retrieved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture of the retrieved objects by id, ids without an object in the database are left out
+     * @see #getByIds(Collection, Class, Class)
+     */
+    public <T, I> CompletableFuture<Map<I, T>> getByIds(Collection<I> ids, Class<T> tClass, Class<I> iClass, int batchSize){
+        return THREAD_SERVICE.getByIds(ids, tClass, iClass, batchSize);
+    }
+
+    /**
+     * Streams every object of a class from the database, runs on the calling thread
+     * <p>
+     *     Rows are fetched through a cursor in chunks of {@link SORMDAO#DEFAULT_FETCH_SIZE} and each object is
+     *     recreated as it is consumed, so tables of any size can be read with flat memory.
+     *     The stream holds a connection of the pool until closed, use it within try-with-resources
+     * </p>
+     * @param tClass The class of the objects being retrieved
+     * @param <T> The type of objects being retrieved
+     * @return Returns a lazily populated stream of every object, which must be closed
+     * @throws SQLException Thrown when unable to successfully query database
+     */
+    public <T> Stream<T> findAll(Class<T> tClass) throws SQLException {
+        return findAll(tClass, SORMDAO.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every object of a class from the database, fetching fetchSize rows at a time, runs on the calling thread
+     * @param tClass The class of the objects being retrieved
+     * @param fetchSize The number of rows fetched from the database at a time
+     * @param <T> The type of objects being retrieved
+     * @return Returns a lazily populated stream of every object, which must be closed
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when fetchSize is less than 1
+     * @see #findAll(Class)
+     */
+    public <T> Stream<T> findAll(Class<T> tClass, int fetchSize) throws SQLException, IllegalArgumentException {
+        return new SORMDAO<>(tClass, Object.class, DATA_SOURCE).findAll(fetchSize);
+    }
+
+    /**
+     * Starts a query of the objects of a class, filtering, ordering and limiting them in the database
+     * <p>
+     *     The query runs on the calling thread once its results are requested, see {@link Query}
+     * </p>
+     * @param tClass The class of the objects being queried
+     * @param <T> The type of objects being queried
+     * @return Returns a new Query of every object of the class
+     */
+    public <T> Query<T> query(Class<T> tClass){
+        return Query.createQuery(tClass, DATA_SOURCE);
+    }
+
+    /**
+     * Retrieves a page of the objects of a class ordered by id, seeking past the previous page rather than skipping rows
+     * <p>
+     *     Runs on the calling thread, every page costs the same however deep it is, see {@link Query#page(String, Object, Object, int)}
+     * </p>
+     * @param tClass The class of the objects being retrieved
+     * @param afterKey The id of the last object of the previous page, {@link Page#getNextKey()}, null for the first page
+     * @param size The maximum number of objects of the page
+     * @param <T> The type of objects being retrieved
+     * @return Returns the page
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when size is less than 1
+     */
+    public <T> Page<T> page(Class<T> tClass, Object afterKey, int size) throws SQLException, IllegalArgumentException {
+        return query(tClass).page(afterKey, size);
+    }
+
+    /**
+     * Retrieves a page of the objects of a class ordered by an indexed field, then by id
+     * @param tClass The class of the objects being retrieved
+     * @param column The name of the {@link dev.model.annotation.SORMField} ordering the pages, it must not hold nulls
+     * @param afterValue The column value of the last object of the previous page, {@link Page#getNextValue()}
+     * @param afterKey The id of the last object of the previous page, {@link Page#getNextKey()}, null for the first page
+     * @param size The maximum number of objects of the page
+     * @param <T> The type of objects being retrieved
+     * @return Returns the page
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when the column is not a field, or size is less than 1
+     * @see #page(Class, Object, int)
+     */
+    public <T> Page<T> page(Class<T> tClass, String column, Object afterValue, Object afterKey, int size) throws SQLException, IllegalArgumentException {
+        return query(tClass).page(column, afterValue, afterKey, size);
+    }
+
     /**
      * Creates one or more objects/tables in the database
      * @param object The object marked with {@link dev.model.annotation.SORMObject} being stored in the database
@@ -46,12 +231,44 @@ public class SORM implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
-     * @return Returns a Future boolean which is true if the object was created successfully, false if not
+     * @return Returns a CompletableFuture boolean which is true if the object was created successfully, false if not
      */
-    public <T, I> Future<Boolean> create(T object, Class<T> tClass, Class<I> iClass){
+    public <T, I> CompletableFuture<Boolean> create(T object, Class<T> tClass, Class<I> iClass){
         return THREAD_SERVICE.create(object, tClass, iClass);
     }
 
+    /**
+     * Creates several objects and their tables in the database
+     * <p>
+     *     Rows are inserted per table as JDBC batches within one transaction,
+     *     objects referenced with {@link dev.model.annotation.SORMReference} are inserted first, once per id
+     * </p>
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being stored in the database
+     * @param tClass The class of the objects being stored
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being stored
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was created successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> createAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return THREAD_SERVICE.createAll(objects, tClass, iClass);
+    }
+
+    /**
+     * Creates several objects and their tables in the database, using batches of at most batchSize rows
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being stored in the database
+     * @param tClass The class of the objects being stored
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param <T> The type of objects being stored
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was created successfully, false if none were
+     * @see #createAll(Collection, Class, Class)
+     */
+    public <T, I> CompletableFuture<Boolean> createAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return THREAD_SERVICE.createAll(objects, tClass, iClass, batchSize);
+    }
+
     /**
      * Updates an object in the database, changing its values to reflect the object parameter
      * @param object The object marked with {@link dev.model.annotation.SORMObject} being updated in the database
@@ -59,12 +276,145 @@ public class SORM implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
-     * @return Returns a Future boolean which is true if the object was updated successfully, false if not
+     * @return Returns a CompletableFuture boolean which is true if the object was updated successfully, false if not
      */
-    public <T, I> Future<Boolean> update(T object, Class<T> tClass, Class<I> iClass){
+    public <T, I> CompletableFuture<Boolean> update(T object, Class<T> tClass, Class<I> iClass){
         return THREAD_SERVICE.update(object, tClass, iClass);
     }
 
+    /**
+     * Updates several objects in the database
+     * <p>
+     *     Rows are updated per table as JDBC batches within one transaction, in primary key order
+     *     so that concurrent batches do not deadlock
+     * </p>
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being updated in the database
+     * @param tClass The class of the objects being updated
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being updated
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was updated successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> updateAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return THREAD_SERVICE.updateAll(objects, tClass, iClass);
+    }
+
+    /**
+     * Updates several objects in the database, using batches of at most batchSize rows
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being updated in the database
+     * @param tClass The class of the objects being updated
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param <T> The type of objects being updated
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was updated successfully, false if none were
+     * @see #updateAll(Collection, Class, Class)
+     */
+    public <T, I> CompletableFuture<Boolean> updateAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return THREAD_SERVICE.updateAll(objects, tClass, iClass, batchSize);
+    }
+
+    /**
+     * Deletes every row matching a query's conditions with a single statement, without retrieving them
+     * <p>
+     *     Build the conditions with {@link #query(Class)}, for example
+     *     {@code sorm.deleteWhere(sorm.query(User.class).where("email", QueryOperator.LIKE, "%@old.com"))}
+     * </p>
+     * @param query The query whose matching rows are deleted, it must not be changed until the future completes
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows deleted
+     * @see Query#delete()
+     */
+    public <T> CompletableFuture<Integer> deleteWhere(Query<T> query){
+        return THREAD_SERVICE.deleteWhere(query);
+    }
+
+    /**
+     * Deletes every row matching a query's conditions in chunks of at most chunkSize rows, each committed on its own
+     * @param query The query whose matching rows are deleted, it must not be changed until the future completes
+     * @param chunkSize The maximum number of rows deleted by a single statement
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows deleted
+     * @see Query#delete(int)
+     */
+    public <T> CompletableFuture<Integer> deleteWhere(Query<T> query, int chunkSize){
+        return THREAD_SERVICE.deleteWhere(query, chunkSize);
+    }
+
+    /**
+     * Sets columns of every row matching a query's conditions with a single statement, without retrieving them
+     * <p>
+     *     The columns and their values are given to {@link Query#set(String, Object)}, for example
+     *     {@code sorm.updateWhere(sorm.query(User.class).where("id", QueryOperator.LESS_THAN, 100).set("email", ""))}
+     * </p>
+     * @param query The query whose matching rows are updated, it must not be changed until the future completes
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows updated
+     * @see Query#update()
+     */
+    public <T> CompletableFuture<Integer> updateWhere(Query<T> query){
+        return THREAD_SERVICE.updateWhere(query);
+    }
+
+    /**
+     * Sets columns of every row matching a query's conditions in ranges of at most chunkSize ids, each committed on its own
+     * @param query The query whose matching rows are updated, it must not be changed until the future completes
+     * @param chunkSize The maximum number of rows updated by a single statement
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows updated
+     * @see Query#update(int)
+     */
+    public <T> CompletableFuture<Integer> updateWhere(Query<T> query, int chunkSize){
+        return THREAD_SERVICE.updateWhere(query, chunkSize);
+    }
+
+    /**
+     * Creates an object in the database, or updates it if one with the same id exists
+     * <p>
+     *     Each row is written with a single upsert statement, "insert ... on conflict (id) do update" on PostgreSQL
+     *     and "merge into ... key (id)" on H2, instead of a create followed by an update.
+     *     Objects referenced with {@link dev.model.annotation.SORMReference} are saved as well, within one transaction
+     * </p>
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being saved to the database
+     * @param tClass The class of the object being saved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of object being saved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the object was saved successfully, false if not
+     */
+    public <T, I> CompletableFuture<Boolean> save(T object, Class<T> tClass, Class<I> iClass){
+        return THREAD_SERVICE.save(object, tClass, iClass);
+    }
+
+    /**
+     * Saves several objects in the database, rows are upserted per table as JDBC batches within one transaction
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being saved to the database
+     * @param tClass The class of the objects being saved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being saved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was saved successfully, false if none were
+     * @see #save(Object, Class, Class)
+     */
+    public <T, I> CompletableFuture<Boolean> saveAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return THREAD_SERVICE.saveAll(objects, tClass, iClass);
+    }
+
+    /**
+     * Saves several objects in the database, using batches of at most batchSize rows
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being saved to the database
+     * @param tClass The class of the objects being saved
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param <T> The type of objects being saved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was saved successfully, false if none were
+     * @see #saveAll(Collection, Class, Class)
+     */
+    public <T, I> CompletableFuture<Boolean> saveAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return THREAD_SERVICE.saveAll(objects, tClass, iClass, batchSize);
+    }
+
     /**
      * Deletes an object from the database
      * @param object The object marked with {@link dev.model.annotation.SORMObject} being deleted from the database
@@ -72,17 +422,125 @@ public class SORM implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the object was deleted successfully, false if not
      */
-    public <T, I> Future<Boolean> delete(T object, Class<T> tClass, Class<I> iClass){
+    public <T, I> CompletableFuture<Boolean> delete(T object, Class<T> tClass, Class<I> iClass){
         return THREAD_SERVICE.delete(object, tClass, iClass);
     }
 
     /**
-     * Closes thread service
+     * Deletes several objects from the database
+     * <p>
+     *     Ids are deleted per table with chunked "in" statements within one transaction, in primary key order
+     *     so that concurrent batches do not deadlock
+     * </p>
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being deleted from the database
+     * @param tClass The class of the objects being deleted
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being deleted
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the objects were deleted, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> deleteAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return THREAD_SERVICE.deleteAll(objects, tClass, iClass);
+    }
+
+    /**
+     * Deletes several objects from the database, using statements of at most batchSize ids
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being deleted from the database
+     * @param tClass The class of the objects being deleted
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of ids bound into a single statement
+     * @param <T> The type of objects being deleted
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the objects were deleted, false if none were
+     * @see #deleteAll(Collection, Class, Class)
+     */
+    public <T, I> CompletableFuture<Boolean> deleteAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return THREAD_SERVICE.deleteAll(objects, tClass, iClass, batchSize);
+    }
+
+    /**
+     * Starts grouping creates and updates arriving close together, writing them as one batch per table
+     * <p>
+     *     Writes are held for up to windowMillis, or until maxWrites have arrived, then written by a single operation.
+     *     Each caller's future still receives the result of its own write, see {@link DBThreadService#enableGroupCommit(long, int)}
+     * </p>
+     * @param windowMillis The number of milliseconds writes are held after the first of a group arrived
+     * @param maxWrites The number of writes after which a group is written without waiting for the window to pass
+     * @throws IllegalArgumentException Thrown when windowMillis is negative or maxWrites is less than 1
+     * @throws IllegalStateException Thrown when group commit is already enabled
+     */
+    public void enableGroupCommit(long windowMillis, int maxWrites) throws IllegalArgumentException, IllegalStateException{
+        THREAD_SERVICE.enableGroupCommit(windowMillis, maxWrites);
+    }
+
+    /**
+     * Stops grouping creates and updates, the writes already held are written as a last group
+     */
+    public void disableGroupCommit(){
+        THREAD_SERVICE.disableGroupCommit();
+    }
+
+    /**
+     * Opens a session, a unit of work retrieving every object at most once
+     * <p>
+     *     Operations of a session run on the calling thread, over this SORM object's connection pool.
+     *     The session must be used by a single thread, and should be closed once its unit of work is done
+     * </p>
+     * @return Returns a new, empty SORMSession
+     */
+    public SORMSession openSession(){
+        return SORMSession.createSORMSession(DATA_SOURCE);
+    }
+
+    /**
+     * Begins a unit of work, queueing creates, updates and deletes until they are committed together
+     * <p>
+     *     {@link SORMTransaction#commit()} runs on the calling thread, writing every queued operation within one transaction,
+     *     ordered by the references between objects and batched per table
+     * </p>
+     * @return Returns a new, empty SORMTransaction
+     */
+    public SORMTransaction beginTransaction(){
+        return SORMTransaction.createSORMTransaction(DATA_SOURCE);
+    }
+
+    /**
+     * Returns the cache of objects retrieved by id, shared by every operation of this SORM object
+     * <p>
+     *     Classes marked with {@link dev.model.annotation.SORMCache} are cached, others can be cached with
+     *     {@link EntityCache#configure(Class, int, long)}. Call {@link EntityCache#invalidate(Class)}
+     *     after objects have been written outside of SORM
+     * </p>
+     * @return Returns the EntityCache of this SORM object's connection pool
+     */
+    public EntityCache getEntityCache(){
+        return DATA_SOURCE.getEntityCache();
+    }
+
+    /**
+     * Returns the registry of tables known to exist in this SORM object's database
+     * <p>
+     *     Call {@link SchemaRegistry#refresh()} or {@link SchemaRegistry#invalidate(String)}
+     *     after tables have been dropped outside of SORM
+     * </p>
+     * @return Returns the SchemaRegistry of this SORM object's connection pool
+     */
+    public SchemaRegistry getSchemaRegistry(){
+        return DATA_SOURCE.getSchemaRegistry();
+    }
+
+    /**
+     * Closes thread service, then the connection pool once running operations have finished
      * @throws Exception Thrown when threads get interrupted
      */
     @Override
     public void close() throws Exception {
-        THREAD_SERVICE.close();
+        try {
+            THREAD_SERVICE.close();
+        } finally {
+            DATA_SOURCE.close();
+        }
     }
 }
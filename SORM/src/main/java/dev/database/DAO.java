@@ -1,6 +1,9 @@
 package dev.database;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Basic interface for all data access objects (DAO)
@@ -18,6 +21,21 @@ public interface DAO<T, I> {
      */
     Optional<T> getById(I id) throws Exception;
 
+    /**
+     * Returns object representations of several database entries retrieved by their IDs (or primary keys)
+     * <p>IDs for which no entry was found should be left out of the returned map</p>
+     * @return a map of ids to the objects created from the database entries
+     * @param ids ids of the objects being retrieved from the database
+     */
+    Map<I, T> getByIds(Collection<I> ids) throws Exception;
+
+    /**
+     * Returns object representations of every database entry, created as they are consumed
+     * <p>The stream holds database resources until it is closed</p>
+     * @return a lazily populated stream of the objects created from the database entries
+     */
+    Stream<T> findAll() throws Exception;
+
     /**
      * Creates a database entry representing an object
      * @param object The object being added to the database
@@ -25,6 +43,13 @@ public interface DAO<T, I> {
      */
     boolean create(T object) throws Exception;
 
+    /**
+     * Creates database entries representing several objects at once
+     * @param objects The objects being added to the database
+     * @return If every object was successfully added to the database
+     */
+    boolean createAll(Collection<T> objects) throws Exception;
+
     /**
      * Updates a database entry representing the changed object
      * @param object The object being updated in the database
@@ -32,9 +57,36 @@ public interface DAO<T, I> {
      */
     boolean update(T object) throws Exception;
 
+    /**
+     * Updates database entries representing several changed objects at once
+     * @param objects The objects being updated in the database
+     * @return If every object was successfully updated in the database
+     */
+    boolean updateAll(Collection<T> objects) throws Exception;
+
+    /**
+     * Creates a database entry representing an object, or updates it if one with the same id exists
+     * @param object The object being saved to the database
+     * @return If object was successfully saved to the database
+     */
+    boolean save(T object) throws Exception;
+
+    /**
+     * Creates or updates database entries representing several objects at once
+     * @param objects The objects being saved to the database
+     * @return If every object was successfully saved to the database
+     */
+    boolean saveAll(Collection<T> objects) throws Exception;
+
     /**
      * Deletes a database entry representing an object
      * @param object The object being deleted from the database
      */
     boolean delete(T object) throws Exception;
+
+    /**
+     * Deletes database entries representing several objects at once
+     * @param objects The objects being deleted from the database
+     */
+    boolean deleteAll(Collection<T> objects) throws Exception;
 }
@@ -4,7 +4,6 @@ import dev.config.ConnectionConfiguration;
 import dev.database.hikaricp.DataSource;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Map;
 
@@ -33,19 +32,57 @@ public class DBConnection {
 
 
     /**
-     * Creates and returns a connection to a database using information provided by {@link ConnectionConfiguration}
-     * @return Connection for database
-     * @throws SQLException Thrown when connection creation fails
+     * Process wide default connection pool, lazily created by {@link #getDataSource()}
      */
-    public Connection getConnection() throws SQLException {
+    private volatile DataSource defaultDataSource;
+
+    /**
+     * Creates a new connection pool using information provided by {@link ConnectionConfiguration}
+     * <p>
+     *     The caller owns the returned pool and is responsible for closing it
+     * </p>
+     * @return Returns a new connection pool for the configured database
+     */
+    public DataSource createDataSource() {
 
         //if no schema was specified
         if(CONNECTION_INFORMATION.get("schema") == null || CONNECTION_INFORMATION.get("schema").equals(""))
             return new DataSource(CONNECTION_INFORMATION.get("url"),
                     CONNECTION_INFORMATION.get("user"),
-                    CONNECTION_INFORMATION.get("password")).getConnection();
+                    CONNECTION_INFORMATION.get("password"));
 
-        return new DataSource(CONNECTION_INFORMATION.get("url") + "?currentSchema=" + CONNECTION_INFORMATION.get("schema"), CONNECTION_INFORMATION.get("user"), CONNECTION_INFORMATION.get("password")).getConnection();
+        return new DataSource(CONNECTION_INFORMATION.get("url") + "?currentSchema=" + CONNECTION_INFORMATION.get("schema"), CONNECTION_INFORMATION.get("user"), CONNECTION_INFORMATION.get("password"));
+    }
+
+    /**
+     * Returns the process wide default connection pool, creating it on first use
+     * <p>
+     *     Used by data access objects that were not handed a pool explicitly.
+     *     The pool is created once and shared, it is never recreated per call.
+     * </p>
+     * @return Returns the default connection pool
+     */
+    public DataSource getDataSource() {
+        DataSource dataSource = defaultDataSource;
+        if(dataSource == null) {
+            synchronized (this) {
+                dataSource = defaultDataSource;
+                if(dataSource == null) {
+                    dataSource = createDataSource();
+                    defaultDataSource = dataSource;
+                }
+            }
+        }
+        return dataSource;
+    }
+
+    /**
+     * Borrows a connection from the default connection pool, see {@link #getDataSource()}
+     * @return Connection for database, closing it returns it to the pool
+     * @throws SQLException Thrown when connection creation fails
+     */
+    public Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
     }
 
 
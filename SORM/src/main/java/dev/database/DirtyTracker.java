@@ -0,0 +1,196 @@
+package dev.database;
+
+import dev.model.database.DataField;
+import dev.model.database.DataReference;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshots of the column values of objects as they are stored in the database
+ * <p>
+ *     Objects are snapshotted when they are retrieved, by id, by ids, through {@link SORMDAO#findAll()} or a {@link Query}
+ *     selecting whole objects, and again once their writes are committed. Updating a snapshotted object then only sets the
+ *     columns which changed since, and is skipped when none did. Objects of queries selecting only some columns are never
+ *     snapshotted, their updates set every column. Snapshots are kept per instance, and are dropped once their object is garbage collected.
+ * </p>
+ * <p>
+ *     Each {@link dev.database.hikaricp.DataSource} owns its own tracker, so an object retrieved from one database
+ *     is updated entirely when written to another.
+ * </p>
+ */
+public final class DirtyTracker {
+
+    private final Map<IdentityKey, Object[]> SNAPSHOTS = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+
+    private DirtyTracker(){}
+
+    /**
+     * Factory method to create a new DirtyTracker without snapshots
+     * @return Returns a new DirtyTracker
+     */
+    public static DirtyTracker createDirtyTracker() {
+        return new DirtyTracker();
+    }
+
+    /**
+     * Snapshots an object and every loaded object it references
+     * @param root The object retrieved or written
+     */
+    void track(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if(object == null || !visited.add(object))
+                continue;
+            try {
+                List<DataField<Object>> fields = POJOPropertyGetSet.getFields(object);
+                List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
+                snapshot(object, fields, references);
+                for (DataReference<Object> reference : references) {
+                    if(reference.isLoaded())
+                        pending.push(reference.getREFERENCE());
+                }
+            } catch (Exception e) {
+                //objects which can not be read are updated entirely
+                untrack(object);
+            }
+        }
+    }
+
+    /**
+     * Snapshots every object of several collections, see {@link #track(Object)}
+     * @param objects The collections of objects written
+     */
+    void trackAll(Collection<?>... objects) {
+        for (Collection<?> collection : objects) {
+            for (Object object : collection) {
+                track(object);
+            }
+        }
+    }
+
+    /**
+     * Snapshots a single object from its current column values
+     * @param object The object
+     * @param fields The current fields of the object
+     * @param references The current references of the object
+     */
+    void snapshot(Object object, List<DataField<Object>> fields, List<DataReference<Object>> references) {
+        expunge();
+        SNAPSHOTS.put(new IdentityKey(object, COLLECTED), values(fields, references));
+    }
+
+    /**
+     * Drops the snapshot of an object, its next update sets every column
+     * @param object The object
+     */
+    void untrack(Object object) {
+        SNAPSHOTS.remove(new IdentityKey(object, null));
+    }
+
+    /**
+     * Drops the snapshots of every object of several collections
+     * @param objects The collections of objects
+     */
+    void untrackAll(Collection<?> objects) {
+        for (Object object : objects) {
+            untrack(object);
+        }
+    }
+
+    /**
+     * Drops the snapshots of every object of a class, after its rows were written without the objects
+     * @param clazz The class of the objects
+     */
+    void untrackAll(Class<?> clazz) {
+        SNAPSHOTS.keySet().removeIf(key -> {
+            Object object = key.get();
+            return object == null || object.getClass() == clazz;
+        });
+    }
+
+    /**
+     * Compares an object to its snapshot
+     * @param object The object
+     * @param fields The current fields of the object
+     * @param references The current references of the object
+     * @return Returns the indexes of the changed columns, fields then references, or null if the object has no snapshot
+     */
+    List<Integer> changedColumns(Object object, List<DataField<Object>> fields, List<DataReference<Object>> references) {
+        Object[] snapshot = SNAPSHOTS.get(new IdentityKey(object, null));
+        if(snapshot == null)
+            return null;
+        Object[] current = values(fields, references);
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < current.length; i++) {
+            if(!Objects.equals(snapshot[i], current[i]))
+                changed.add(i);
+        }
+        return changed;
+    }
+
+    /**
+     * @param fields The fields of an object
+     * @param references The references of an object
+     * @return Returns the column values of the object, fields then the ids of references
+     */
+    private static Object[] values(List<DataField<Object>> fields, List<DataReference<Object>> references) {
+        Object[] values = new Object[fields.size() + references.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = fields.get(i).getValue();
+            //dates are mutable, the snapshot keeps a copy
+            values[i] = value instanceof Date ? ((Date) value).clone() : value;
+        }
+        for (int i = 0; i < references.size(); i++) {
+            values[fields.size() + i] = references.get(i).getREFERENCES_ID().getValue();
+        }
+        return values;
+    }
+
+    /**
+     * Drops the snapshots of garbage collected objects
+     */
+    private void expunge() {
+        Object collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            SNAPSHOTS.remove(collected);
+        }
+    }
+
+    /**
+     * Weak key comparing objects by identity
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        /**
+         * @param object The object
+         * @param queue The queue the key is added to once its object is collected, null for keys only used to look up
+         */
+        private IdentityKey(Object object, ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.hash = System.identityHashCode(object);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o)
+                return true;
+            if(!(o instanceof IdentityKey))
+                return false;
+            Object object = get();
+            return object != null && object == ((IdentityKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
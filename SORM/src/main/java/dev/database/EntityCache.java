@@ -0,0 +1,389 @@
+package dev.database;
+
+import dev.model.annotation.SORMCache;
+import dev.model.database.ColumnMetadata;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In memory cache of objects retrieved by id, shared by every operation of a connection pool
+ * <p>
+ *     Only classes marked with {@link SORMCache}, or configured with {@link #configure(Class, int, long)}, are cached.
+ *     Each class has its own region, evicting its least recently used object once full and objects older than its time to live.
+ *     Writing an object through SORM evicts it, and clears the regions of every class whose objects may reference it,
+ *     as their cached instances hold the object as it was before the write.
+ * </p>
+ * <p>
+ *     The cache holds a private copy of each object, and {@link SORMDAO#getById(Object)} hands every caller a new copy of it,
+ *     so changes made to a retrieved object are only seen by others once written.
+ * </p>
+ */
+public class EntityCache {
+
+    private final Map<Class<?>, Optional<Region>> REGIONS = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> REACHABLE = new ConcurrentHashMap<>();
+
+    /**
+     * Factory method to create a new, empty EntityCache
+     * @return Returns a new EntityCache
+     */
+    public static EntityCache createEntityCache() {
+        return new EntityCache();
+    }
+
+    /**
+     * Caches a class, or changes how it is cached, discarding the objects already cached for it
+     * @param clazz The class being cached
+     * @param maxEntries The maximum number of objects kept
+     * @param ttlMillis The number of milliseconds an object is kept after being retrieved, 0 keeps it until evicted
+     * @throws IllegalArgumentException Thrown when clazz is null, maxEntries is less than 1, or ttlMillis is negative
+     */
+    public void configure(Class<?> clazz, int maxEntries, long ttlMillis) throws IllegalArgumentException {
+        if(clazz == null)
+            throw new IllegalArgumentException("Parameter clazz cannot be null");
+        if(maxEntries < 1)
+            throw new IllegalArgumentException("Parameter maxEntries must be greater than 0");
+        if(ttlMillis < 0)
+            throw new IllegalArgumentException("Parameter ttlMillis cannot be negative");
+        REGIONS.put(clazz, Optional.of(new Region(maxEntries, ttlMillis)));
+    }
+
+    /**
+     * Stops caching a class, discarding the objects already cached for it
+     * @param clazz The class no longer cached
+     * @throws IllegalArgumentException Thrown when parameter clazz is null
+     */
+    public void disable(Class<?> clazz) throws IllegalArgumentException {
+        if(clazz == null)
+            throw new IllegalArgumentException("Parameter clazz cannot be null");
+        REGIONS.put(clazz, Optional.empty());
+    }
+
+    /**
+     * @param clazz The class being checked
+     * @return Returns true if objects of the class are cached, false if not
+     */
+    public boolean isCached(Class<?> clazz) {
+        return region(clazz).isPresent();
+    }
+
+    /**
+     * Returns a cached object
+     * @param clazz The class of the object
+     * @param id The id of the object
+     * @return Returns the cached object, or an empty optional if it is not cached
+     */
+    public Optional<Object> get(Class<?> clazz, Object id) {
+        Optional<Region> region = region(clazz);
+        return region.isPresent() ? Optional.ofNullable(region.get().get(id)) : Optional.empty();
+    }
+
+    /**
+     * Returns the version of a class's region, which changes whenever its objects are evicted by a write
+     * <p>
+     *     Read before querying an object, and passed to {@link #put(Class, Object, Object, long)},
+     *     so that an object read before a concurrent write is not cached after it
+     * </p>
+     * @param clazz The class of the object about to be retrieved
+     * @return Returns the current version of the class's region
+     */
+    public long version(Class<?> clazz) {
+        Optional<Region> region = region(clazz);
+        return region.isPresent() ? region.get().version.get() : 0;
+    }
+
+    /**
+     * Caches an object, unless its class is not cached or was written since version was read
+     * @param clazz The class of the object
+     * @param id The id of the object
+     * @param object The object retrieved
+     * @param version The version of the class's region read before the object was retrieved
+     */
+    public void put(Class<?> clazz, Object id, Object object, long version) {
+        Optional<Region> region = region(clazz);
+        if(region.isPresent() && id != null && object != null)
+            region.get().put(id, object, version);
+    }
+
+    /**
+     * Evicts an object after it was written, along with every cached object of classes which may reference it
+     * @param clazz The class of the object
+     * @param id The id of the object
+     */
+    public void invalidate(Class<?> clazz, Object id) {
+        Optional<Region> region = region(clazz);
+        if(region.isPresent())
+            region.get().invalidate(id);
+        invalidateReferencing(clazz);
+    }
+
+    /**
+     * Evicts several objects of a class after they were written, along with every cached object of classes which may reference them
+     * @param clazz The class of the objects
+     * @param ids The ids of the objects
+     */
+    public void invalidateAll(Class<?> clazz, Collection<?> ids) {
+        Optional<Region> region = region(clazz);
+        if(region.isPresent()) {
+            for (Object id : ids) {
+                region.get().invalidate(id);
+            }
+        }
+        invalidateReferencing(clazz);
+    }
+
+    /**
+     * Evicts every object of a class, along with every cached object of classes which may reference it
+     * @param clazz The class of the objects
+     */
+    public void invalidate(Class<?> clazz) {
+        Optional<Region> region = region(clazz);
+        if(region.isPresent())
+            region.get().clear();
+        invalidateReferencing(clazz);
+    }
+
+    /**
+     * Evicts every cached object
+     */
+    public void clear() {
+        for (Optional<Region> region : REGIONS.values()) {
+            region.ifPresent(Region::clear);
+        }
+    }
+
+    /**
+     * @param clazz The cached class
+     * @return Returns the statistics of the class's region, or an empty optional if the class is not cached
+     */
+    public Optional<Statistics> getStatistics(Class<?> clazz) {
+        return region(clazz).map(Region::statistics);
+    }
+
+    /**
+     * Clears the regions of classes whose objects reference clazz directly or through other objects
+     * @param clazz The class of a written object
+     */
+    private void invalidateReferencing(Class<?> clazz) {
+        for (Map.Entry<Class<?>, Optional<Region>> region : REGIONS.entrySet()) {
+            if(region.getValue().isPresent() && reachable(region.getKey()).contains(clazz))
+                region.getValue().get().clear();
+        }
+    }
+
+    /**
+     * @param clazz A class
+     * @return Returns every class referenced by clazz, directly or through other classes
+     */
+    private Set<Class<?>> reachable(Class<?> clazz) {
+        Set<Class<?>> reachable = REACHABLE.get(clazz);
+        if(reachable != null)
+            return reachable;
+
+        reachable = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(clazz);
+        while (!pending.isEmpty()) {
+            for (ColumnMetadata reference : POJOPropertyGetSet.getEntityMetadata(pending.pop()).getReferenceColumns()) {
+                if(reachable.add(reference.getReferencedClass()))
+                    pending.push(reference.getReferencedClass());
+            }
+        }
+        REACHABLE.put(clazz, reachable);
+        return reachable;
+    }
+
+    /**
+     * Returns the region of a class, created from its {@link SORMCache} annotation the first time it is requested
+     * @param clazz The class
+     * @return Returns the class's region, or an empty optional if it is not cached
+     */
+    private Optional<Region> region(Class<?> clazz) {
+        if(clazz == null)
+            return Optional.empty();
+        return REGIONS.computeIfAbsent(clazz, k -> {
+            SORMCache cache = k.getAnnotation(SORMCache.class);
+            return cache == null ? Optional.empty() :
+                    Optional.of(new Region(Math.max(1, cache.maxEntries()), TimeUnit.SECONDS.toMillis(Math.max(0, cache.ttlSeconds()))));
+        });
+    }
+
+    /**
+     * Cached objects of a single class, by id, in least recently used order
+     */
+    private static final class Region {
+        private final long ttlNanos;
+        private final LruEntries entries;
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        /**
+         * @param maxEntries The maximum number of objects kept
+         * @param ttlMillis The number of milliseconds an object is kept, 0 keeps it until evicted
+         */
+        private Region(int maxEntries, long ttlMillis) {
+            this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+            this.entries = new LruEntries(maxEntries, evictions);
+        }
+
+        /**
+         * @param id The id of the object
+         * @return Returns the cached object, or null if it is not cached or expired
+         */
+        private synchronized Object get(Object id) {
+            Entry entry = entries.get(id);
+            if(entry != null && ttlNanos > 0 && System.nanoTime() - entry.cachedAt > ttlNanos) {
+                entries.remove(id);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            (entry == null ? misses : hits).incrementAndGet();
+            return entry == null ? null : entry.object;
+        }
+
+        /**
+         * @param id The id of the object
+         * @param object The object retrieved
+         * @param readVersion The version read before the object was retrieved, the object is not cached if it changed since
+         */
+        private synchronized void put(Object id, Object object, long readVersion) {
+            if(readVersion == version.get())
+                entries.put(id, new Entry(object, System.nanoTime()));
+        }
+
+        /**
+         * @param id The id of the written object being evicted
+         */
+        private synchronized void invalidate(Object id) {
+            version.incrementAndGet();
+            entries.remove(id);
+        }
+
+        /**
+         * Evicts every object of the region
+         */
+        private synchronized void clear() {
+            version.incrementAndGet();
+            entries.clear();
+        }
+
+        /**
+         * @return Returns a snapshot of the region's statistics
+         */
+        private synchronized Statistics statistics() {
+            return new Statistics(hits.get(), misses.get(), evictions.get(), entries.size());
+        }
+    }
+
+    /**
+     * Objects of a region in access order, evicting the least recently used once there are more than maxEntries
+     */
+    private static final class LruEntries extends LinkedHashMap<Object, Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+        private final AtomicLong evictions;
+
+        /**
+         * @param maxEntries The maximum number of objects kept
+         * @param evictions The number of evicted objects of the region, counted up on every eviction
+         */
+        private LruEntries(int maxEntries, AtomicLong evictions) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            if(size() <= maxEntries)
+                return false;
+            evictions.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * A cached object and when it was cached
+     */
+    private static final class Entry {
+        private final Object object;
+        private final long cachedAt;
+
+        /**
+         * @param object The cached object
+         * @param cachedAt The {@link System#nanoTime()} at which the object was cached
+         */
+        private Entry(Object object, long cachedAt) {
+            this.object = object;
+            this.cachedAt = cachedAt;
+        }
+    }
+
+    /**
+     * Snapshot of the statistics of a cached class
+     */
+    public static final class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+
+        private Statistics(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        /**
+         * @return Returns the number of retrievals answered by the cache
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return Returns the number of retrievals which had to query the database
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return Returns the number of objects evicted because the region was full or they expired
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return Returns the number of objects currently cached
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return Returns the share of retrievals answered by the cache, 0 if there were none
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    ", size=" + size +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.database.ColumnMetadata;
+import dev.model.database.EntityMetadata;
+import dev.model.database.LazyReference;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Select statement retrieving an object together with the objects it references, and the plan to read it back
+ * <p>
+ *     Every {@link dev.model.annotation.SORMReference} is left joined, up to a maximum depth of references,
+ *     so an object graph is retrieved with a single query. Each joined table gets its own alias, and its
+ *     columns are selected in table order as alias_column, so every object is read from its own run of columns.
+ *     References beyond the maximum depth are retrieved with {@link SORMDAO#getById(Object, Class, Connection, DataSource)}.
+ *     Lazy references, see {@link LazyReference}, are never joined, only their id is read.
+ *     Every object is recreated once per read, so references cycling back to an object already read share its instance.
+ * </p>
+ */
+public class JoinFetch {
+
+    private final String selectAll;
+    private final String selectById;
+    private final Node root;
+
+    /**
+     * Generates the statement and plan of an entity
+     * @param metadata The metadata of the entity
+     * @param maxDepth The maximum depth of references joined
+     */
+    private JoinFetch(EntityMetadata metadata, int maxDepth) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder joins = new StringBuilder();
+        int[] counters = new int[2];
+        this.root = plan(metadata, 0, maxDepth, columns, joins, counters);
+        this.selectAll = "select " + columns + " from " + metadata.getTableName() + " t0" + joins;
+        this.selectById = selectAll + " where t0." + POJOPropertyGetSet.getIDColumn(metadata).getColumnName() + " = ?";
+    }
+
+    /**
+     * Factory method to create the JoinFetch of an entity
+     * @param metadata The metadata of the entity
+     * @param maxDepth The maximum depth of references joined, 0 joins nothing
+     * @return Returns a new JoinFetch
+     * @throws IllegalArgumentException Thrown when metadata is null or maxDepth is negative
+     */
+    public static JoinFetch createJoinFetch(EntityMetadata metadata, int maxDepth) throws IllegalArgumentException {
+        if(metadata == null)
+            throw new IllegalArgumentException("Parameter metadata cannot be null");
+        if(maxDepth < 0)
+            throw new IllegalArgumentException("Parameter maxDepth cannot be negative");
+        return new JoinFetch(metadata, maxDepth);
+    }
+
+    /**
+     * Appends the columns and joins of a table and, within the maximum depth, of the tables it references
+     * @param metadata The metadata of the table's entity
+     * @param depth The depth of the table, 0 for the table being selected
+     * @param maxDepth The maximum depth of references joined
+     * @param columns The selected columns
+     * @param joins The join clauses
+     * @param counters The number of aliases and of columns planned so far
+     * @return Returns the plan of the table
+     */
+    private static Node plan(EntityMetadata metadata, int depth, int maxDepth, StringBuilder columns, StringBuilder joins, int[] counters) {
+        String alias = "t" + counters[0]++;
+        Node node = new Node(metadata, counters[1]);
+
+        //selecting columns in table order, id first
+        appendColumn(columns, alias, POJOPropertyGetSet.getIDColumn(metadata));
+        for (ColumnMetadata column : metadata.getFieldColumns()) {
+            appendColumn(columns, alias, column);
+        }
+        for (ColumnMetadata column : metadata.getReferenceColumns()) {
+            appendColumn(columns, alias, column);
+        }
+        counters[1] += 1 + metadata.getFieldColumns().size() + metadata.getReferenceColumns().size();
+
+        if(depth == maxDepth)
+            return node;
+
+        //joining referenced tables, their columns follow the columns of this table
+        List<ColumnMetadata> references = metadata.getReferenceColumns();
+        for (int i = 0; i < references.size(); i++) {
+            if(references.get(i).isLazy())
+                continue;
+            EntityMetadata referenced = POJOPropertyGetSet.getEntityMetadata(references.get(i).getReferencedClass());
+            String referencedAlias = "t" + counters[0];
+            joins.append(" left join ").append(referenced.getTableName()).append(' ').append(referencedAlias)
+                    .append(" on ").append(referencedAlias).append('.').append(POJOPropertyGetSet.getIDColumn(referenced).getColumnName())
+                    .append(" = ").append(alias).append('.').append(references.get(i).getColumnName());
+            node.children[i] = plan(referenced, depth + 1, maxDepth, columns, joins, counters);
+        }
+        return node;
+    }
+
+    /**
+     * Appends an aliased column to the selected columns
+     * @param columns The selected columns
+     * @param alias The alias of the column's table
+     * @param column The column
+     */
+    private static void appendColumn(StringBuilder columns, String alias, ColumnMetadata column) {
+        if(columns.length() > 0)
+            columns.append(", ");
+        columns.append(alias).append('.').append(column.getColumnName())
+                .append(" as ").append(alias).append('_').append(column.getColumnName());
+    }
+
+    /**
+     * @return Returns the select statement of every object of the table, without parameters
+     */
+    public String getSelectAll() {
+        return selectAll;
+    }
+
+    /**
+     * @return Returns the select statement, the only parameter is the id of the object being selected
+     */
+    public String getSelectById() {
+        return selectById;
+    }
+
+    /**
+     * Recreates an object graph from the current row of a ResultSet of {@link #getSelectById()} or {@link #getSelectAll()}
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param clazz The class of the object being recreated
+     * @param connection The connection used to retrieve references beyond the maximum depth, it is not closed by this method
+     * @param dataSource The connection pool lazy references are retrieved through when accessed
+     * @param <T> The type of the object being recreated
+     * @return Returns the recreated object, or an empty optional if it could not be instantiated
+     * @throws SQLException Thrown when unable to read ResultSet or retrieve references
+     * @throws IllegalAccessException Thrown when this could not access a field/property of an object
+     * @throws InvocationTargetException Thrown when failed to invoke constructor
+     * @throws InstantiationException Thrown when the object could not be successfully instantiated
+     */
+    public <T> Optional<T> read(ResultSet resultSet, Class<T> clazz, Connection connection, DataSource dataSource) throws SQLException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        return read(resultSet, clazz, connection, dataSource, new HashMap<>());
+    }
+
+    /**
+     * Recreates an object graph from the current row of a ResultSet, reusing objects already recreated by the same read
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param clazz The class of the object being recreated
+     * @param connection The connection used to retrieve references beyond the maximum depth, it is not closed by this method
+     * @param dataSource The connection pool lazy references are retrieved through when accessed
+     * @param loaded The objects already recreated by this read, per class and id, recreated objects are added to it
+     * @param <T> The type of the object being recreated
+     * @return Returns the recreated object, or an empty optional if it could not be instantiated
+     * @throws SQLException Thrown when unable to read ResultSet or retrieve references
+     * @throws IllegalAccessException Thrown when this could not access a field/property of an object
+     * @throws InvocationTargetException Thrown when failed to invoke constructor
+     * @throws InstantiationException Thrown when the object could not be successfully instantiated
+     */
+    <T> Optional<T> read(ResultSet resultSet, Class<T> clazz, Connection connection, DataSource dataSource, Map<Class<?>, Map<Object, Object>> loaded) throws SQLException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        return Optional.ofNullable(clazz.cast(read(root, resultSet, connection, dataSource, loaded)));
+    }
+
+    /**
+     * Recreates the object of a planned table and the objects it references
+     * @param node The plan of the table
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param connection The connection used to retrieve references beyond the maximum depth
+     * @param dataSource The connection pool lazy references are retrieved through when accessed
+     * @param loaded The objects already recreated by this read, per class and id, recreated objects are added to it
+     * @return Returns the recreated object, or null if the table had no joined row or the object could not be instantiated
+     * @throws SQLException Thrown when unable to read ResultSet or retrieve references
+     * @throws IllegalAccessException Thrown when this could not access a field/property of an object
+     * @throws InvocationTargetException Thrown when failed to invoke constructor
+     * @throws InstantiationException Thrown when the object could not be successfully instantiated
+     */
+    private static Object read(Node node, ResultSet resultSet, Connection connection, DataSource dataSource, Map<Class<?>, Map<Object, Object>> loaded) throws SQLException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        //a left join without a matching row selects null ids
+        resultSet.getObject(node.offset + 1);
+        if(resultSet.wasNull())
+            return null;
+
+        Optional<?> object = POJOPropertyGetSet.buildRow(resultSet, node.metadata.getEntityClass(), node.offset);
+        if(!object.isPresent())
+            return null;
+
+        //objects reached again through a reference cycle are only recreated once
+        Map<Object, Object> objects = loaded.computeIfAbsent(node.metadata.getEntityClass(), k -> new HashMap<>());
+        Object id = POJOPropertyGetSet.getID(object.get()).getValue();
+        Object existing = objects.get(id);
+        if(existing != null)
+            return existing;
+        objects.put(id, object.get());
+
+        //the plan outlives changes of access strategy, so accessors are taken from the current metadata
+        List<ColumnMetadata> references = POJOPropertyGetSet.getEntityMetadata(node.metadata.getEntityClass()).getReferenceColumns();
+        int referenceOffset = node.offset + 1 + node.metadata.getFieldColumns().size();
+        for (int i = 0; i < references.size(); i++) {
+            ColumnMetadata reference = references.get(i);
+            Object referenced;
+            if(node.children[i] != null) {
+                referenced = read(node.children[i], resultSet, connection, dataSource, loaded);
+            } else {
+                Object referenceID = POJOPropertyGetSet.getReferenceID(reference, resultSet, referenceOffset + i + 1);
+                if(referenceID == null)
+                    referenced = null;
+                else if(reference.isLazy())
+                    referenced = SORMDAO.createLazyReference(referenceID, reference.getReferencedClass(), dataSource);
+                else
+                    referenced = SORMDAO.getById(referenceID, reference.getReferencedClass(), connection, dataSource, loaded).orElse(null);
+            }
+            reference.getAccessor().set(object.get(), referenced);
+        }
+        return object.get();
+    }
+
+    /**
+     * Plan of a single table of the statement
+     */
+    private static final class Node {
+        private final EntityMetadata metadata;
+        private final int offset;
+        private final Node[] children;
+
+        /**
+         * @param metadata The metadata of the table's entity
+         * @param offset The number of selected columns preceding the table's id column
+         */
+        private Node(EntityMetadata metadata, int offset) {
+            this.metadata = metadata;
+            this.offset = offset;
+            this.children = new Node[metadata.getReferenceColumns().size()];
+        }
+    }
+}
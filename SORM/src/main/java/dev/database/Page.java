@@ -0,0 +1,91 @@
+package dev.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A single page of a keyset pagination, see {@link Query#page(String, Object, Object, int)}
+ * <p>
+ *     Holds the page's objects, and the column value and id of its last object,
+ *     which are passed back to retrieve the following page
+ * </p>
+ * @param <T> The type of the page's objects
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final boolean hasNext;
+    private final Object nextValue;
+    private final Object nextKey;
+
+    /**
+     * @param items The objects of the page
+     * @param hasNext Whether another page follows
+     * @param nextValue The column value of the last object, null when paging by id or if no page follows
+     * @param nextKey The id of the last object, null if no page follows
+     */
+    private Page(List<T> items, boolean hasNext, Object nextValue, Object nextKey) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.hasNext = hasNext;
+        this.nextValue = nextValue;
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * Factory method to create a page
+     * @param items The objects of the page
+     * @param hasNext Whether another page follows
+     * @param nextValue The column value of the last object, null when paging by id or if no page follows
+     * @param nextKey The id of the last object, null if no page follows
+     * @param <T> The type of the page's objects
+     * @return Returns a new Page
+     * @throws IllegalArgumentException Thrown when items is null, or when another page follows but nextKey is null
+     */
+    public static <T> Page<T> createPage(List<T> items, boolean hasNext, Object nextValue, Object nextKey) throws IllegalArgumentException {
+        if(items == null)
+            throw new IllegalArgumentException("Parameter items cannot be null");
+        if(hasNext && nextKey == null)
+            throw new IllegalArgumentException("Parameter nextKey cannot be null when another page follows");
+        return new Page<>(items, hasNext, nextValue, nextKey);
+    }
+
+    /**
+     * @return Returns an unmodifiable list of the page's objects, in page order
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return Returns true if another page follows this one, false if this is the last page
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * @return Returns an optional of the column value to pass as afterValue for the next page, empty when paging by id or if no page follows
+     */
+    public Optional<Object> getNextValue() {
+        return Optional.ofNullable(nextValue);
+    }
+
+    /**
+     * @return Returns an optional of the id to pass as afterKey for the next page, empty if no page follows
+     */
+    public Optional<Object> getNextKey() {
+        return Optional.ofNullable(nextKey);
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", hasNext=" + hasNext +
+                ", nextValue=" + nextValue +
+                ", nextKey=" + nextKey +
+                '}';
+    }
+}
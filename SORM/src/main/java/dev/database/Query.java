@@ -0,0 +1,907 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.database.ColumnMetadata;
+import dev.model.database.DataField;
+import dev.model.database.EntityMetadata;
+import dev.model.enumeration.AccessStrategy;
+import dev.model.enumeration.QueryOperator;
+import dev.model.exception.SORMObjectRetrievalException;
+import dev.utility.reflection.AccessorFactory;
+import dev.utility.reflection.Instantiator;
+import dev.utility.reflection.POJOPropertyGetSet;
+import dev.utility.reflection.PropertyAccessor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fluent query over the columns of an entity, compiled to a parameterized select statement
+ * <p>
+ *     Conditions are combined with "and", and may filter any {@link dev.model.annotation.SORMID},
+ *     {@link dev.model.annotation.SORMField} or {@link dev.model.annotation.SORMReference} column by name.
+ *     Values are bound as parameters with the same type binding as {@link SORMDAO}, and the statement text
+ *     is cached per shape of query in the entity's {@link StatementTemplates}, so queries differing only
+ *     in their values prepare the same SQL. References are left joined as they are by {@link SORMDAO#getById(Object)}.
+ * </p>
+ * <p>
+ *     Columns can be projected with {@link #select(String...)}, selecting only those columns into partially
+ *     populated objects, or into data transfer objects with {@link #listAs(Class)}.
+ * </p>
+ * <p>
+ *     The matching rows can also be deleted with {@link #delete()}, or have columns set with {@link #set(String, Object)}
+ *     and {@link #update()}, as a single statement without retrieving them.
+ * </p>
+ * <p>
+ *     A Query is a builder used by a single thread, queries run on the calling thread when
+ *     {@link #list()}, {@link #stream()}, {@link #first()}, {@link #delete()} or {@link #update()} is called.
+ * </p>
+ * @param <T> The type of object being queried
+ */
+public class Query<T> {
+
+    private static final Map<Class<?>, DTOAccess> DTO_ACCESS = new ConcurrentHashMap<>();
+
+    private final Class<T> OBJECT_T_CLASS;
+    private final DataSource DATA_SOURCE;
+    private final EntityMetadata METADATA;
+    private final List<Condition> conditions = new ArrayList<>();
+    private final List<Condition> assignments = new ArrayList<>();
+    private final List<String> ordering = new ArrayList<>();
+    private List<ColumnMetadata> projection;
+    private int limit = -1;
+    private int fetchSize = SORMDAO.DEFAULT_FETCH_SIZE;
+
+    /**
+     * @param tClass The class of the objects being queried
+     * @param dataSource The connection pool the query runs on
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    private Query(Class<T> tClass, DataSource dataSource) throws IllegalArgumentException {
+        if(tClass == null)
+            throw new IllegalArgumentException("Parameter tClass cannot be null");
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        this.OBJECT_T_CLASS = tClass;
+        this.DATA_SOURCE = dataSource;
+        this.METADATA = POJOPropertyGetSet.getEntityMetadata(tClass);
+    }
+
+    /**
+     * Factory method to create a new query of every object of a class
+     * @param tClass The class of the objects being queried, marked with {@link dev.model.annotation.SORMObject}
+     * @param dataSource The connection pool the query runs on
+     * @param <T> The type of object being queried
+     * @return Returns a new Query without conditions
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    public static <T> Query<T> createQuery(Class<T> tClass, DataSource dataSource) throws IllegalArgumentException {
+        return new Query<>(tClass, dataSource);
+    }
+
+    /**
+     * Adds a condition comparing a column to a value
+     * @param column The name of the column
+     * @param operator The comparison, one which compares to a value
+     * @param value The value compared to, of a data type supported by {@link DataField}
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when the column does not exist, the operator does not compare to a value, or value is null or unsupported
+     */
+    public Query<T> where(String column, QueryOperator operator, Object value) throws IllegalArgumentException {
+        if(operator == null)
+            throw new IllegalArgumentException("Parameter operator cannot be null");
+        if(!operator.hasValue())
+            throw new IllegalArgumentException("Operator " + operator + " does not compare to a value");
+        ColumnMetadata columnMetadata = column(column);
+        conditions.add(new Condition(columnMetadata, operator, DataField.createDataField(value, columnMetadata.getColumnName())));
+        return this;
+    }
+
+    /**
+     * Adds a condition on a column alone, such as {@link QueryOperator#IS_NULL}
+     * @param column The name of the column
+     * @param operator The comparison, one which does not compare to a value
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when the column does not exist, or the operator compares to a value
+     */
+    public Query<T> where(String column, QueryOperator operator) throws IllegalArgumentException {
+        if(operator == null)
+            throw new IllegalArgumentException("Parameter operator cannot be null");
+        if(operator.hasValue())
+            throw new IllegalArgumentException("Operator " + operator + " requires a value");
+        conditions.add(new Condition(column(column), operator, null));
+        return this;
+    }
+
+    /**
+     * Selects only some columns instead of every column and reference
+     * <p>
+     *     Objects of the entity are then recreated with their id and the selected fields only, every other property
+     *     keeps the value given by the no argument constructor, and references are not retrieved.
+     *     Objects read with {@link #listAs(Class)} only receive the selected columns.
+     * </p>
+     * @param columns The names of the id or {@link dev.model.annotation.SORMField} columns selected
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when no column is given, or a column is not the id or a field of the entity
+     */
+    public Query<T> select(String... columns) throws IllegalArgumentException {
+        if(columns == null || columns.length == 0)
+            throw new IllegalArgumentException("Parameter columns cannot be empty");
+        List<ColumnMetadata> selected = new ArrayList<>();
+        for (String column : columns) {
+            ColumnMetadata columnMetadata = column(column);
+            if(columnMetadata != POJOPropertyGetSet.getIDColumn(METADATA) && !METADATA.getFieldColumns().contains(columnMetadata))
+                throw new IllegalArgumentException("Only the id and field columns can be selected, not " + column);
+            if(!selected.contains(columnMetadata))
+                selected.add(columnMetadata);
+        }
+        this.projection = selected;
+        return this;
+    }
+
+    /**
+     * Sets a column of every matching row when {@link #update()} is called, replacing a value set before for the same column
+     * @param column The name of the {@link dev.model.annotation.SORMField} column
+     * @param value The value set, of a data type supported by {@link DataField}
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when the column is not a field of the entity, or value is null or unsupported
+     */
+    public Query<T> set(String column, Object value) throws IllegalArgumentException {
+        ColumnMetadata columnMetadata = column(column);
+        if(!METADATA.getFieldColumns().contains(columnMetadata))
+            throw new IllegalArgumentException("Only field columns can be set, not " + column);
+        DataField<Object> dataField = DataField.createDataField(value, columnMetadata.getColumnName());
+        assignments.removeIf(assignment -> assignment.column == columnMetadata);
+        assignments.add(new Condition(columnMetadata, QueryOperator.EQUALS, dataField));
+        return this;
+    }
+
+    /**
+     * Orders the results by a column in ascending order, after any ordering added before
+     * @param column The name of the column
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when the column does not exist
+     */
+    public Query<T> orderBy(String column) throws IllegalArgumentException {
+        ordering.add("t0." + column(column).getColumnName() + " asc");
+        return this;
+    }
+
+    /**
+     * Orders the results by a column in descending order, after any ordering added before
+     * @param column The name of the column
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when the column does not exist
+     */
+    public Query<T> orderByDescending(String column) throws IllegalArgumentException {
+        ordering.add("t0." + column(column).getColumnName() + " desc");
+        return this;
+    }
+
+    /**
+     * Limits the number of results
+     * @param limit The maximum number of objects returned
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when limit is negative
+     */
+    public Query<T> limit(int limit) throws IllegalArgumentException {
+        if(limit < 0)
+            throw new IllegalArgumentException("Parameter limit cannot be negative");
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows fetched from the database at a time, defaults to {@link SORMDAO#DEFAULT_FETCH_SIZE}
+     * @param fetchSize The number of rows fetched at a time
+     * @return Returns this query
+     * @throws IllegalArgumentException Thrown when fetchSize is less than 1
+     */
+    public Query<T> fetchSize(int fetchSize) throws IllegalArgumentException {
+        if(fetchSize < 1)
+            throw new IllegalArgumentException("Parameter fetchSize must be greater than 0");
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * @return Returns the select statement the query runs, values are bound to its parameters in the order conditions were added, then the limit
+     */
+    public String toSQL() {
+        return toSQL(limit >= 0, null, entityColumns());
+    }
+
+    /**
+     * Runs the query, reading every result into memory
+     * @return Returns the objects matching the query, in the query's order
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws SORMObjectRetrievalException Thrown when a result could not be recreated
+     */
+    public List<T> list() throws SQLException, SORMObjectRetrievalException {
+        try (Stream<T> results = stream()) {
+            return results.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Runs the query, returning the first result
+     * @return Returns an optional of the first object matching the query, empty if none matches
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws SORMObjectRetrievalException Thrown when the result could not be recreated
+     */
+    public Optional<T> first() throws SQLException, SORMObjectRetrievalException {
+        try (Stream<T> results = stream(limit == 0 ? 0 : 1)) {
+            return results.findFirst();
+        }
+    }
+
+    /**
+     * Runs the query, reading every result into memory as a data transfer object
+     * <p>
+     *     Each selected column is written to the property of the DTO with the same name.
+     *     Without {@link #select(String...)}, only the id and field columns the DTO declares a property for are selected.
+     *     The DTO needs a no argument constructor, and no annotations.
+     * </p>
+     * @param dtoClass The class of the data transfer objects
+     * @param <D> The type of the data transfer objects
+     * @return Returns the data transfer objects of the rows matching the query, in the query's order
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when the DTO has no no argument constructor, lacks a property for a selected column, or shares no column with the entity
+     * @throws SORMObjectRetrievalException Thrown when a result could not be created
+     */
+    public <D> List<D> listAs(Class<D> dtoClass) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        try (Stream<D> results = streamAs(dtoClass)) {
+            return results.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Runs the query, reading results as data transfer objects through a cursor as they are consumed, see {@link #listAs(Class)}
+     * @param dtoClass The class of the data transfer objects
+     * @param <D> The type of the data transfer objects
+     * @return Returns a lazily populated stream of the data transfer objects, which must be closed to return its connection to the pool
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when the DTO has no no argument constructor, lacks a property for a selected column, or shares no column with the entity
+     * @throws SORMObjectRetrievalException Thrown by the stream when a result could not be created
+     */
+    public <D> Stream<D> streamAs(Class<D> dtoClass) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        if(dtoClass == null)
+            throw new IllegalArgumentException("Parameter dtoClass cannot be null");
+        DTOAccess access = dtoAccess(dtoClass);
+
+        //matching columns to the DTO's properties by name
+        List<ColumnMetadata> columns = new ArrayList<>();
+        List<PropertyAccessor> properties = new ArrayList<>();
+        List<Boolean> primitives = new ArrayList<>();
+        List<ColumnMetadata> candidates = projection;
+        if(candidates == null) {
+            candidates = new ArrayList<>();
+            candidates.add(POJOPropertyGetSet.getIDColumn(METADATA));
+            candidates.addAll(METADATA.getFieldColumns());
+        }
+        for (ColumnMetadata column : candidates) {
+            PropertyAccessor property = access.accessors.get(column.getColumnName());
+            if(property == null && projection != null)
+                throw new IllegalArgumentException(dtoClass.getSimpleName() + " has no property " + column.getColumnName());
+            if(property != null) {
+                columns.add(column);
+                properties.add(property);
+                primitives.add(access.primitives.contains(column.getColumnName()));
+            }
+        }
+        if(columns.isEmpty())
+            throw new IllegalArgumentException(dtoClass.getSimpleName() + " has no property named after a column of " + OBJECT_T_CLASS.getSimpleName());
+
+        return stream(toSQL(limit >= 0, null, columns), limit, new DataField<?>[0], connection -> resultSet -> {
+            try {
+                D dto = dtoClass.cast(access.instantiator.newInstance());
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = POJOPropertyGetSet.getColumnValue(columns.get(i), resultSet, i + 1);
+                    if(value != null || !primitives.get(i))
+                        properties.get(i).set(dto, value);
+                }
+                return dto;
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
+                throw new SORMObjectRetrievalException("Unable to create " + dtoClass.getSimpleName() + ": " + e);
+            }
+        });
+    }
+
+    /**
+     * Runs the query, reading results through a cursor as they are consumed
+     * @return Returns a lazily populated stream of the objects matching the query, which must be closed to return its connection to the pool
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws SORMObjectRetrievalException Thrown by the stream when a result could not be recreated
+     */
+    public Stream<T> stream() throws SQLException, SORMObjectRetrievalException {
+        return stream(limit);
+    }
+
+    /**
+     * Runs the query as a page of a keyset pagination by id, see {@link #page(String, Object, Object, int)}
+     * @param afterKey The id of the last object of the previous page, null for the first page
+     * @param size The maximum number of objects of the page
+     * @return Returns the page, holding the key to pass for the next page
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when size is less than 1, or the query is already ordered or limited
+     * @throws SORMObjectRetrievalException Thrown when a result could not be recreated
+     */
+    public Page<T> page(Object afterKey, int size) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        return page(POJOPropertyGetSet.getIDColumn(METADATA).getColumnName(), null, afterKey, size);
+    }
+
+    /**
+     * Runs the query as a page of a keyset pagination
+     * <p>
+     *     Objects are ordered by the column, then by id, and the page seeks past the last object of the previous page
+     *     with "where (column &gt; ? or (column = ? and id &gt; ?)) order by column, id limit ?" instead of skipping
+     *     rows with an offset, so with an index on the column every page costs the same, however deep it is.
+     *     The column must not hold nulls. The conditions of the query still apply.
+     * </p>
+     * @param column The name of the id column, or of a {@link dev.model.annotation.SORMField} column, to order by
+     * @param afterValue The column value of the last object of the previous page, ignored when paging by id
+     * @param afterKey The id of the last object of the previous page, null for the first page
+     * @param size The maximum number of objects of the page
+     * @return Returns the page, holding the value and key to pass for the next page
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when the column is not the id or a field, when afterValue is null while afterKey is not,
+     * when size is less than 1, or when the query is already ordered or limited
+     * @throws SORMObjectRetrievalException Thrown when a result could not be recreated
+     */
+    public Page<T> page(String column, Object afterValue, Object afterKey, int size) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        ColumnMetadata idColumn = POJOPropertyGetSet.getIDColumn(METADATA);
+        ColumnMetadata pageColumn = column(column);
+        boolean byID = pageColumn == idColumn;
+        if(!byID && !METADATA.getFieldColumns().contains(pageColumn))
+            throw new IllegalArgumentException("Pages can only be ordered by the id or a field column, not " + column);
+        if(size < 1)
+            throw new IllegalArgumentException("Parameter size must be greater than 0");
+        if(!ordering.isEmpty() || limit >= 0)
+            throw new IllegalArgumentException("A page is ordered and limited by its key, the query cannot be ordered or limited");
+        if(afterKey != null && !byID && afterValue == null)
+            throw new IllegalArgumentException("Parameter afterValue cannot be null when paging after a key");
+        if(!byID && projection != null && !projection.contains(pageColumn))
+            throw new IllegalArgumentException("The column " + column + " ordering the pages must be selected");
+
+        //seeking past the previous page, and reading one extra row to know if another page follows
+        Keyset keyset = new Keyset(pageColumn, idColumn, afterKey == null ? null :
+                byID ? new DataField<?>[]{DataField.createDataField(afterKey, idColumn.getColumnName())} :
+                new DataField<?>[]{DataField.createDataField(afterValue, column), DataField.createDataField(afterValue, column), DataField.createDataField(afterKey, idColumn.getColumnName())});
+        List<T> items;
+        try (Stream<T> results = stream(toSQL(true, keyset, entityColumns()), size + 1, keyset.values, entityReader())) {
+            items = results.collect(Collectors.toList());
+        }
+
+        boolean hasNext = items.size() > size;
+        if(hasNext)
+            items = items.subList(0, size);
+        if(!hasNext || items.isEmpty())
+            return Page.createPage(items, false, null, null);
+
+        T last = items.get(items.size() - 1);
+        try {
+            return Page.createPage(items, true, byID ? null : pageColumn.getAccessor().get(last), POJOPropertyGetSet.getID(last).getValue());
+        } catch (IllegalAccessException e) {
+            throw new SORMObjectRetrievalException("Unable to read column " + column + " of " + OBJECT_T_CLASS.getSimpleName() + ": " + e);
+        }
+    }
+
+    /**
+     * Deletes every row matching the query's conditions with a single statement, without retrieving them
+     * <p>
+     *     Rows referencing the deleted rows are deleted by the database, as references cascade on delete.
+     *     The entity's {@link EntityCache} entries are evicted.
+     * </p>
+     * @return Returns the number of rows deleted
+     * @throws SQLException Thrown when unable to successfully execute the statement
+     * @throws IllegalStateException Thrown when the query has a limit or an ordering
+     */
+    public int delete() throws SQLException, IllegalStateException {
+        return write(true, 0);
+    }
+
+    /**
+     * Deletes every row matching the query's conditions in chunks, without retrieving them
+     * <p>
+     *     Each statement deletes at most chunkSize rows and is committed on its own, bounding the locks held and the size of
+     *     each transaction, until no matching row is left. Rows deleted before a failing chunk stay deleted.
+     * </p>
+     * @param chunkSize The maximum number of rows deleted by a single statement
+     * @return Returns the number of rows deleted
+     * @throws SQLException Thrown when unable to successfully execute a statement
+     * @throws IllegalArgumentException Thrown when chunkSize is less than 1
+     * @throws IllegalStateException Thrown when the query has a limit or an ordering
+     */
+    public int delete(int chunkSize) throws SQLException, IllegalArgumentException, IllegalStateException {
+        if(chunkSize < 1)
+            throw new IllegalArgumentException("Parameter chunkSize must be greater than 0");
+        return write(true, chunkSize);
+    }
+
+    /**
+     * Sets the columns given to {@link #set(String, Object)} on every row matching the query's conditions with a single statement,
+     * without retrieving them
+     * <p>
+     *     The entity's {@link EntityCache} entries are evicted, and objects already retrieved have every column set by their next update.
+     * </p>
+     * @return Returns the number of rows updated
+     * @throws SQLException Thrown when unable to successfully execute the statement
+     * @throws IllegalStateException Thrown when no column was set, or the query has a limit or an ordering
+     */
+    public int update() throws SQLException, IllegalStateException {
+        return write(false, 0);
+    }
+
+    /**
+     * Sets the columns given to {@link #set(String, Object)} on every row matching the query's conditions in chunks, without retrieving them
+     * <p>
+     *     Rows are updated in ranges of at most chunkSize ids, ascending, each committed on its own, bounding the locks held and
+     *     the size of each transaction. Every row is visited once, even when it still matches the conditions once updated.
+     *     Rows updated before a failing chunk stay updated.
+     * </p>
+     * @param chunkSize The maximum number of rows updated by a single statement
+     * @return Returns the number of rows updated
+     * @throws SQLException Thrown when unable to successfully execute a statement
+     * @throws IllegalArgumentException Thrown when chunkSize is less than 1
+     * @throws IllegalStateException Thrown when no column was set, or the query has a limit or an ordering
+     */
+    public int update(int chunkSize) throws SQLException, IllegalArgumentException, IllegalStateException {
+        if(chunkSize < 1)
+            throw new IllegalArgumentException("Parameter chunkSize must be greater than 0");
+        return write(false, chunkSize);
+    }
+
+    /**
+     * Deletes or updates the rows matching the query's conditions
+     * @param delete True to delete the rows, false to update them
+     * @param chunkSize The maximum number of rows written by a single statement, 0 to write every row with one statement
+     * @return Returns the number of rows written
+     * @throws SQLException Thrown when unable to successfully execute a statement
+     * @throws IllegalStateException Thrown when no column was set for an update, or the query has a limit or an ordering
+     */
+    private int write(boolean delete, int chunkSize) throws SQLException, IllegalStateException {
+        if(limit >= 0 || !ordering.isEmpty())
+            throw new IllegalStateException("A query with a limit or an ordering cannot " + (delete ? "delete" : "update") + ", use a chunk size instead");
+        if(!delete && assignments.isEmpty())
+            throw new IllegalStateException("No column was set to update");
+
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            //nothing to write if there isn't even a table for the object's class
+            if(!DATA_SOURCE.getSchemaRegistry().tableExists(METADATA.getTableName(), connection))
+                return 0;
+            try {
+                if(chunkSize == 0)
+                    return execute(connection, writeSQL(delete, false, false), new DataField<?>[0], -1);
+
+                //deleted rows no longer match, so each chunk takes the next matching rows
+                int total = 0;
+                if(delete) {
+                    int count;
+                    do {
+                        count = execute(connection, writeSQL(true, true, false), new DataField<?>[0], chunkSize);
+                        total += count;
+                    } while (count >= chunkSize);
+                    return total;
+                }
+
+                //updated rows may still match, so each chunk is the next range of ids
+                DataField<?> after = null;
+                while (true) {
+                    DataField<?> last = chunkEnd(connection, after, chunkSize);
+                    if(last == null)
+                        return total;
+                    total += execute(connection, writeSQL(false, true, after != null),
+                            after == null ? new DataField<?>[]{last} : new DataField<?>[]{after, last}, -1);
+                    after = last;
+                }
+            } finally {
+                DATA_SOURCE.getEntityCache().invalidate(OBJECT_T_CLASS);
+                DATA_SOURCE.getDirtyTracker().untrackAll(OBJECT_T_CLASS);
+            }
+        }
+    }
+
+    /**
+     * Finds the last id of the next chunk of matching rows
+     * @param connection The borrowed connection to query with
+     * @param after The last id of the previous chunk, null for the first chunk
+     * @param chunkSize The maximum number of rows of the chunk
+     * @return Returns the highest id of the chunk, or null if no matching row is left
+     * @throws SQLException Thrown when unable to successfully query database
+     */
+    private DataField<?> chunkEnd(Connection connection, DataField<?> after, int chunkSize) throws SQLException {
+        ColumnMetadata idColumn = POJOPropertyGetSet.getIDColumn(METADATA);
+        String shape = "chunk end" + shape(false) + (after == null ? "" : "|after");
+        String sql = StatementTemplates.getStatementTemplates(OBJECT_T_CLASS).getQuery(shape, key -> {
+            String id = idColumn.getColumnName();
+            StringBuilder statement = new StringBuilder("select max(chunk.").append(id).append(") from (select ").append(id)
+                    .append(" from ").append(METADATA.getTableName());
+            appendConditions(statement, "");
+            if(after != null)
+                statement.append(conditions.isEmpty() ? " where " : " and ").append(id).append(" > ?");
+            return statement.append(" order by ").append(id).append(" limit ?) chunk").toString();
+        });
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = bind(statement, false, after == null ? new DataField<?>[0] : new DataField<?>[]{after});
+            statement.setInt(index, chunkSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Object last = resultSet.next() ? POJOPropertyGetSet.getColumnValue(idColumn, resultSet, 1) : null;
+                return last == null ? null : DataField.createDataField(last, idColumn.getColumnName());
+            }
+        }
+    }
+
+    /**
+     * Executes a delete or update statement of the query
+     * @param connection The borrowed connection to execute with
+     * @param sql The statement, compiled by {@link #writeSQL(boolean, boolean, boolean)}
+     * @param ids The id parameters bound after the values of the conditions
+     * @param limit The limit parameter bound last, negative if the statement has none
+     * @return Returns the number of rows written
+     * @throws SQLException Thrown when unable to successfully execute the statement
+     */
+    private int execute(Connection connection, String sql, DataField<?>[] ids, int limit) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = bind(statement, true, ids);
+            if(limit >= 0)
+                statement.setInt(index, limit);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Binds the values of the query's assignments, then conditions, then ids
+     * @param statement The statement being prepared
+     * @param withAssignments Whether the statement sets the assigned columns
+     * @param ids The id parameters bound after the values of the conditions
+     * @return Returns the index following the last parameter set
+     * @throws SQLException Thrown when a parameter could not be set
+     */
+    private int bind(PreparedStatement statement, boolean withAssignments, DataField<?>[] ids) throws SQLException {
+        int index = 1;
+        if(withAssignments) {
+            for (Condition assignment : assignments) {
+                SORMDAO.setParameter(statement, index++, assignment.value);
+            }
+        }
+        for (Condition condition : conditions) {
+            if(condition.value != null)
+                SORMDAO.setParameter(statement, index++, condition.value);
+        }
+        for (DataField<?> id : ids) {
+            SORMDAO.setParameter(statement, index++, id);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the delete or update statement of the query's shape, compiling it the first time the shape is run
+     * @param delete True for the delete statement, false for the update statement
+     * @param chunked Whether the statement writes a chunk, a limit parameter for deletes, an upper id parameter for updates
+     * @param after Whether the chunk of an update has a lower id parameter, the last id of the previous chunk
+     * @return Returns the delete or update statement
+     */
+    private String writeSQL(boolean delete, boolean chunked, boolean after) {
+        String shape = (delete ? "delete" : "update") + shape(!delete) + (chunked ? "|chunk" : "") + (after ? "|after" : "");
+        return StatementTemplates.getStatementTemplates(OBJECT_T_CLASS).getQuery(shape, key -> {
+            String table = METADATA.getTableName();
+            String id = POJOPropertyGetSet.getIDColumn(METADATA).getColumnName();
+            StringBuilder sql = new StringBuilder();
+            if(delete) {
+                sql.append("delete from ").append(table);
+                if(chunked)
+                    sql.append(" where ").append(id).append(" in (select ").append(id).append(" from ").append(table);
+                appendConditions(sql, "");
+                return chunked ? sql.append(" limit ?)").toString() : sql.toString();
+            }
+
+            sql.append("update ").append(table).append(" set ");
+            for (int i = 0; i < assignments.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(assignments.get(i).column.getColumnName()).append(" = ?");
+            }
+            appendConditions(sql, "");
+            if(chunked) {
+                sql.append(conditions.isEmpty() ? " where " : " and ");
+                if(after)
+                    sql.append(id).append(" > ? and ");
+                sql.append(id).append(" <= ?");
+            }
+            return sql.toString();
+        });
+    }
+
+    /**
+     * @param withAssignments Whether the shape includes the assigned columns
+     * @return Returns the shape of the query's conditions, and of its assignments if requested
+     */
+    private String shape(boolean withAssignments) {
+        StringBuilder shape = new StringBuilder();
+        if(withAssignments) {
+            shape.append("|set");
+            for (Condition assignment : assignments) {
+                shape.append(' ').append(assignment.column.getColumnName());
+            }
+        }
+        for (Condition condition : conditions) {
+            shape.append('|').append(condition.column.getColumnName()).append(' ').append(condition.operator.name());
+        }
+        return shape.toString();
+    }
+
+    /**
+     * Appends the query's conditions as a where clause
+     * @param sql The statement being compiled
+     * @param prefix The prefix of every column, such as the alias of the table
+     */
+    private void appendConditions(StringBuilder sql, String prefix) {
+        for (int i = 0; i < conditions.size(); i++) {
+            Condition condition = conditions.get(i);
+            sql.append(i == 0 ? " where " : " and ").append(prefix).append(condition.column.getColumnName())
+                    .append(' ').append(condition.operator.getSQL());
+            if(condition.operator.hasValue())
+                sql.append(" ?");
+        }
+    }
+
+    /**
+     * Runs the query with a limit
+     * @param limit The maximum number of objects returned, negative for no limit
+     * @return Returns a lazily populated stream of the objects matching the query
+     * @throws SQLException Thrown when unable to successfully query database
+     */
+    private Stream<T> stream(int limit) throws SQLException {
+        return stream(toSQL(limit >= 0, null, entityColumns()), limit, new DataField<?>[0], entityReader());
+    }
+
+    /**
+     * @return Returns the columns selected for objects of the entity, id first, or null when every column and reference is selected
+     */
+    private List<ColumnMetadata> entityColumns() {
+        if(projection == null)
+            return null;
+        List<ColumnMetadata> columns = new ArrayList<>();
+        columns.add(POJOPropertyGetSet.getIDColumn(METADATA));
+        for (ColumnMetadata column : projection) {
+            if(!columns.contains(column))
+                columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * @return Returns the reader of objects of the entity, given the connection its statement runs on
+     */
+    private Function<Connection, ResultSetStream.RowReader<T>> entityReader() {
+        List<ColumnMetadata> columns = entityColumns();
+        if(columns == null) {
+            JoinFetch joinFetch = StatementTemplates.getStatementTemplates(OBJECT_T_CLASS).getJoinFetch(SORMDAO.getMaxJoinDepth());
+            return connection -> resultSet -> SORMDAO.readRow(joinFetch, resultSet, OBJECT_T_CLASS, connection, DATA_SOURCE);
+        }
+        return connection -> resultSet -> {
+            try {
+                return POJOPropertyGetSet.buildColumns(resultSet, OBJECT_T_CLASS, columns).orElseThrow(() ->
+                        new SORMObjectRetrievalException("Unable to recreate " + OBJECT_T_CLASS.getSimpleName() + ", ensure it has a no argument constructor marked with SORMNoArgConstructor"));
+            } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+                throw new SORMObjectRetrievalException("Unable to recreate " + OBJECT_T_CLASS.getSimpleName() + ": " + e);
+            }
+        };
+    }
+
+    /**
+     * Runs a statement of the query
+     * @param sql The statement, compiled by {@link #toSQL(boolean, Keyset, List)}
+     * @param limit The maximum number of rows returned, negative for no limit
+     * @param keyValues The values of the keyset parameters, bound after the values of the conditions
+     * @param readers Creates the reader of each row, given the connection the statement runs on
+     * @param <R> The type each row is read as
+     * @return Returns a lazily populated stream of the rows matching the query
+     * @throws SQLException Thrown when unable to successfully query database
+     */
+    private <R> Stream<R> stream(String sql, int limit, DataField<?>[] keyValues, Function<Connection, ResultSetStream.RowReader<R>> readers) throws SQLException {
+        Connection connection = DATA_SOURCE.getConnection();
+        //return empty if there isn't even a table for the object's class
+        if(!DATA_SOURCE.getSchemaRegistry().tableExists(METADATA.getTableName(), connection)) {
+            connection.close();
+            return Stream.empty();
+        }
+
+        List<Condition> bound = new ArrayList<>(conditions);
+        return ResultSetStream.stream(connection, sql, fetchSize, statement -> {
+            int index = 1;
+            for (Condition condition : bound) {
+                if(condition.value != null)
+                    SORMDAO.setParameter(statement, index++, condition.value);
+            }
+            for (DataField<?> keyValue : keyValues) {
+                SORMDAO.setParameter(statement, index++, keyValue);
+            }
+            if(limit >= 0)
+                statement.setInt(index, limit);
+        }, readers.apply(connection));
+    }
+
+    /**
+     * Returns the statement of the query's shape, compiling it the first time the shape is run
+     * @param limited Whether the statement has a limit parameter
+     * @param keyset The keyset the statement pages by, null if it is not a page
+     * @param columns The columns selected, null to select every column and join references
+     * @return Returns the select statement
+     */
+    private String toSQL(boolean limited, Keyset keyset, List<ColumnMetadata> columns) {
+        int maxDepth = SORMDAO.getMaxJoinDepth();
+
+        //the shape holds everything but the values, which are bound as parameters
+        StringBuilder shape = new StringBuilder();
+        if(columns == null) {
+            shape.append(maxDepth);
+        } else {
+            shape.append("select");
+            for (ColumnMetadata column : columns) {
+                shape.append(' ').append(column.getColumnName());
+            }
+        }
+        shape.append(shape(false));
+        shape.append("|order");
+        for (String order : ordering) {
+            shape.append('|').append(order);
+        }
+        if(keyset != null)
+            shape.append("|page ").append(keyset.column.getColumnName()).append(keyset.values.length > 0 ? " after" : "");
+        if(limited)
+            shape.append("|limit");
+
+        return StatementTemplates.getStatementTemplates(OBJECT_T_CLASS).getQuery(shape.toString(), key -> {
+            StringBuilder sql = new StringBuilder();
+            if(columns == null) {
+                sql.append(StatementTemplates.getStatementTemplates(OBJECT_T_CLASS).getJoinFetch(maxDepth).getSelectAll());
+            } else {
+                sql.append("select ");
+                for (int i = 0; i < columns.size(); i++) {
+                    sql.append(i == 0 ? "" : ", ").append("t0.").append(columns.get(i).getColumnName());
+                }
+                sql.append(" from ").append(METADATA.getTableName()).append(" t0");
+            }
+            appendConditions(sql, "t0.");
+            if(keyset != null) {
+                String column = "t0." + keyset.column.getColumnName();
+                String id = "t0." + keyset.idColumn.getColumnName();
+                if(keyset.values.length > 0) {
+                    sql.append(conditions.isEmpty() ? " where " : " and ");
+                    if(keyset.column == keyset.idColumn)
+                        sql.append(id).append(" > ?");
+                    else
+                        sql.append('(').append(column).append(" > ? or (").append(column).append(" = ? and ").append(id).append(" > ?))");
+                }
+                sql.append(" order by ").append(column);
+                if(keyset.column != keyset.idColumn)
+                    sql.append(", ").append(id);
+            }
+            if(!ordering.isEmpty())
+                sql.append(" order by ").append(String.join(", ", ordering));
+            if(limited)
+                sql.append(" limit ?");
+            return sql.toString();
+        });
+    }
+
+    /**
+     * Returns the accessors of a data transfer object, creating them only the first time the class is read,
+     * and again after the access strategy changed
+     * @param dtoClass The class of the data transfer object
+     * @return Returns the cached accessors of the class
+     * @throws IllegalArgumentException Thrown when the class has no no argument constructor
+     */
+    private static DTOAccess dtoAccess(Class<?> dtoClass) throws IllegalArgumentException {
+        AccessStrategy strategy = POJOPropertyGetSet.getAccessStrategy();
+        DTOAccess access = DTO_ACCESS.get(dtoClass);
+        if(access == null || access.strategy != strategy) {
+            access = new DTOAccess(dtoClass, strategy);
+            DTO_ACCESS.put(dtoClass, access);
+        }
+        return access;
+    }
+
+    /**
+     * Finds a column of the queried entity
+     * @param column The name of the column
+     * @return Returns the column
+     * @throws IllegalArgumentException Thrown when column is null or the entity has no such column
+     */
+    private ColumnMetadata column(String column) throws IllegalArgumentException {
+        if(column == null)
+            throw new IllegalArgumentException("Parameter column cannot be null");
+        return METADATA.getColumn(column).orElseThrow(() ->
+                new IllegalArgumentException(OBJECT_T_CLASS.getSimpleName() + " has no column " + column));
+    }
+
+    /**
+     * The instantiator and property accessors of a data transfer object, created through {@link AccessorFactory}
+     */
+    private static final class DTOAccess {
+        private final AccessStrategy strategy;
+        private final Instantiator instantiator;
+        private final Map<String, PropertyAccessor> accessors = new HashMap<>();
+        private final Set<String> primitives = new HashSet<>();
+
+        /**
+         * @param dtoClass The class of the data transfer object
+         * @param strategy How its properties and constructor are accessed
+         * @throws IllegalArgumentException Thrown when the class has no no argument constructor
+         */
+        private DTOAccess(Class<?> dtoClass, AccessStrategy strategy) throws IllegalArgumentException {
+            this.strategy = strategy;
+            try {
+                this.instantiator = AccessorFactory.createInstantiator(dtoClass.getDeclaredConstructor(), strategy);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(dtoClass.getSimpleName() + " needs a no argument constructor");
+            }
+
+            //properties are found by name, including inherited ones, a subclass's property hiding its superclass's
+            for (Class<?> c = dtoClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if(Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || accessors.containsKey(field.getName()))
+                        continue;
+                    accessors.put(field.getName(), AccessorFactory.createPropertyAccessor(field, strategy));
+                    if(field.getType().isPrimitive())
+                        primitives.add(field.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * The ordering and seek values of a page
+     */
+    private static final class Keyset {
+        private final ColumnMetadata column;
+        private final ColumnMetadata idColumn;
+        private final DataField<?>[] values;
+
+        /**
+         * @param column The column the page is ordered by
+         * @param idColumn The id column, ordering objects with equal column values
+         * @param values The values seeking past the previous page, in parameter order, null for the first page
+         */
+        private Keyset(ColumnMetadata column, ColumnMetadata idColumn, DataField<?>[] values) {
+            this.column = column;
+            this.idColumn = idColumn;
+            this.values = values == null ? new DataField<?>[0] : values;
+        }
+    }
+
+    /**
+     * A single condition of the query, or a column set by an update
+     */
+    private static final class Condition {
+        private final ColumnMetadata column;
+        private final QueryOperator operator;
+        private final DataField<Object> value;
+
+        /**
+         * @param column The column being compared
+         * @param operator The comparison, EQUALS for a column set by an update
+         * @param value The value compared to or set, null for operators without a value
+         */
+        private Condition(ColumnMetadata column, QueryOperator operator, DataField<Object> value) {
+            this.column = column;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package dev.database;
+
+import dev.model.exception.SORMObjectRetrievalException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stream over the rows of a query, reading each row only when it is consumed
+ * <p>
+ *     The query runs on a borrowed connection with auto-commit disabled and a fetch size set,
+ *     so drivers such as PostgreSQL's read rows through a server side cursor, fetchSize rows at a time,
+ *     instead of loading the whole result into memory. The statement, its ResultSet and the connection
+ *     are released when the stream is closed, or as soon as its last row has been read.
+ * </p>
+ * @param <R> The type each row is read as
+ */
+final class ResultSetStream<R> extends Spliterators.AbstractSpliterator<R> {
+
+    private final Connection connection;
+    private final boolean autoCommit;
+    private final PreparedStatement statement;
+    private final RowReader<R> reader;
+    private ResultSet resultSet;
+    private boolean closed;
+
+    /**
+     * @param connection The borrowed connection the query runs on
+     * @param autoCommit The auto-commit mode of the connection to restore once closed
+     * @param statement The prepared query, with its parameters set
+     * @param reader Reads each row
+     */
+    private ResultSetStream(Connection connection, boolean autoCommit, PreparedStatement statement, RowReader<R> reader) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.connection = connection;
+        this.autoCommit = autoCommit;
+        this.statement = statement;
+        this.reader = reader;
+    }
+
+    /**
+     * Runs a query, returning a stream which reads its rows as they are consumed
+     * <p>
+     *     The stream takes ownership of the connection, closing it when the stream is closed.
+     *     If the query can not be executed the connection is closed before the exception is thrown
+     * </p>
+     * @param connection The borrowed connection to query with
+     * @param sql The query
+     * @param fetchSize The number of rows fetched from the database at a time
+     * @param binder Sets the parameters of the query
+     * @param reader Reads each row of the query
+     * @param <R> The type each row is read as
+     * @return Returns a lazily populated stream of the rows, which must be closed
+     * @throws SQLException Thrown when the query could not be executed
+     */
+    static <R> Stream<R> stream(Connection connection, String sql, int fetchSize, ParameterBinder binder, RowReader<R> reader) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        PreparedStatement statement = null;
+        try {
+            //cursors are only kept open across fetches within a transaction
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            binder.bind(statement);
+            ResultSetStream<R> rows = new ResultSetStream<>(connection, autoCommit, statement, reader);
+            rows.resultSet = statement.executeQuery();
+            return StreamSupport.stream(rows, false).onClose(rows::close);
+        } catch (SQLException | RuntimeException e) {
+            if(statement != null)
+                statement.close();
+            connection.rollback();
+            connection.setAutoCommit(autoCommit);
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next row
+     * @param action Consumes the row
+     * @return Returns true if a row was read, false if there are no more rows
+     * @throws SORMObjectRetrievalException Thrown when the row could not be read, the stream should then be closed
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) throws SORMObjectRetrievalException {
+        if(closed)
+            return false;
+        try {
+            if(!resultSet.next()) {
+                close();
+                return false;
+            }
+            action.accept(reader.read(resultSet));
+            return true;
+        } catch (SQLException e) {
+            throw new SORMObjectRetrievalException("Unable to read the next row: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Releases the ResultSet, statement and connection, ending the read only transaction
+     */
+    private void close() {
+        if(closed)
+            return;
+        closed = true;
+        try {
+            try {
+                resultSet.close();
+                statement.close();
+                connection.commit();
+                connection.setAutoCommit(autoCommit);
+            } finally {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            throw new SORMObjectRetrievalException("Unable to release the rows' connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets the parameters of a query
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+        /**
+         * @param statement The prepared query
+         * @throws SQLException Thrown when a parameter could not be set
+         */
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Reads a single row of a query
+     * @param <R> The type the row is read as
+     */
+    @FunctionalInterface
+    interface RowReader<R> {
+        /**
+         * @param resultSet The ResultSet positioned on the row being read
+         * @return Returns the row, never null
+         * @throws SQLException Thrown when the row could not be read
+         * @throws SORMObjectRetrievalException Thrown when the row could not be recreated as an object
+         */
+        R read(ResultSet resultSet) throws SQLException, SORMObjectRetrievalException;
+    }
+}
@@ -1,34 +1,109 @@
 package dev.database;
 
+import dev.database.hikaricp.DataSource;
+import dev.model.database.ColumnMetadata;
 import dev.model.database.DataField;
 import dev.model.database.DataReference;
+import dev.model.database.EntityMetadata;
+import dev.model.database.LazyReference;
+import dev.model.enumeration.SQLDialect;
 import dev.model.exception.SORMAccessException;
 import dev.model.exception.SORMObjectRetrievalException;
 import dev.utility.reflection.POJOPropertyGetSet;
+import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.sql.*;
-import java.util.List;
-import java.util.Optional;
+import java.sql.Date;
+import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Generic DAO for use with any object utilizing SORM annotations
+ * <p>
+ *     SQL is taken from the {@link StatementTemplates} of each object's class
+ * </p>
  * @param <T> The type of object on which CRUD operations will be performed
  * @param <I> The type of the id (primary key) of object <T>
  */
 public class SORMDAO<T, I> implements DAO<T, I>{
 
-    private final Connection CONNECTION;
+    /**
+     * Number of rows bound into a single JDBC batch when no batch size is given
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Largest number of parameters bound into a single statement, the limit of the PostgreSQL driver
+     */
+    public static final int MAX_PARAMETERS = Short.MAX_VALUE;
+
+    /**
+     * Number of rows fetched from the database at a time when streaming, when no fetch size is given
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * Depth of references joined when retrieving an object by id, when not configured otherwise
+     */
+    public static final int DEFAULT_MAX_JOIN_DEPTH = 3;
+
+    /**
+     * Level of a row whose references are being collected, see {@link #collectRows(Object, Map, Map, Map)}
+     */
+    private static final int VISITING = -1;
+
+    private static volatile int maxJoinDepth = Math.max(0, Integer.getInteger("sorm.maxJoinDepth", DEFAULT_MAX_JOIN_DEPTH));
+
+    private final DataSource DATA_SOURCE;
     private final Class<T> OBJECT_T_CLASS;
     private final Class<I> ID_I_CLASS;
 
     /**
-     * Constructor gathers connection, and stores the class of T and I generics
+     * @return Returns the depth of references joined when retrieving an object by id
+     */
+    public static int getMaxJoinDepth() {
+        return maxJoinDepth;
+    }
+
+    /**
+     * Sets the depth of references joined when retrieving an object by id
+     * <p>
+     *     Defaults to the "sorm.maxJoinDepth" system property, or {@link #DEFAULT_MAX_JOIN_DEPTH}.
+     *     References deeper than this are retrieved with further queries, 0 retrieves every reference with its own query
+     * </p>
+     * @param depth The maximum depth of references joined
+     * @throws IllegalArgumentException Thrown when depth is negative
+     */
+    public static void setMaxJoinDepth(int depth) throws IllegalArgumentException {
+        if(depth < 0)
+            throw new IllegalArgumentException("Parameter depth cannot be negative");
+        maxJoinDepth = depth;
+    }
+
+    /**
+     * Constructor uses the process wide default connection pool, and stores the class of T and I generics
+     * @param typeOfT Class of generic type T
+     * @param typeOfI Class of generic type I
+     * @see DBConnection#getDataSource()
+     */
+    public SORMDAO(Class<T> typeOfT, Class<I> typeOfI){
+        this(typeOfT, typeOfI, DBConnection.getInstance().getDataSource());
+    }
+
+    /**
+     * Constructor stores the connection pool, and the class of T and I generics
+     * <p>
+     *     A connection is borrowed from the pool for each operation and returned when it completes
+     * </p>
      * @param typeOfT Class of generic type T
      * @param typeOfI Class of generic type I
-     * @throws SQLException Thrown when an error is encountered creating the connection
+     * @param dataSource The connection pool connections will be borrowed from
+     * @throws IllegalArgumentException Thrown when parameter dataSource is null
      */
-    public SORMDAO(Class<T> typeOfT, Class<I> typeOfI) throws SQLException{
-        this.CONNECTION = DBConnection.getInstance().getConnection();
+    public SORMDAO(Class<T> typeOfT, Class<I> typeOfI, DataSource dataSource) throws IllegalArgumentException{
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        this.DATA_SOURCE = dataSource;
         this.OBJECT_T_CLASS = typeOfT;
         this.ID_I_CLASS = typeOfI;
     }
@@ -48,741 +123,1332 @@ public class SORMDAO<T, I> implements DAO<T, I>{
         if(id == null)
             throw new IllegalArgumentException("Parameter id cannot be null");
 
-        //return empty if there isn't even a table for the object's class
-        if(!objectTableExists(OBJECT_T_CLASS)) {
-            return Optional.empty();
+        //answering cached classes without a round trip, each caller gets its own copy of the cached object
+        EntityCache cache = DATA_SOURCE.getEntityCache();
+        Optional<Object> cached = cache.get(OBJECT_T_CLASS, id);
+        if(cached.isPresent()) {
+            T object = OBJECT_T_CLASS.cast(copyGraph(cached.get(), DATA_SOURCE));
+            DATA_SOURCE.getDirtyTracker().track(object);
+            return Optional.of(object);
         }
+        long version = cache.version(OBJECT_T_CLASS);
 
-        String idFieldName = POJOPropertyGetSet.getIDNameByClass(OBJECT_T_CLASS);
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            //return empty if there isn't even a table for the object's class
+            if(!objectTableExists(OBJECT_T_CLASS, connection))
+                return Optional.empty();
+            Optional<T> object = getById(id, OBJECT_T_CLASS, connection, DATA_SOURCE);
+            if(object.isPresent() && cache.isCached(OBJECT_T_CLASS))
+                cache.put(OBJECT_T_CLASS, id, copyGraph(object.get(), DATA_SOURCE), version);
+            return object;
+        }
+    }
+
+    /**
+     * Retrieves an object from the database using an already borrowed connection
+     * <p>
+     *     Used when resolving references marked with {@link dev.model.annotation.SORMReference},
+     *     so that an entire object graph is read over the connection of the operation that requested it.
+     *     The object's table must exist, as it does for any table referenced by a foreign key.
+     *     References are left joined up to {@link #getMaxJoinDepth()} levels deep, see {@link JoinFetch}
+     * </p>
+     * @param id id of the object being retrieved from the database
+     * @param clazz The class of the object being retrieved
+     * @param connection The connection to query with, it is not closed by this method
+     * @param dataSource The connection pool lazy references of the object are retrieved through when accessed
+     * @param <C> The type of the object being retrieved
+     * @param <K> The type of the object's id
+     * @return Returns Optional which either contains the object if it exists in the database, or an empty optional if it does not
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter id is null
+     * @throws SORMObjectRetrievalException Thrown when the object's row exists but the object could not be recreated from it
+     */
+    public static <C, K> Optional<C> getById(K id, Class<C> clazz, Connection connection, DataSource dataSource) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        return getById(id, clazz, connection, dataSource, new HashMap<>());
+    }
+
+    /**
+     * Retrieves an object from the database using an already borrowed connection, reusing objects already recreated by the same read
+     * <p>
+     *     Used by {@link JoinFetch} for references beyond the maximum depth, so that references cycling back to
+     *     an object of the read share its instance instead of being retrieved again
+     * </p>
+     * @param id id of the object being retrieved from the database
+     * @param clazz The class of the object being retrieved
+     * @param connection The connection to query with, it is not closed by this method
+     * @param dataSource The connection pool lazy references of the object are retrieved through when accessed
+     * @param loaded The objects already recreated by this read, per class and id, recreated objects are added to it
+     * @param <C> The type of the object being retrieved
+     * @param <K> The type of the object's id
+     * @return Returns Optional which either contains the object if it exists in the database, or an empty optional if it does not
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter id is null
+     * @throws SORMObjectRetrievalException Thrown when the object's row exists but the object could not be recreated from it
+     */
+    static <C, K> Optional<C> getById(K id, Class<C> clazz, Connection connection, DataSource dataSource, Map<Class<?>, Map<Object, Object>> loaded) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+
+        if(id == null)
+            throw new IllegalArgumentException("Parameter id cannot be null");
+
+        Object existing = loaded.getOrDefault(clazz, Collections.emptyMap()).get(id);
+        if(existing != null)
+            return Optional.of(clazz.cast(existing));
+
+        EntityMetadata metadata = POJOPropertyGetSet.getEntityMetadata(clazz);
+
+        String idFieldName = POJOPropertyGetSet.getIDColumn(metadata).getColumnName();
         DataField<Object> idDataField = DataField.createDataField(id, idFieldName);
 
-        try (PreparedStatement statement = CONNECTION.prepareStatement("select * from " + OBJECT_T_CLASS.getSimpleName() + " where " + idFieldName + " = ?")) {
-            switch (idDataField.getDataType()) {
-                case CHAR:
-                    statement.setString(1, String.valueOf(idDataField.getValue()));
-                    break;
-                case TEXT:
-                    statement.setString(1, (String) idDataField.getValue());
-                    break;
-                case BIT:
-                    statement.setBoolean(1, (boolean) idDataField.getValue());
-                    break;
-                case NUMERIC:
-                    statement.setBigDecimal(1, (BigDecimal) idDataField.getValue());
-                    break;
-                case TINYINT:
-                    statement.setByte(1, (byte) idDataField.getValue());
-                    break;
-                case SMALLINT:
-                    statement.setShort(1, (short) idDataField.getValue());
-                    break;
-                case INTEGER:
-                    statement.setInt(1, (int) idDataField.getValue());
-                    break;
-                case BIGINT:
-                    statement.setLong(1, (long) idDataField.getValue());
-                    break;
-                case REAL:
-                    statement.setFloat(1, (float) idDataField.getValue());
-                    break;
-                case DOUBLE:
-                    statement.setDouble(1, (double) idDataField.getValue());
-                    break;
-                case DATE:
-                    statement.setDate(1, (Date) idDataField.getValue());
-                    break;
-                case TIME:
-                    statement.setTime(1, (Time) idDataField.getValue());
-                    break;
-                case TIMESTAMP:
-                    statement.setTimestamp(1, (Timestamp) idDataField.getValue());
-                    break;
-                case INVALID:
-                    throw new IllegalArgumentException("Data type is INVALID, and not supported");
-            }
+        JoinFetch joinFetch = StatementTemplates.getStatementTemplates(clazz).getJoinFetch(maxJoinDepth);
+        try (PreparedStatement statement = connection.prepareStatement(joinFetch.getSelectById())) {
+            setParameter(statement, 1, idDataField);
 
             //getting result set
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if(!resultSet.next())
+                    return Optional.empty();
+                return Optional.of(readRow(joinFetch, resultSet, clazz, connection, dataSource, loaded));
+            }
+        }
+    }
 
-            try {
-                return POJOPropertyGetSet.buildObject(id, resultSet, OBJECT_T_CLASS);
-            } catch (Exception ignored) {
-                //todo remove stack trace
-                //ignored.printStackTrace();
-                return Optional.empty();
+
+    /**
+     * Retrieves several objects from the database using chunks of {@link #DEFAULT_BATCH_SIZE} ids
+     * @param ids ids of the objects being retrieved from the database
+     * @return Returns the retrieved objects by id, ids without an object in the database are left out
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter ids is null or contains null
+     * @throws SORMObjectRetrievalException Thrown when a retrieved object could not be recreated
+     * @see #getByIds(Collection, int)
+     */
+    @Override
+    public Map<I, T> getByIds(Collection<I> ids) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        return getByIds(ids, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Retrieves several objects from the database
+     * <p>
+     *     Objects are selected with "in" statements of at most batchSize ids.
+     *     Objects referenced with {@link dev.model.annotation.SORMReference} are also retrieved per chunk of ids
+     *     rather than per object, and every id is only retrieved once, so objects sharing a reference share its instance.
+     * </p>
+     * @param ids ids of the objects being retrieved from the database
+     * @param batchSize The maximum number of ids bound into a single statement, at most {@link #MAX_PARAMETERS}
+     * @return Returns the retrieved objects by id, ids without an object in the database are left out
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter ids is null or contains null, or when batchSize is less than 1 or more than {@link #MAX_PARAMETERS}
+     * @throws SORMObjectRetrievalException Thrown when a retrieved object could not be recreated
+     */
+    public Map<I, T> getByIds(Collection<I> ids, int batchSize) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        return getByIds(ids, batchSize, new HashMap<>());
+    }
+
+    /**
+     * Retrieves several objects from the database, reusing objects that were already retrieved
+     * <p>
+     *     Used by {@link SORMSession} to pass its identity map, so that objects and the objects they reference
+     *     are only retrieved once per session
+     * </p>
+     * @param ids ids of the objects being retrieved from the database
+     * @param batchSize The maximum number of ids bound into a single statement, at most {@link #MAX_PARAMETERS}
+     * @param loaded The objects already retrieved, per class and id, retrieved objects are added to it
+     * @return Returns the retrieved objects by id, ids without an object in the database are left out
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter ids is null or contains null, or when batchSize is less than 1 or more than {@link #MAX_PARAMETERS}
+     * @throws SORMObjectRetrievalException Thrown when a retrieved object could not be recreated
+     */
+    @SuppressWarnings("unchecked")
+    Map<I, T> getByIds(Collection<I> ids, int batchSize, Map<Class<?>, Map<Object, Object>> loaded) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+
+        if(ids == null)
+            throw new IllegalArgumentException("Parameter ids cannot be null");
+        if(batchSize < 1 || batchSize > MAX_PARAMETERS)
+            throw new IllegalArgumentException("Parameter batchSize must be between 1 and " + MAX_PARAMETERS);
+        for (I id : ids) {
+            if(id == null)
+                throw new IllegalArgumentException("Parameter ids cannot contain null");
+        }
+        if(ids.isEmpty())
+            return new LinkedHashMap<>();
+
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            //return empty if there isn't even a table for the object's class
+            if(!objectTableExists(OBJECT_T_CLASS, connection))
+                return new LinkedHashMap<>();
+            Map<Object, Object> objects = getByIds(ids, OBJECT_T_CLASS, batchSize, connection, DATA_SOURCE, loaded);
+
+            //ordering objects as their ids were given
+            Map<I, T> result = new LinkedHashMap<>();
+            for (I id : ids) {
+                Object object = objects.get(id);
+                if(object != null)
+                    result.put(id, (T) object);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Retrieves several objects, and the objects they reference, using an already borrowed connection
+     * @param ids ids of the objects being retrieved
+     * @param clazz The class of the objects being retrieved
+     * @param batchSize The maximum number of ids bound into a single statement
+     * @param connection The borrowed connection to query with
+     * @param dataSource The connection pool lazy references are retrieved through when accessed
+     * @param loaded The objects already retrieved, per class and id, retrieved objects are added to it
+     * @return Returns the retrieved objects of clazz by id
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws SORMObjectRetrievalException Thrown when a retrieved object could not be recreated
+     */
+    private static Map<Object, Object> getByIds(Collection<?> ids, Class<?> clazz, int batchSize, Connection connection, DataSource dataSource, Map<Class<?>, Map<Object, Object>> loaded) throws SQLException, SORMObjectRetrievalException {
+        EntityMetadata metadata = POJOPropertyGetSet.getEntityMetadata(clazz);
+        String idName = POJOPropertyGetSet.getIDColumn(metadata).getColumnName();
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(clazz);
+        Map<Object, Object> objects = loaded.computeIfAbsent(clazz, k -> new HashMap<>());
+
+        //only selecting ids which were not retrieved yet
+        List<Object> missing = new ArrayList<>();
+        for (Object id : new LinkedHashSet<>(ids)) {
+            if(!objects.containsKey(id))
+                missing.add(id);
+        }
+        //objects already retrieved reference objects already retrieved, which ends reference cycles
+        if(missing.isEmpty())
+            return objects;
+
+        //reading rows, remembering the reference ids of each row
+        List<ColumnMetadata> references = metadata.getReferenceColumns();
+        List<Object> rows = new ArrayList<>();
+        List<Object[]> rowReferenceIDs = new ArrayList<>();
+        try {
+            for (int start = 0; start < missing.size(); start += batchSize) {
+                List<Object> chunk = missing.subList(start, Math.min(start + batchSize, missing.size()));
+                try (PreparedStatement statement = connection.prepareStatement(templates.getSelectByIds(chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        setParameter(statement, i + 1, DataField.createDataField(chunk.get(i), idName));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            Optional<?> object = POJOPropertyGetSet.buildRow(resultSet, clazz);
+                            if(!object.isPresent())
+                                throw new SORMObjectRetrievalException("Unable to recreate " + clazz.getSimpleName() + ", ensure it has a no argument constructor marked with SORMNoArgConstructor");
+                            Object[] referenceIDs = new Object[references.size()];
+                            for (int i = 0; i < references.size(); i++) {
+                                referenceIDs[i] = POJOPropertyGetSet.getReferenceID(references.get(i), resultSet, 2 + metadata.getFieldColumns().size() + i);
+                            }
+                            objects.put(POJOPropertyGetSet.getID(object.get()).getValue(), object.get());
+                            rows.add(object.get());
+                            rowReferenceIDs.add(referenceIDs);
+                        }
+                    }
+                }
+            }
+
+            //retrieving the referenced objects of every row at once per reference, lazy references only keep their id
+            for (int i = 0; i < references.size(); i++) {
+                ColumnMetadata reference = references.get(i);
+                if(reference.isLazy()) {
+                    for (int row = 0; row < rows.size(); row++) {
+                        Object referenceID = rowReferenceIDs.get(row)[i];
+                        reference.getAccessor().set(rows.get(row), referenceID == null ? null :
+                                createLazyReference(referenceID, reference.getReferencedClass(), dataSource));
+                    }
+                    continue;
+                }
+                Set<Object> referenceIDs = new LinkedHashSet<>();
+                for (Object[] rowIDs : rowReferenceIDs) {
+                    if(rowIDs[i] != null)
+                        referenceIDs.add(rowIDs[i]);
+                }
+                Map<Object, Object> referenced = referenceIDs.isEmpty() ? Collections.emptyMap() : getByIds(referenceIDs, reference.getReferencedClass(), batchSize, connection, dataSource, loaded);
+                for (int row = 0; row < rows.size(); row++) {
+                    reference.getAccessor().set(rows.get(row), referenced.get(rowReferenceIDs.get(row)[i]));
+                }
             }
+
+            //snapshotting rows once their references are set
+            for (Object row : rows) {
+                dataSource.getDirtyTracker().track(row);
+            }
+        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            throw new SORMObjectRetrievalException("Unable to recreate " + clazz.getSimpleName() + ": " + e);
+        }
+        return objects;
+    }
+
+    /**
+     * Streams every object of the table, fetching {@link #DEFAULT_FETCH_SIZE} rows at a time
+     * @return Returns a lazily populated stream of every object, which must be closed to return its connection to the pool
+     * @throws SQLException Thrown when unable to successfully query database
+     * @see #findAll(int)
+     */
+    @Override
+    public Stream<T> findAll() throws SQLException {
+        return findAll(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every object of the table
+     * <p>
+     *     Rows are read through a cursor, fetchSize rows at a time, and each object is only recreated when it is consumed,
+     *     so memory stays flat regardless of the size of the table. References are left joined as they are by
+     *     {@link #getById(Object)}. The stream holds a connection of the pool until it is closed,
+     *     use it within try-with-resources.
+     * </p>
+     * @param fetchSize The number of rows fetched from the database at a time
+     * @return Returns a lazily populated stream of every object, which must be closed to return its connection to the pool
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when fetchSize is less than 1
+     * @throws SORMObjectRetrievalException Thrown by the stream when a row could not be recreated
+     */
+    public Stream<T> findAll(int fetchSize) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        if(fetchSize < 1)
+            throw new IllegalArgumentException("Parameter fetchSize must be greater than 0");
+
+        Connection connection = DATA_SOURCE.getConnection();
+        //return empty if there isn't even a table for the object's class
+        if(!objectTableExists(OBJECT_T_CLASS, connection)) {
+            connection.close();
+            return Stream.empty();
         }
+
+        JoinFetch joinFetch = StatementTemplates.getStatementTemplates(OBJECT_T_CLASS).getJoinFetch(maxJoinDepth);
+        return ResultSetStream.stream(connection, joinFetch.getSelectAll(), fetchSize, statement -> {},
+                resultSet -> readRow(joinFetch, resultSet, OBJECT_T_CLASS, connection, DATA_SOURCE));
     }
 
+    /**
+     * Recreates an object graph from the current row of a ResultSet of a {@link JoinFetch} statement
+     * @param joinFetch The JoinFetch the statement was generated by
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param clazz The class of the object being recreated
+     * @param connection The connection used to retrieve references beyond the maximum depth
+     * @param dataSource The connection pool lazy references are retrieved through when accessed
+     * @param <C> The type of the object being recreated
+     * @return Returns the recreated object
+     * @throws SQLException Thrown when unable to read ResultSet or retrieve references
+     * @throws SORMObjectRetrievalException Thrown when the object could not be recreated
+     */
+    static <C> C readRow(JoinFetch joinFetch, ResultSet resultSet, Class<C> clazz, Connection connection, DataSource dataSource) throws SQLException, SORMObjectRetrievalException {
+        return readRow(joinFetch, resultSet, clazz, connection, dataSource, new HashMap<>());
+    }
+
+    /**
+     * Recreates an object graph from the current row of a ResultSet, reusing objects already recreated by the same read
+     * @param joinFetch The JoinFetch the statement was generated by
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param clazz The class of the object being recreated
+     * @param connection The connection used to retrieve references beyond the maximum depth
+     * @param dataSource The connection pool lazy references are retrieved through when accessed
+     * @param loaded The objects already recreated by this read, per class and id, recreated objects are added to it
+     * @param <C> The type of the object being recreated
+     * @return Returns the recreated object
+     * @throws SQLException Thrown when unable to read ResultSet or retrieve references
+     * @throws SORMObjectRetrievalException Thrown when the object could not be recreated
+     */
+    private static <C> C readRow(JoinFetch joinFetch, ResultSet resultSet, Class<C> clazz, Connection connection, DataSource dataSource, Map<Class<?>, Map<Object, Object>> loaded) throws SQLException, SORMObjectRetrievalException {
+        try {
+            C object = joinFetch.read(resultSet, clazz, connection, dataSource, loaded).orElseThrow(() ->
+                    new SORMObjectRetrievalException("Unable to recreate " + clazz.getSimpleName() + ", ensure it has a no argument constructor marked with SORMNoArgConstructor"));
+            dataSource.getDirtyTracker().track(object);
+            return object;
+        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            throw new SORMObjectRetrievalException("Unable to recreate " + clazz.getSimpleName() + ": " + e);
+        }
+    }
+
+    /**
+     * Creates an unloaded reference to an object, retrieved through a connection of the pool when first accessed
+     * @param id The id of the referenced object
+     * @param clazz The class of the referenced object
+     * @param dataSource The connection pool the object is retrieved through
+     * @param <C> The type of the referenced object
+     * @return Returns a new LazyReference
+     */
+    static <C> LazyReference<C> createLazyReference(Object id, Class<C> clazz, DataSource dataSource) {
+        return LazyReference.createLazyReference(id, referenceID -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return getById(referenceID, clazz, connection, dataSource);
+            }
+        });
+    }
+
+    /**
+     * Copies an object graph, so that changes made to the copy are not seen through the original
+     * <p>
+     *     Used to keep objects of the {@link EntityCache} private to it. Ids, fields and loaded references are copied,
+     *     objects shared within the graph stay shared within the copy, and references which were not loaded are copied unloaded
+     * </p>
+     * @param root The object being copied
+     * @param dataSource The connection pool unloaded references of the copy are retrieved through when accessed
+     * @return Returns the copy of root
+     * @throws SORMAccessException Thrown when a property of an object of the graph could not be accessed
+     * @throws SORMObjectRetrievalException Thrown when an object of the graph could not be instantiated
+     */
+    static Object copyGraph(Object root, DataSource dataSource) throws SORMAccessException, SORMObjectRetrievalException {
+        Map<Object, Object> copies = new IdentityHashMap<>();
+        Deque<Object> pending = new ArrayDeque<>();
+        Object rootCopy = copyOf(root, copies, pending);
+        while (!pending.isEmpty()) {
+            Object original = pending.pop();
+            Object copy = copies.get(original);
+            EntityMetadata metadata = POJOPropertyGetSet.getEntityMetadata(original.getClass());
+
+            //ids and fields are immutable values, apart from dates
+            List<ColumnMetadata> columns = new ArrayList<>(metadata.getFieldColumns());
+            columns.add(POJOPropertyGetSet.getIDColumn(metadata));
+            for (ColumnMetadata column : columns) {
+                Object value = column.getAccessor().get(original);
+                column.getAccessor().set(copy, value instanceof java.util.Date ? ((java.util.Date) value).clone() : value);
+            }
+
+            for (ColumnMetadata reference : metadata.getReferenceColumns()) {
+                Object value = reference.getAccessor().get(original);
+                if(value != null && reference.isLazy()) {
+                    LazyReference<?> lazy = (LazyReference<?>) value;
+                    Object loaded = lazy.isLoaded() ? lazy.get() : null;
+                    value = loaded != null ? LazyReference.createLazyReference(copyOf(loaded, copies, pending)) :
+                            createLazyReference(lazy.getId(), reference.getReferencedClass(), dataSource);
+                }
+                else if(value != null)
+                    value = copyOf(value, copies, pending);
+                reference.getAccessor().set(copy, value);
+            }
+        }
+        return rootCopy;
+    }
+
+    /**
+     * Returns the copy of an object of a graph being copied, instantiating it the first time the object is reached
+     * @param original The object of the graph
+     * @param copies The copies instantiated so far, by original object
+     * @param pending The objects whose copies still have to be populated, original is added when instantiated
+     * @return Returns the copy of original
+     * @throws SORMObjectRetrievalException Thrown when the copy could not be instantiated
+     */
+    private static Object copyOf(Object original, Map<Object, Object> copies, Deque<Object> pending) throws SORMObjectRetrievalException {
+        Object copy = copies.get(original);
+        if(copy != null)
+            return copy;
+        Class<?> clazz = original.getClass();
+        try {
+            copy = POJOPropertyGetSet.getEntityMetadata(clazz).getInstantiator().orElseThrow(() ->
+                    new SORMObjectRetrievalException("Unable to copy " + clazz.getSimpleName() + ", ensure it has a no argument constructor marked with SORMNoArgConstructor")).newInstance();
+        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            throw new SORMObjectRetrievalException("Unable to copy " + clazz.getSimpleName() + ": " + e);
+        }
+        copies.put(original, copy);
+        pending.push(original);
+        return copy;
+    }
 
     /**
      * Creates an object representation in the database
+     * <p>
+     *     Objects referenced with {@link dev.model.annotation.SORMReference} are created first. The object graph is walked once,
+     *     so a reference shared by several objects, or reached through a cycle, is inserted once, see {@link #createAll(Collection, int)}
+     * </p>
      * @param object The object being added to the database
      * @return Returns true if the object was added successfully, false if not
      * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
      * @throws IllegalArgumentException Thrown when object parameter is null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
      */
     @Override
-    public boolean create(T object) throws SORMAccessException, IllegalArgumentException {
+    public boolean create(T object) throws SORMAccessException, IllegalArgumentException, SQLException {
 
         if(object == null)
             throw new IllegalArgumentException("Parameter object cannot be null");
+        return createAll(Collections.singletonList(object), DEFAULT_BATCH_SIZE);
+    }
 
-        if(createTable(object)) {
-            return addObject(object);
-        }
+    /**
+     * Creates several object representations in the database using batches of {@link #DEFAULT_BATCH_SIZE} rows
+     * @param objects The objects being added to the database
+     * @return Returns true if every object was added successfully, false if none were
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     * @see #createAll(Collection, int)
+     */
+    @Override
+    public boolean createAll(Collection<T> objects) throws SORMAccessException, IllegalArgumentException, SQLException {
+        return createAll(objects, DEFAULT_BATCH_SIZE);
+    }
 
-        return false;
+    /**
+     * Creates several object representations in the database
+     * <p>
+     *     Rows are grouped per table and inserted with JDBC batches of at most batchSize rows, all within one transaction.
+     *     Objects referenced with {@link dev.model.annotation.SORMReference} are inserted in batches before the rows referencing them.
+     *     Objects are inserted once per id, repeated ids are ignored.
+     * </p>
+     * @param objects The objects being added to the database
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @return Returns true if every object was added successfully, false if none were
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null, or when batchSize is less than 1
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    public boolean createAll(Collection<T> objects, int batchSize) throws SORMAccessException, IllegalArgumentException, SQLException {
+
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Parameter batchSize must be greater than 0");
+        Map<Object, SortedSet<Integer>> deferred = new IdentityHashMap<>();
+        Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> levels = collectLevels(objects, deferred);
+        if(levels.isEmpty())
+            return true;
+
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            for (Map<Class<?>, SortedMap<Object, Object>> level : levels.values()) {
+                for (Class<?> clazz : level.keySet()) {
+                    if(!createTable(clazz, connection))
+                        return false;
+                }
+            }
+
+            //inserting referenced rows before the rows referencing them, references closing cycles once both rows exist
+            boolean committed = inTransaction(connection, () -> {
+                for (Map<Class<?>, SortedMap<Object, Object>> level : levels.values()) {
+                    for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                        if(!insertBatch(table.getKey(), table.getValue().values(), batchSize, deferred, connection))
+                            return false;
+                    }
+                }
+                return updateDeferred(deferred, true, connection);
+            });
+            if(committed)
+                DATA_SOURCE.getDirtyTracker().trackAll(objects);
+            return committed;
+        }
     }
 
     /**
      * Updates the object in the database with matching {@link dev.model.annotation.SORMID} with provided object
      * <p>
-     *     Also recursively updates references marked by {@link dev.model.annotation.SORMReference} to ensure accurate data
+     *     Also updates references marked by {@link dev.model.annotation.SORMReference} to ensure accurate data, walking the
+     *     object graph once so each referenced object is updated once, within one transaction, see {@link #updateAll(Collection, int)}.
+     *     Objects retrieved or written by SORM are compared to a snapshot of their columns taken at the time, only the
+     *     columns which changed since are set, and objects without changes are not written at all.
+     *     Other objects have every column set.
      * </p>
      * @param object The object being updated in the database
-     * @return Returns true if object was updated successfully, returns false if not
+     * @return Returns true if object was updated successfully or had no changes, returns false if not
      * @throws SORMAccessException Thrown when one or more properties of an object (properties marked with {@link dev.model.annotation.SORMID}, {@link dev.model.annotation.SORMField}, or {@link dev.model.annotation.SORMReference}) are inaccessible
      * @throws IllegalArgumentException Thrown when object parameter is null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
      */
     @Override
-    public boolean update(T object) throws SORMAccessException, IllegalArgumentException {
+    public boolean update(T object) throws SORMAccessException, IllegalArgumentException, SQLException {
         if(object == null)
             throw new IllegalArgumentException("Parameter object cannot be null");
-        return updateHelper(object);
+        return updateAll(Collections.singletonList(object), DEFAULT_BATCH_SIZE);
     }
 
     /**
-     * Recursive helper method for public update()
+     * Updates several objects in the database using batches of {@link #DEFAULT_BATCH_SIZE} rows
+     * @param objects The objects being updated in the database
+     * @return Returns true if every object was updated successfully, false if none were
+     * @throws SORMAccessException Thrown when one or more properties of an object are inaccessible
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     * @see #updateAll(Collection, int)
+     */
+    @Override
+    public boolean updateAll(Collection<T> objects) throws SORMAccessException, IllegalArgumentException, SQLException {
+        return updateAll(objects, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Updates several objects in the database
      * <p>
-     *     Updates the object in the database with matching {@link dev.model.annotation.SORMID} with provided object.
-     *     Also recursively updates references marked by {@link dev.model.annotation.SORMReference} to ensure accurate data
+     *     Rows are updated per table with JDBC batches of at most batchSize rows, all within one transaction.
+     *     Like {@link #update(Object)}, objects referenced with {@link dev.model.annotation.SORMReference} are updated first.
+     *     Tables are visited in a fixed order and rows in primary key order, so that concurrent batches
+     *     lock rows in the same order instead of deadlocking. As with {@link #update(Object)}, rows retrieved or written
+     *     by SORM only set the columns which changed since, and unchanged rows are skipped.
      * </p>
-     * @param object The object being updated in the database
-     * @return Returns true if object was updated successfully, returns false if not
-     * @throws SORMAccessException Thrown when one or more properties of an object (properties marked with {@link dev.model.annotation.SORMID}, {@link dev.model.annotation.SORMField}, or {@link dev.model.annotation.SORMReference}) are inaccessible
-     * @throws IllegalArgumentException Thrown when object parameter is null
+     * @param objects The objects being updated in the database
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @return Returns true if every object was updated successfully, false if none were
+     * @throws SORMAccessException Thrown when one or more properties of an object are inaccessible
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null, or when batchSize is less than 1
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
      */
-    private <C> boolean updateHelper(C object) throws SORMAccessException, IllegalArgumentException {
-
-        if(object == null)
-            throw new IllegalArgumentException("Parameter object cannot be null");
-        if(!objectTableExists(object.getClass()))
-            return false;
-
-        //Gathering information needed to add object
-        DataField<Object> id = POJOPropertyGetSet.getID(object);
-        List<DataField<Object>> dataFields = POJOPropertyGetSet.getFields(object);
-        List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
-
-        //counts of fields and references for use later in constructing statement
-        int numberOfFields = 0;
-        int numberOfReferences = 0;
+    public boolean updateAll(Collection<T> objects, int batchSize) throws SORMAccessException, IllegalArgumentException, SQLException {
 
-        //recursive call to add reference / foreign keys first to reference them later on
-        for (DataReference<Object> ref:references) {
-            if(!updateHelper(ref.getREFERENCE()))
-                return false;
-        }
-
-        //constructing SQL statement
-        StringBuilder stringBuilder = new StringBuilder();
-
-        //defining name of table as name of object's class
-        stringBuilder.append("update " + object.getClass().getSimpleName() + " set ");
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Parameter batchSize must be greater than 0");
+        //updated rows already exist, so references closing cycles are updated along with their rows
+        Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> levels = collectLevels(objects, new IdentityHashMap<>());
+        if(levels.isEmpty())
+            return true;
 
-        //adding primary key as first entry
-        stringBuilder.append(id.getValueFieldName() + " = ?, ");
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            for (Map<Class<?>, SortedMap<Object, Object>> level : levels.values()) {
+                for (Class<?> clazz : level.keySet()) {
+                    if(!objectTableExists(clazz, connection))
+                        return false;
+                }
+            }
 
-        //adding data fields if any exist
-        for (DataField<Object> field : dataFields) {
-            stringBuilder.append(field.getValueFieldName() + " = ?, ");
-            numberOfFields++;
+            //updating referenced rows before the rows referencing them
+            try {
+                boolean committed = inTransaction(connection, () -> {
+                    for (Map<Class<?>, SortedMap<Object, Object>> level : levels.values()) {
+                        for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                            if(!updateBatch(table.getKey(), table.getValue().values(), batchSize, DATA_SOURCE.getDirtyTracker(), connection))
+                                return false;
+                        }
+                    }
+                    return true;
+                });
+                //snapshots are only refreshed once committed, a rolled back row still differs from the database
+                if(committed)
+                    DATA_SOURCE.getDirtyTracker().trackAll(objects);
+                return committed;
+            } finally {
+                invalidate(levels.values());
+            }
         }
+    }
 
-        //adding reference / foreign key fields if any exist
-        for (DataReference<Object> ref:references) {
-            stringBuilder.append(ref.getREFERENCE_NAME() + " = ?, ");
-            numberOfReferences++;
-        }
+    /**
+     * Creates the object in the database, or updates it if a row with the same {@link dev.model.annotation.SORMID} exists
+     * <p>
+     *     Each row is written with a single upsert statement rather than a create followed by an update,
+     *     see {@link #saveAll(Collection, int)}. Objects referenced with {@link dev.model.annotation.SORMReference}
+     *     are saved as well, all within one transaction.
+     * </p>
+     * @param object The object being saved to the database
+     * @return Returns true if the object was saved successfully, false if not
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when object parameter is null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    @Override
+    public boolean save(T object) throws SORMAccessException, IllegalArgumentException, SQLException {
+        if(object == null)
+            throw new IllegalArgumentException("Parameter object cannot be null");
+        return saveAll(Collections.singletonList(object), DEFAULT_BATCH_SIZE);
+    }
 
-        //closing out sql statement with serializable field and conditional matching ID
-        stringBuilder.setLength(stringBuilder.length()-2);
-        stringBuilder.append(" where ");
-        stringBuilder.append(id.getValueFieldName() + " = ?");
+    /**
+     * Saves several objects in the database using batches of {@link #DEFAULT_BATCH_SIZE} rows
+     * @param objects The objects being saved to the database
+     * @return Returns true if every object was saved successfully, false if none were
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     * @see #saveAll(Collection, int)
+     */
+    @Override
+    public boolean saveAll(Collection<T> objects) throws SORMAccessException, IllegalArgumentException, SQLException {
+        return saveAll(objects, DEFAULT_BATCH_SIZE);
+    }
 
-        //executing sql statement to create table
-        try(PreparedStatement statement = CONNECTION.prepareStatement(stringBuilder.toString())) {
-            //setting id (primary key)
-            switch (id.getDataType()) {
-                case CHAR:
-                    statement.setString(1, (String) id.getValue());
-                    break;
-                case TEXT:
-                    statement.setString(1, (String) id.getValue());
-                    break;
-                case BIT:
-                    statement.setBoolean(1, (boolean) id.getValue());
-                    break;
-                case NUMERIC:
-                    statement.setBigDecimal(1, (BigDecimal) id.getValue());
-                    break;
-                case TINYINT:
-                    statement.setByte(1, (byte) id.getValue());
-                    break;
-                case SMALLINT:
-                    statement.setShort(1, (short) id.getValue());
-                    break;
-                case INTEGER:
-                    statement.setInt(1, (int) id.getValue());
-                    break;
-                case BIGINT:
-                    statement.setLong(1, (long) id.getValue());
-                    break;
-                case REAL:
-                    statement.setFloat(1, (float) id.getValue());
-                    break;
-                case DOUBLE:
-                    statement.setDouble(1, (double) id.getValue());
-                    break;
-                case DATE:
-                    statement.setDate(1, (Date) id.getValue());
-                    break;
-                case TIME:
-                    statement.setTime(1, (Time) id.getValue());
-                    break;
-                case TIMESTAMP:
-                    statement.setTimestamp(1, (Timestamp) id.getValue());
-                    break;
-                case INVALID:
-                    throw new IllegalArgumentException("Data type is INVALID, and not supported");
-            }
+    /**
+     * Creates several objects in the database, updating the ones whose rows already exist
+     * <p>
+     *     Rows are written with the upsert statement of the database's {@link SQLDialect}, see {@link StatementTemplates#getUpsert(SQLDialect)},
+     *     per table with JDBC batches of at most batchSize rows, all within one transaction. Like {@link #createAll(Collection, int)},
+     *     objects referenced with {@link dev.model.annotation.SORMReference} are saved first, once per id, and tables are created if needed.
+     * </p>
+     * @param objects The objects being saved to the database
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @return Returns true if every object was saved successfully, false if none were
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null, or when batchSize is less than 1
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    public boolean saveAll(Collection<T> objects, int batchSize) throws SORMAccessException, IllegalArgumentException, SQLException {
 
-            //setting fields
-            for(int i = 0; i < numberOfFields; i++){
-                //todo find a better solution
-                switch (dataFields.get(i).getDataType()) {
-                    case CHAR:
-                        statement.setString(i + 2, (String) dataFields.get(i).getValue());
-                        break;
-                    case TEXT:
-                        statement.setString(i + 2, (String) dataFields.get(i).getValue());
-                        break;
-                    case BIT:
-                        statement.setBoolean(i + 2, (boolean) dataFields.get(i).getValue());
-                        break;
-                    case NUMERIC:
-                        statement.setBigDecimal(i + 2, (BigDecimal) dataFields.get(i).getValue());
-                        break;
-                    case TINYINT:
-                        statement.setByte(i + 2, (byte) dataFields.get(i).getValue());
-                        break;
-                    case SMALLINT:
-                        statement.setShort(i + 2, (short) dataFields.get(i).getValue());
-                        break;
-                    case INTEGER:
-                        statement.setInt(i + 2, (int) dataFields.get(i).getValue());
-                        break;
-                    case BIGINT:
-                        statement.setLong(i + 2, (long) dataFields.get(i).getValue());
-                        break;
-                    case REAL:
-                        statement.setFloat(i + 2, (float) dataFields.get(i).getValue());
-                        break;
-                    case DOUBLE:
-                        statement.setDouble(i + 2, (double) dataFields.get(i).getValue());
-                        break;
-                    case DATE:
-                        statement.setDate(i + 2, (Date) dataFields.get(i).getValue());
-                        break;
-                    case TIME:
-                        statement.setTime(i + 2, (Time) dataFields.get(i).getValue());
-                        break;
-                    case TIMESTAMP:
-                        statement.setTimestamp(i + 2, (Timestamp) dataFields.get(i).getValue());
-                        break;
-                    case INVALID:
-                        throw new IllegalArgumentException("Data type is INVALID, and not supported");
-                }
-            }
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Parameter batchSize must be greater than 0");
+        Map<Object, SortedSet<Integer>> deferred = new IdentityHashMap<>();
+        Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> levels = collectLevels(objects, deferred);
+        if(levels.isEmpty())
+            return true;
 
-            //setting references
-            for(int i = 0; i < numberOfReferences; i++){
-                //todo find a more elegent solution
-                switch (references.get(i).getREFERENCES_ID().getDataType()) {
-                    case CHAR:
-                        statement.setString(i+2+numberOfFields, (String) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TEXT:
-                        statement.setString(i+2+numberOfFields, (String) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case BIT:
-                        statement.setBoolean(i+2+numberOfFields, (boolean) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case NUMERIC:
-                        statement.setBigDecimal(i+2+numberOfFields, (BigDecimal) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TINYINT:
-                        statement.setByte(i+2+numberOfFields, (byte) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case SMALLINT:
-                        statement.setShort(i+2+numberOfFields, (short) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case INTEGER:
-                        statement.setInt(i+2+numberOfFields, (int) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case BIGINT:
-                        statement.setLong(i+2+numberOfFields, (long) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case REAL:
-                        statement.setFloat(i+2+numberOfFields, (float) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case DOUBLE:
-                        statement.setDouble(i+2+numberOfFields, (double) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case DATE:
-                        statement.setDate(i+2+numberOfFields, (Date) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TIME:
-                        statement.setTime(i+2+numberOfFields, (Time) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TIMESTAMP:
-                        statement.setTimestamp(i+2+numberOfFields, (Timestamp) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case INVALID:
-                        throw new IllegalArgumentException("Data type is INVALID, and not supported");
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            for (Map<Class<?>, SortedMap<Object, Object>> level : levels.values()) {
+                for (Class<?> clazz : level.keySet()) {
+                    if(!createTable(clazz, connection))
+                        return false;
                 }
             }
+            SQLDialect dialect = SQLDialect.fromConnection(connection);
 
-            //setting id for where conditional
-            switch (id.getDataType()) {
-                case CHAR:
-                    statement.setString(2+numberOfFields+numberOfReferences, (String) id.getValue());
-                    break;
-                case TEXT:
-                    statement.setString(2+numberOfFields+numberOfReferences, (String) id.getValue());
-                    break;
-                case BIT:
-                    statement.setBoolean(2+numberOfFields+numberOfReferences, (boolean) id.getValue());
-                    break;
-                case NUMERIC:
-                    statement.setBigDecimal(2+numberOfFields+numberOfReferences, (BigDecimal) id.getValue());
-                    break;
-                case TINYINT:
-                    statement.setByte(2+numberOfFields+numberOfReferences, (byte) id.getValue());
-                    break;
-                case SMALLINT:
-                    statement.setShort(2+numberOfFields+numberOfReferences, (short) id.getValue());
-                    break;
-                case INTEGER:
-                    statement.setInt(2+numberOfFields+numberOfReferences, (int) id.getValue());
-                    break;
-                case BIGINT:
-                    statement.setLong(2+numberOfFields+numberOfReferences, (long) id.getValue());
-                    break;
-                case REAL:
-                    statement.setFloat(2+numberOfFields+numberOfReferences, (float) id.getValue());
-                    break;
-                case DOUBLE:
-                    statement.setDouble(2+numberOfFields+numberOfReferences, (double) id.getValue());
-                    break;
-                case DATE:
-                    statement.setDate(2+numberOfFields+numberOfReferences, (Date) id.getValue());
-                    break;
-                case TIME:
-                    statement.setTime(2+numberOfFields+numberOfReferences, (Time) id.getValue());
-                    break;
-                case TIMESTAMP:
-                    statement.setTimestamp(2+numberOfFields+numberOfReferences, (Timestamp) id.getValue());
-                    break;
-                case INVALID:
-                    throw new IllegalArgumentException("Data type is INVALID, and not supported");
+            //saving referenced rows before the rows referencing them, references closing cycles once both rows exist
+            try {
+                boolean committed = inTransaction(connection, () -> {
+                    for (Map<Class<?>, SortedMap<Object, Object>> level : levels.values()) {
+                        for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                            if(!upsertBatch(table.getKey(), table.getValue().values(), batchSize, dialect, deferred, connection))
+                                return false;
+                        }
+                    }
+                    return updateDeferred(deferred, true, connection);
+                });
+                if(committed)
+                    DATA_SOURCE.getDirtyTracker().trackAll(objects);
+                return committed;
+            } finally {
+                invalidate(levels.values());
             }
-
-            //returning execute
-            return statement.executeUpdate() > 0;
-        } catch (SQLException e){
-            //todo remove stack trace
-            //e.printStackTrace();
         }
-        return false;
     }
 
     /**
-     * Deletes the probided object from the database
+     * Deletes the provided object from the database
+     * <p>
+     *     Objects referenced with {@link dev.model.annotation.SORMReference} are deleted as well, each once,
+     *     within one transaction, see {@link #deleteAll(Collection, int)}
+     * </p>
      * @param object The object being deleted from the database
-     * @throws SORMAccessException
+     * @return Returns true if the object was deleted or is null, false if the transaction was rolled back
+     * @throws SORMAccessException Thrown when unable to retrieve objects fields marked with {@link dev.model.annotation.SORMID}, {@link dev.model.annotation.SORMObject}, {@link dev.model.annotation.SORMField}, and {@link dev.model.annotation.SORMReference}
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
      */
     @Override
-    public boolean delete(T object) throws SORMAccessException {
+    public boolean delete(T object) throws SORMAccessException, SQLException {
         if(object == null)
             return true;
-        deleteHelper(object);
-        return true;
+        return deleteAll(Collections.singletonList(object), DEFAULT_BATCH_SIZE);
     }
 
     /**
-     * Helper method for recursive delete
-     * @param object The object to be deleted
-     * @param <C> The datatype of the object
-     * @throws SORMAccessException Thrown when unable to retrieve objects fields marked with {@link dev.model.annotation.SORMID}, {@link dev.model.annotation.SORMObject}, {@link dev.model.annotation.SORMField}, and {@link dev.model.annotation.SORMReference}
+     * Deletes several objects from the database using chunks of {@link #DEFAULT_BATCH_SIZE} ids
+     * @param objects The objects being deleted from the database
+     * @return Returns true if the objects were deleted, false if none were
+     * @throws SORMAccessException Thrown when unable to retrieve objects fields marked with {@link dev.model.annotation.SORMID} and {@link dev.model.annotation.SORMReference}
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     * @see #deleteAll(Collection, int)
      */
-    private <C> void deleteHelper(C object) throws SORMAccessException {
-        if(object == null)
-            return;
+    @Override
+    public boolean deleteAll(Collection<T> objects) throws SORMAccessException, IllegalArgumentException, SQLException {
+        return deleteAll(objects, DEFAULT_BATCH_SIZE);
+    }
 
-        if(!objectTableExists(object.getClass()))
-            return;
+    /**
+     * Deletes several objects from the database
+     * <p>
+     *     Like {@link #delete(Object)}, objects referenced with {@link dev.model.annotation.SORMReference} are deleted as well.
+     *     Ids are collected per table and deleted with "in" statements of at most batchSize ids, all within one transaction.
+     *     Rows referencing others are deleted first, tables are visited in a fixed order and ids in primary key order,
+     *     so that concurrent batches lock rows in the same order instead of deadlocking.
+     * </p>
+     * @param objects The objects being deleted from the database
+     * @param batchSize The maximum number of ids bound into a single statement, {@link #MAX_PARAMETERS} is used if larger
+     * @return Returns true if the objects were deleted, false if none were
+     * @throws SORMAccessException Thrown when unable to retrieve objects fields marked with {@link dev.model.annotation.SORMID} and {@link dev.model.annotation.SORMReference}
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null, or when batchSize is less than 1
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    public boolean deleteAll(Collection<T> objects, int batchSize) throws SORMAccessException, IllegalArgumentException, SQLException {
 
-        //Gathering information needed to add object
-        DataField<Object> id = POJOPropertyGetSet.getID(object);
-        List<DataField<Object>> dataFields = POJOPropertyGetSet.getFields(object);
-        List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Parameter batchSize must be greater than 0");
+        Map<Object, SortedSet<Integer>> deferred = new IdentityHashMap<>();
+        List<Map<Class<?>, SortedMap<Object, Object>>> levels = new ArrayList<>(collectLevels(objects, deferred).values());
+        if(levels.isEmpty())
+            return true;
 
-        //counts of fields and references for use later in constructing statement
-        int numberOfFields = 0;
-        int numberOfReferences = 0;
+        //deleting rows referencing others first, so that no delete cascades, after clearing the references closing cycles
+        Collections.reverse(levels);
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            try {
+                boolean committed = inTransaction(connection, () -> {
+                    deferred.keySet().removeIf(row -> !objectTableExists(row.getClass(), connection));
+                    updateDeferred(deferred, false, connection);
+                    for (Map<Class<?>, SortedMap<Object, Object>> level : levels) {
+                        for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                            if(objectTableExists(table.getKey(), connection))
+                                deleteBatch(table.getKey(), table.getValue().keySet(), batchSize, connection);
+                        }
+                    }
+                    return true;
+                });
+                if(committed)
+                    untrack(levels, DATA_SOURCE.getDirtyTracker());
+                return committed;
+            } finally {
+                invalidate(levels);
+            }
+        }
+    }
 
-        //recursive call to add reference / foreign keys first to reference them later on
-        for (DataReference<Object> ref:references) {
-            deleteHelper(ref.getREFERENCE());
+    /**
+     * Writes creates, updates and deletes within one transaction, used by {@link SORMTransaction#commit()}
+     * <p>
+     *     Like {@link #createAll(Collection, int)}, {@link #updateAll(Collection, int)} and {@link #deleteAll(Collection, int)},
+     *     objects are collected with the objects they reference and written per table with batches. Inserts are executed
+     *     first, then updates, referenced rows before the rows referencing them, then deletes, rows referencing others first.
+     * </p>
+     * @param creates The objects being added to the database
+     * @param updates The objects being updated in the database
+     * @param deletes The objects being deleted from the database
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @return Returns true if every write succeeded and was committed, false if the transaction was rolled back
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when a collection contains null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    boolean writeAll(Collection<?> creates, Collection<?> updates, Collection<?> deletes, int batchSize) throws SORMAccessException, IllegalArgumentException, SQLException {
+        Map<Object, SortedSet<Integer>> createdDeferred = new IdentityHashMap<>();
+        Map<Object, SortedSet<Integer>> deletedDeferred = new IdentityHashMap<>();
+        Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> created = collectLevels(creates, createdDeferred);
+        Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> updated = collectLevels(updates, new IdentityHashMap<>());
+        List<Map<Class<?>, SortedMap<Object, Object>>> deleted = new ArrayList<>(collectLevels(deletes, deletedDeferred).values());
+        Collections.reverse(deleted);
+
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            //tables are created before the transaction, as some databases commit on DDL
+            for (Map<Class<?>, SortedMap<Object, Object>> level : created.values()) {
+                for (Class<?> clazz : level.keySet()) {
+                    if(!createTable(clazz, connection))
+                        return false;
+                }
+            }
+
+            try {
+                boolean committed = inTransaction(connection, () -> {
+                    for (Map<Class<?>, SortedMap<Object, Object>> level : created.values()) {
+                        for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                            if(!insertBatch(table.getKey(), table.getValue().values(), batchSize, createdDeferred, connection))
+                                return false;
+                        }
+                    }
+                    if(!updateDeferred(createdDeferred, true, connection))
+                        return false;
+                    for (Map<Class<?>, SortedMap<Object, Object>> level : updated.values()) {
+                        for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                            if(!objectTableExists(table.getKey(), connection) || !updateBatch(table.getKey(), table.getValue().values(), batchSize, DATA_SOURCE.getDirtyTracker(), connection))
+                                return false;
+                        }
+                    }
+                    deletedDeferred.keySet().removeIf(row -> !objectTableExists(row.getClass(), connection));
+                    updateDeferred(deletedDeferred, false, connection);
+                    for (Map<Class<?>, SortedMap<Object, Object>> level : deleted) {
+                        for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                            if(objectTableExists(table.getKey(), connection))
+                                deleteBatch(table.getKey(), table.getValue().keySet(), batchSize, connection);
+                        }
+                    }
+                    return true;
+                });
+                if(committed) {
+                    DATA_SOURCE.getDirtyTracker().trackAll(creates, updates);
+                    untrack(deleted, DATA_SOURCE.getDirtyTracker());
+                }
+                return committed;
+            } finally {
+                invalidate(created.values());
+                invalidate(updated.values());
+                invalidate(deleted);
+            }
         }
+    }
 
-        //creating delete statement
-        String sqlQuery = "delete from " + object.getClass().getSimpleName() + " where " + id.getValueFieldName() + " = ?";
+    /**
+     * Evicts written rows from the pool's {@link EntityCache}, called once their transaction ended
+     * @param levels The written rows per class, by id
+     */
+    private void invalidate(Collection<Map<Class<?>, SortedMap<Object, Object>>> levels) {
+        EntityCache cache = DATA_SOURCE.getEntityCache();
+        for (Map<Class<?>, SortedMap<Object, Object>> level : levels) {
+            for (Map.Entry<Class<?>, SortedMap<Object, Object>> table : level.entrySet()) {
+                cache.invalidateAll(table.getKey(), table.getValue().keySet());
+            }
+        }
+    }
 
-        //executing sql statement to create table
-        try(PreparedStatement statement = CONNECTION.prepareStatement(sqlQuery)) {
-            //setting id (primary key)
-            //todo find a more elegent solution
-            switch (id.getDataType()) {
-                case CHAR:
-                    statement.setString(1, (String) id.getValue());
-                    break;
-                case TEXT:
-                    statement.setString(1, (String) id.getValue());
-                    break;
-                case BIT:
-                    statement.setBoolean(1, (boolean) id.getValue());
-                    break;
-                case NUMERIC:
-                    statement.setBigDecimal(1, (BigDecimal) id.getValue());
-                    break;
-                case TINYINT:
-                    statement.setByte(1, (byte) id.getValue());
-                    break;
-                case SMALLINT:
-                    statement.setShort(1, (short) id.getValue());
-                    break;
-                case INTEGER:
-                    statement.setInt(1, (int) id.getValue());
-                    break;
-                case BIGINT:
-                    statement.setLong(1, (long) id.getValue());
-                    break;
-                case REAL:
-                    statement.setFloat(1, (float) id.getValue());
-                    break;
-                case DOUBLE:
-                    statement.setDouble(1, (double) id.getValue());
-                    break;
-                case DATE:
-                    statement.setDate(1, (Date) id.getValue());
-                    break;
-                case TIME:
-                    statement.setTime(1, (Time) id.getValue());
-                    break;
-                case TIMESTAMP:
-                    statement.setTimestamp(1, (Timestamp) id.getValue());
-                    break;
-                case INVALID:
-                    throw new IllegalArgumentException("Data type is INVALID, and not supported");
+    /**
+     * Drops the snapshots of deleted rows, called once their transaction was committed
+     * @param levels The deleted rows per class, by id
+     * @param tracker The snapshots of the connection pool the rows were deleted from
+     */
+    private static void untrack(Collection<Map<Class<?>, SortedMap<Object, Object>>> levels, DirtyTracker tracker) {
+        for (Map<Class<?>, SortedMap<Object, Object>> level : levels) {
+            for (SortedMap<Object, Object> table : level.values()) {
+                tracker.untrackAll(table.values());
             }
-            //executing sql statement
-            statement.executeUpdate();
-        } catch (SQLException e){e.printStackTrace();}
+        }
     }
 
     /**
-     * Queries database to see if table exists.
-     * @param clazz The entity's class who's table is being checked.
+     * Checks the pool's {@link SchemaRegistry} to see if table exists.
+     * @param clazz The class who's table is being checked.
+     * @param connection The borrowed connection to read metadata with if the table is not yet known
      * @return Returns true if table with name = name of object exists, returns false if no table exists.
      */
-    private boolean objectTableExists(Class<?> clazz){
-        try(PreparedStatement statement = CONNECTION.prepareStatement("select 1 from " + clazz.getSimpleName())) {
-            statement.executeQuery();
-            return true;
-        } catch (SQLException ignored){
-            return false;
-        }
+    private boolean objectTableExists(Class<?> clazz, Connection connection){
+        return DATA_SOURCE.getSchemaRegistry().tableExists(POJOPropertyGetSet.getEntityMetadata(clazz).getTableName(), connection);
     }
 
+
     /**
-     * Adds object to an existing table
-     * @param object The object to be added
-     * @param <C> The data type of the object being added
-     * @return Returns true if object added successfully, false if unsuccessful
-     * @throws SORMAccessException Thrown if unable to access object's fields and references
+     * Creates one or several tables
+     * <p>
+     *     Creates required foreign key tables first, then executes the
+     *     create table statement of the class's {@link StatementTemplates}.
+     *     Nothing is executed for tables already known to exist
+     * </p>
+     * @param clazz The class for which a table is being created
+     * @param connection The borrowed connection to execute with
+     * @return Returns true once the table(s) exist
+     * @throws SQLException Thrown when a table could not be created
      */
-    private <C> boolean addObject(C object) throws SORMAccessException{
-        //Gathering information needed to add object
-        DataField<Object> id = POJOPropertyGetSet.getID(object);
-        List<DataField<Object>> dataFields = POJOPropertyGetSet.getFields(object);
-        List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
+    private boolean createTable(Class<?> clazz, Connection connection) throws SQLException {
+        //tables referenced by an existing table exist as well
+        if(objectTableExists(clazz, connection))
+            return true;
 
-        //counts of fields and references for use later in constructing statement
-        int numberOfFields = 0;
-        int numberOfReferences = 0;
+        EntityMetadata metadata = POJOPropertyGetSet.getEntityMetadata(clazz);
 
-        //recursive call to add reference / foreign keys first to reference them later on
-        for (DataReference<Object> ref:references) {
-            if(!addObject(ref.getREFERENCE()))
+        //recursive call to create reference / foreign keys first to reference them later on
+        for (ColumnMetadata ref : metadata.getReferenceColumns()) {
+            if (ref.getReferencedClass() != clazz && !createTable(ref.getReferencedClass(), connection))
                 return false;
         }
 
-        //constructing SQL statement
-        StringBuilder stringBuilder = new StringBuilder();
-
-        //defining name of table as name of object's class
-        stringBuilder.append("insert into " + object.getClass().getSimpleName() + " values (");
+        //executing sql statement to create table
+        try(PreparedStatement statement = connection.prepareStatement(StatementTemplates.getStatementTemplates(clazz).getCreateTable())) {
+            statement.execute();
+            DATA_SOURCE.getSchemaRegistry().registerTable(metadata.getTableName());
+            return true;
+        }
+    }
 
-        //adding primary key as first entry
-        stringBuilder.append("?, ");
+    /**
+     * Work executed by {@link #inTransaction(Connection, TransactionWork)}
+     */
+    private interface TransactionWork {
+        /**
+         * @return Returns true if the transaction should be committed, false if it should be rolled back
+         * @throws SQLException Thrown when a statement could not be executed, rolling back the transaction
+         * @throws SORMAccessException Thrown when an object could not be accessed, rolling back the transaction
+         */
+        boolean execute() throws SQLException, SORMAccessException;
+    }
 
-        //adding data fields if any exist
-        for (DataField<Object> field : dataFields) {
-            stringBuilder.append("?, ");
-            numberOfFields++;
+    /**
+     * Executes work within a single transaction on a connection
+     * @param connection The borrowed connection to execute with, its auto-commit mode is restored afterwards
+     * @param work The work to execute
+     * @return Returns true if the work succeeded and was committed, false if it was rolled back
+     * @throws SQLException Thrown when a statement of the work failed, after rolling back, or when the transaction could not be started, committed, or rolled back
+     * @throws SORMAccessException Thrown when the work could not access an object, after rolling back
+     */
+    private static boolean inTransaction(Connection connection, TransactionWork work) throws SQLException, SORMAccessException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if(work.execute()) {
+                connection.commit();
+                return true;
+            }
+            connection.rollback();
+            return false;
+        } catch (SQLException | SORMAccessException | RuntimeException e) {
+            //keeping the cause of the failure if the rollback fails as well
+            try {
+                connection.rollback();
+            } catch (SQLException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
         }
+    }
 
-        //adding reference / foreign key fields if any exist
-        for (DataReference<Object> ref:references) {
-            stringBuilder.append("?, ");
-            numberOfReferences++;
+    /**
+     * Collects objects and every object they reference into levels of rows grouped per class
+     * <p>
+     *     An object's level is one higher than the highest level of the objects it references,
+     *     so handling levels in ascending order visits referenced rows before the rows referencing them.
+     *     Within a level classes are ordered by name, and the rows of a class are ordered by id
+     *     and collected once per id, so that concurrent batches lock rows in the same order.
+     * </p>
+     * <p>
+     *     Rows are visited once per class and id, so an object shared by many others is collected once.
+     *     A reference cycle ends at the first row visited twice, the reference reaching it back can not follow its target
+     *     and is deferred instead: inserts write it as null and set it once every row exists, see {@link #updateDeferred(Map, boolean, Connection)},
+     *     deletes clear it before deleting. A row referencing itself needs no deferring.
+     * </p>
+     * @param objects The objects being collected
+     * @param deferred The references closing cycles, collected as the indexes of the references per row
+     * @return Returns the rows of each level in ascending order, per class, per id
+     * @throws SORMAccessException Thrown if unable to access an object's ID and references
+     * @throws IllegalArgumentException Thrown when objects parameter is null or contains null
+     */
+    private static Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> collectLevels(Collection<?> objects, Map<Object, SortedSet<Integer>> deferred) throws SORMAccessException, IllegalArgumentException {
+        if(objects == null)
+            throw new IllegalArgumentException("Parameter objects cannot be null");
+
+        Map<Class<?>, Map<Object, Integer>> collected = new HashMap<>();
+        Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> levels = new TreeMap<>();
+        for (Object object : objects) {
+            if(object == null)
+                throw new IllegalArgumentException("Parameter objects cannot contain null");
+            collectRows(object, collected, levels, deferred);
         }
+        return levels;
+    }
 
-        //closing out sql statement
-        stringBuilder.setLength(stringBuilder.length()-2);
-        stringBuilder.append(")");
-
-
-        //executing sql statement to create table
-        try(PreparedStatement statement = CONNECTION.prepareStatement(stringBuilder.toString())) {
-            //setting id (primary key)
-            switch (id.getDataType()) {
-                case CHAR:
-                    statement.setString(1, String.valueOf(id.getValue()));
-                    break;
-                case TEXT:
-                    statement.setString(1, (String) id.getValue());
-                    break;
-                case BIT:
-                    statement.setBoolean(1, (boolean) id.getValue());
-                    break;
-                case NUMERIC:
-                    statement.setBigDecimal(1, (BigDecimal) id.getValue());
-                    break;
-                case TINYINT:
-                    statement.setByte(1, (byte) id.getValue());
-                    break;
-                case SMALLINT:
-                    statement.setShort(1, (short) id.getValue());
-                    break;
-                case INTEGER:
-                    statement.setInt(1, (int) id.getValue());
-                    break;
-                case BIGINT:
-                    statement.setLong(1, (long) id.getValue());
-                    break;
-                case REAL:
-                    statement.setFloat(1, (float) id.getValue());
-                    break;
-                case DOUBLE:
-                    statement.setDouble(1, (double) id.getValue());
-                    break;
-                case DATE:
-                    statement.setDate(1, (Date) id.getValue());
-                    break;
-                case TIME:
-                    statement.setTime(1, (Time) id.getValue());
-                    break;
-                case TIMESTAMP:
-                    statement.setTimestamp(1, (Timestamp) id.getValue());
-                    break;
-                case INVALID:
-                    throw new IllegalArgumentException("Data type is INVALID, and not supported");
-            }
+    /**
+     * Collects an object and, first, the objects it references
+     * @param object The object being collected
+     * @param collected The level of every collected row, per class and id, {@link #VISITING} while its references are collected
+     * @param levels The rows of each level, per class and id
+     * @param deferred The references closing cycles, per row
+     * @return Returns the level of the object, or {@link #VISITING} if the object is part of the cycle being collected
+     * @throws SORMAccessException Thrown if unable to access object's ID and references
+     */
+    private static int collectRows(Object object, Map<Class<?>, Map<Object, Integer>> collected, Map<Integer, Map<Class<?>, SortedMap<Object, Object>>> levels, Map<Object, SortedSet<Integer>> deferred) throws SORMAccessException {
+        Map<Object, Integer> rows = collected.computeIfAbsent(object.getClass(), k -> new HashMap<>());
+        Object id = POJOPropertyGetSet.getID(object).getValue();
+        Integer level = rows.get(id);
+        if(level != null)
+            return level;
+
+        //marking the row before visiting its references so that reference cycles end
+        rows.put(id, VISITING);
+        level = 0;
+        List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
+        for (int i = 0; i < references.size(); i++) {
+            DataReference<Object> ref = references.get(i);
+            if(!ref.isLoaded())
+                continue;
+            int referenced = collectRows(ref.getREFERENCE(), collected, levels, deferred);
+            if(referenced != VISITING)
+                level = Math.max(level, referenced + 1);
+            else if(ref.getREFERENCE().getClass() != object.getClass() || !ref.getREFERENCES_ID().getValue().equals(id))
+                deferred.computeIfAbsent(object, k -> new TreeSet<>()).add(i);
+        }
+        rows.put(id, level);
+        levels.computeIfAbsent(level, k -> new TreeMap<>(Comparator.comparing(Class::getName)))
+                .computeIfAbsent(object.getClass(), k -> new TreeMap<>())
+                .put(id, object);
+        return level;
+    }
 
-            //setting fields
-            for(int i = 0; i < numberOfFields; i++){
-                //todo find a better solution
-                switch (dataFields.get(i).getDataType()) {
-                    case CHAR:
-                        statement.setString(i + 2, (String) dataFields.get(i).getValue());
-                        break;
-                    case TEXT:
-                        statement.setString(i + 2, (String) dataFields.get(i).getValue());
-                        break;
-                    case BIT:
-                        statement.setBoolean(i + 2, (boolean) dataFields.get(i).getValue());
-                        break;
-                    case NUMERIC:
-                        statement.setBigDecimal(i + 2, (BigDecimal) dataFields.get(i).getValue());
-                        break;
-                    case TINYINT:
-                        statement.setByte(i + 2, (byte) dataFields.get(i).getValue());
-                        break;
-                    case SMALLINT:
-                        statement.setShort(i + 2, (short) dataFields.get(i).getValue());
-                        break;
-                    case INTEGER:
-                        statement.setInt(i + 2, (int) dataFields.get(i).getValue());
-                        break;
-                    case BIGINT:
-                        statement.setLong(i + 2, (long) dataFields.get(i).getValue());
-                        break;
-                    case REAL:
-                        statement.setFloat(i + 2, (float) dataFields.get(i).getValue());
-                        break;
-                    case DOUBLE:
-                        statement.setDouble(i + 2, (double) dataFields.get(i).getValue());
-                        break;
-                    case DATE:
-                        statement.setDate(i + 2, (Date) dataFields.get(i).getValue());
-                        break;
-                    case TIME:
-                        statement.setTime(i + 2, (Time) dataFields.get(i).getValue());
-                        break;
-                    case TIMESTAMP:
-                        statement.setTimestamp(i + 2, (Timestamp) dataFields.get(i).getValue());
-                        break;
-                    case INVALID:
-                        throw new IllegalArgumentException("Data type is INVALID, and not supported");
+    /**
+     * Inserts rows of a single table with JDBC batches
+     * @param clazz The class of the rows
+     * @param rows The objects being inserted
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param deferred The references closing cycles per row, inserted as null
+     * @param connection The borrowed connection to execute with
+     * @return Returns true if every row was inserted, false if not
+     * @throws SQLException Thrown when a batch could not be executed
+     * @throws SORMAccessException Thrown if unable to access an object's fields and references
+     */
+    private static boolean insertBatch(Class<?> clazz, Collection<Object> rows, int batchSize, Map<Object, SortedSet<Integer>> deferred, Connection connection) throws SQLException, SORMAccessException {
+        try (PreparedStatement statement = connection.prepareStatement(StatementTemplates.getStatementTemplates(clazz).getInsert())) {
+            int batched = 0;
+            for (Object row : rows) {
+                setColumnParameters(statement, 1, POJOPropertyGetSet.getID(row), POJOPropertyGetSet.getFields(row), POJOPropertyGetSet.getReference(row),
+                        deferred.getOrDefault(row, Collections.emptySortedSet()));
+                statement.addBatch();
+                if(++batched == batchSize) {
+                    if(!executeBatch(statement))
+                        return false;
+                    batched = 0;
                 }
             }
+            return batched == 0 || executeBatch(statement);
+        }
+    }
 
-            //setting references
-            for(int i = 0; i < numberOfReferences; i++){
-                //todo find a more elegent solution
-                switch (references.get(i).getREFERENCES_ID().getDataType()) {
-                    case CHAR:
-                        statement.setString(i+2+numberOfFields, (String) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TEXT:
-                        statement.setString(i+2+numberOfFields, (String) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case BIT:
-                        statement.setBoolean(i+2+numberOfFields, (boolean) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case NUMERIC:
-                        statement.setBigDecimal(i+2+numberOfFields, (BigDecimal) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TINYINT:
-                        statement.setByte(i+2+numberOfFields, (byte) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case SMALLINT:
-                        statement.setShort(i+2+numberOfFields, (short) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case INTEGER:
-                        statement.setInt(i+2+numberOfFields, (int) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case BIGINT:
-                        statement.setLong(i+2+numberOfFields, (long) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case REAL:
-                        statement.setFloat(i+2+numberOfFields, (float) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case DOUBLE:
-                        statement.setDouble(i+2+numberOfFields, (double) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case DATE:
-                        statement.setDate(i+2+numberOfFields, (Date) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TIME:
-                        statement.setTime(i+2+numberOfFields, (Time) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case TIMESTAMP:
-                        statement.setTimestamp(i+2+numberOfFields, (Timestamp) references.get(i).getREFERENCES_ID().getValue());
-                        break;
-                    case INVALID:
-                        throw new IllegalArgumentException("Data type is INVALID, and not supported");
+    /**
+     * Inserts or updates rows of a single table with JDBC batches of upsert statements
+     * @param clazz The class of the rows
+     * @param rows The objects being saved
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param dialect The dialect of the database
+     * @param deferred The references closing cycles per row, saved as null
+     * @param connection The borrowed connection to execute with
+     * @return Returns true if every row was saved, false if not
+     * @throws SQLException Thrown when a batch could not be executed
+     * @throws SORMAccessException Thrown if unable to access an object's fields and references
+     */
+    private static boolean upsertBatch(Class<?> clazz, Collection<Object> rows, int batchSize, SQLDialect dialect, Map<Object, SortedSet<Integer>> deferred, Connection connection) throws SQLException, SORMAccessException {
+        try (PreparedStatement statement = connection.prepareStatement(StatementTemplates.getStatementTemplates(clazz).getUpsert(dialect))) {
+            int batched = 0;
+            for (Object row : rows) {
+                setColumnParameters(statement, 1, POJOPropertyGetSet.getID(row), POJOPropertyGetSet.getFields(row), POJOPropertyGetSet.getReference(row),
+                        deferred.getOrDefault(row, Collections.emptySortedSet()));
+                statement.addBatch();
+                if(++batched == batchSize) {
+                    if(!executeUpsertBatch(statement))
+                        return false;
+                    batched = 0;
                 }
             }
+            return batched == 0 || executeUpsertBatch(statement);
+        }
+    }
 
-            return statement.executeUpdate() > 0;
-        } catch (SQLException e){
-            //todo remove stack track
-            //e.printStackTrace();
+    /**
+     * Executes a statement's batch of upserts
+     * @param statement The statement who's batch is executed
+     * @return Returns true if no statement of the batch failed, an existing row of an entity of only an id changes no row
+     * @throws SQLException Thrown when the batch could not be executed
+     */
+    private static boolean executeUpsertBatch(Statement statement) throws SQLException {
+        for (int count : statement.executeBatch()) {
+            if(count == Statement.EXECUTE_FAILED)
+                return false;
         }
-        return false;
+        return true;
     }
 
+    /**
+     * Sets, or clears, the references closing cycles, see {@link #collectLevels(Collection, Map)}
+     * @param deferred The indexes of the references closing cycles, per row
+     * @param link True to set the references once every row was inserted, false to clear them before the rows are deleted
+     * @param connection The borrowed connection to execute with
+     * @return Returns true if every row was updated, false if not
+     * @throws SQLException Thrown when a statement could not be executed
+     * @throws SORMAccessException Thrown if unable to access an object's fields and references
+     */
+    private static boolean updateDeferred(Map<Object, SortedSet<Integer>> deferred, boolean link, Connection connection) throws SQLException, SORMAccessException {
+        boolean updated = true;
+        for (Map.Entry<Object, SortedSet<Integer>> row : deferred.entrySet()) {
+            Object object = row.getKey();
+            List<DataField<Object>> dataFields = POJOPropertyGetSet.getFields(object);
+            List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
+            List<Integer> columns = new ArrayList<>();
+            for (int reference : row.getValue()) {
+                columns.add(dataFields.size() + reference);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(updateStatement(object.getClass(), columns))) {
+                int index = 1;
+                for (int reference : row.getValue()) {
+                    if(link)
+                        setParameter(statement, index++, references.get(reference).getREFERENCES_ID());
+                    else
+                        statement.setNull(index++, Types.NULL);
+                }
+                setParameter(statement, index, POJOPropertyGetSet.getID(object));
+                updated &= statement.executeUpdate() > 0;
+            }
+        }
+        return updated;
+    }
 
     /**
-     * Creates one or several tables
+     * Updates rows of a single table with JDBC batches
      * <p>
-     *     Gathers required information like field names,
-     *     their data types, primary key information,
-     *     and reference fields, their types, and what they reference.
-     *     Then creates required foreign key tables first
+     *     Each row only sets its changed columns, see {@link #update(Object)}, and unchanged rows are skipped.
+     *     Consecutive rows changing the same columns share a batch, rows are still updated in the order given.
      * </p>
-     * @param object The object for which a table is being created
-     * @param <C> The type of the object being
-     * @return Returns true if the table(s) was created successfully, false if not
-     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @param clazz The class of the rows
+     * @param rows The objects being updated
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param tracker The snapshots of the connection pool the rows are updated in
+     * @param connection The borrowed connection to execute with
+     * @return Returns true if every row was updated, false if not
+     * @throws SQLException Thrown when a batch could not be executed
+     * @throws SORMAccessException Thrown if unable to access an object's fields and references
      */
-    private <C> boolean createTable(C object) throws SORMAccessException {
-        //Gathering information needed to create a table
-        DataField<?> id = POJOPropertyGetSet.getID(object);
-        List<DataField<Object>> dataFields = POJOPropertyGetSet.getFields(object);
-        List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
+    private static boolean updateBatch(Class<?> clazz, Collection<Object> rows, int batchSize, DirtyTracker tracker, Connection connection) throws SQLException, SORMAccessException {
+        PreparedStatement statement = null;
+        List<Integer> statementColumns = null;
+        int batched = 0;
+        try {
+            for (Object row : rows) {
+                DataField<Object> id = POJOPropertyGetSet.getID(row);
+                List<DataField<Object>> dataFields = POJOPropertyGetSet.getFields(row);
+                List<DataReference<Object>> references = POJOPropertyGetSet.getReference(row);
+                List<Integer> changed = tracker.changedColumns(row, dataFields, references);
+                if(changed != null && changed.isEmpty())
+                    continue;
+
+                //executing the pending batch before switching to a statement setting other columns
+                if(statement == null || !Objects.equals(changed, statementColumns)) {
+                    if(statement != null) {
+                        boolean executed = batched == 0 || executeBatch(statement);
+                        statement.close();
+                        statement = null;
+                        if(!executed)
+                            return false;
+                    }
+                    statement = connection.prepareStatement(updateStatement(clazz, changed));
+                    statementColumns = changed;
+                    batched = 0;
+                }
 
-        //recursive call to create reference / foreign keys first to reference them later on
-        for (DataReference<Object> ref:references) {
-            if (!objectTableExists(ref.getClass())) {
-                if(!createTable(ref.getREFERENCE()))
-                    return false;
+                setUpdateParameters(statement, id, dataFields, references, changed);
+                statement.addBatch();
+                if(++batched == batchSize) {
+                    if(!executeBatch(statement))
+                        return false;
+                    batched = 0;
+                }
             }
+            return statement == null || batched == 0 || executeBatch(statement);
+        } finally {
+            if(statement != null)
+                statement.close();
         }
+    }
 
-        //constructing SQL statement
-        StringBuilder stringBuilder = new StringBuilder();
-
-        //defining name of table as name of object's class
-        stringBuilder.append("create table if not exists " + object.getClass().getSimpleName() + "(");
+    /**
+     * @param clazz The class of the object being updated
+     * @param changed The indexes of the changed columns, null for every column
+     * @return Returns the update statement setting the changed columns
+     */
+    private static String updateStatement(Class<?> clazz, List<Integer> changed) {
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(clazz);
+        return changed == null ? templates.getUpdateById() : templates.getUpdateById(changed);
+    }
 
-        //adding primary key as first entry
-        stringBuilder.append(id.getValueFieldName() + " " + id.getDataType().toString() + " primary key, ");
+    /**
+     * Deletes rows of a single table by id, with one "in" statement per chunk of ids
+     * @param clazz The class of the rows
+     * @param ids The ids of the rows being deleted
+     * @param batchSize The maximum number of ids bound into a single statement
+     * @param connection The borrowed connection to execute with
+     * @throws SQLException Thrown when a statement could not be executed
+     */
+    private static void deleteBatch(Class<?> clazz, Collection<Object> ids, int batchSize, Connection connection) throws SQLException {
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(clazz);
+        String idName = POJOPropertyGetSet.getIDColumn(POJOPropertyGetSet.getEntityMetadata(clazz)).getColumnName();
+        int chunkSize = Math.min(batchSize, MAX_PARAMETERS);
+        List<Object> chunk = new ArrayList<>(Math.min(chunkSize, ids.size()));
+        Iterator<Object> iterator = ids.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if(chunk.size() == chunkSize || !iterator.hasNext()) {
+                try (PreparedStatement statement = connection.prepareStatement(templates.getDeleteByIds(chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        setParameter(statement, i + 1, DataField.createDataField(chunk.get(i), idName));
+                    }
+                    statement.executeUpdate();
+                }
+                chunk.clear();
+            }
+        }
+    }
 
-        //adding data fields if any exist
-        for (DataField<?> field : dataFields) {
-            stringBuilder.append(field.getValueFieldName() + " " + field.getDataType().toString() + ", ");
+    /**
+     * Executes a statement's batch
+     * @param statement The statement who's batch is executed
+     * @return Returns true if every statement of the batch changed a row, false if not
+     * @throws SQLException Thrown when the batch could not be executed
+     */
+    static boolean executeBatch(Statement statement) throws SQLException {
+        for (int count : statement.executeBatch()) {
+            if(count == 0 || count == Statement.EXECUTE_FAILED)
+                return false;
         }
+        return true;
+    }
 
-        //adding reference / foreign key fields if any exist
-        for (DataReference<Object> ref:references) {
-            stringBuilder.append(ref.getREFERENCE_NAME() +
-                    " " +
-                    ref.getREFERENCES_ID().getDataType().toString() +
-                    " references " +
-                    ref.getREFERENCE().getClass().getSimpleName() +
-                    "(" +
-                    ref.getREFERENCES_ID().getValueFieldName() +
-                    ") on delete cascade, ");
+    /**
+     * Sets the id, field, and reference parameters of a statement in table order
+     * @param statement The statement being prepared
+     * @param index The index of the first parameter to set
+     * @param id The id (primary key) of the object
+     * @param dataFields The fields of the object
+     * @param references The references (foreign keys) of the object
+     * @param nullReferences The indexes of the references set to null rather than the referenced id
+     * @return Returns the index following the last parameter set
+     * @throws SQLException Thrown when a parameter could not be set
+     */
+    static int setColumnParameters(PreparedStatement statement, int index, DataField<?> id, List<DataField<Object>> dataFields, List<DataReference<Object>> references, Set<Integer> nullReferences) throws SQLException {
+        setParameter(statement, index++, id);
+        for (DataField<Object> field : dataFields) {
+            setParameter(statement, index++, field);
         }
+        for (int i = 0; i < references.size(); i++) {
+            if(nullReferences.contains(i))
+                statement.setNull(index++, Types.NULL);
+            else
+                setParameter(statement, index++, references.get(i).getREFERENCES_ID());
+        }
+        return index;
+    }
 
-        //adding field for the serialization of this object
-        stringBuilder.setLength(stringBuilder.length() - 2);
-        stringBuilder.append(")");
+    /**
+     * Sets the parameters of an update statement, the columns set in table order followed by the id
+     * @param statement The statement being prepared
+     * @param id The id (primary key) of the object
+     * @param dataFields The fields of the object
+     * @param references The references (foreign keys) of the object
+     * @param changed The indexes of the columns set, counting fields then references, null for every column
+     * @return Returns the index following the last parameter set
+     * @throws SQLException Thrown when a parameter could not be set
+     */
+    static int setUpdateParameters(PreparedStatement statement, DataField<?> id, List<DataField<Object>> dataFields, List<DataReference<Object>> references, List<Integer> changed) throws SQLException {
+        int index = 1;
+        for (int i = 0; i < dataFields.size() + references.size(); i++) {
+            if(changed != null && !changed.contains(i))
+                continue;
+            setParameter(statement, index++, i < dataFields.size() ? dataFields.get(i) : references.get(i - dataFields.size()).getREFERENCES_ID());
+        }
+        setParameter(statement, index++, id);
+        return index;
+    }
 
-        //executing sql statement to create table
-        try(PreparedStatement statement = CONNECTION.prepareStatement(stringBuilder.toString())) {
-            statement.execute();
-            return true;
-        } catch (Exception e){
-            //todo remove stack trace
-            //e.printStackTrace();
+    /**
+     * Sets a statement parameter using the setter matching the value's SQL data type
+     * @param statement The statement being prepared
+     * @param index The index of the parameter
+     * @param field The value to set
+     * @throws SQLException Thrown when the parameter could not be set
+     * @throws IllegalArgumentException Thrown when the value's data type is INVALID
+     */
+    static void setParameter(PreparedStatement statement, int index, DataField<?> field) throws SQLException, IllegalArgumentException {
+        Object value = field.getValue();
+        switch (field.getDataType()) {
+            case CHAR:
+                statement.setString(index, String.valueOf(value));
+                break;
+            case TEXT:
+                statement.setString(index, (String) value);
+                break;
+            case BIT:
+                statement.setBoolean(index, (boolean) value);
+                break;
+            case NUMERIC:
+                statement.setBigDecimal(index, (BigDecimal) value);
+                break;
+            case TINYINT:
+                statement.setByte(index, (byte) value);
+                break;
+            case SMALLINT:
+                statement.setShort(index, (short) value);
+                break;
+            case INTEGER:
+                statement.setInt(index, (int) value);
+                break;
+            case BIGINT:
+                statement.setLong(index, (long) value);
+                break;
+            case REAL:
+                statement.setFloat(index, (float) value);
+                break;
+            case DOUBLE:
+                statement.setDouble(index, (double) value);
+                break;
+            case DATE:
+                statement.setDate(index, (Date) value);
+                break;
+            case TIME:
+                statement.setTime(index, (Time) value);
+                break;
+            case TIMESTAMP:
+                statement.setTimestamp(index, (Timestamp) value);
+                break;
+            case INVALID:
+                throw new IllegalArgumentException("Data type is INVALID, and not supported");
         }
-        return false;
     }
 }
@@ -0,0 +1,205 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.exception.SORMAccessException;
+import dev.model.exception.SORMObjectRetrievalException;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * A single unit of work, which retrieves every object at most once
+ * <p>
+ *     The session keeps an identity map of the objects it retrieved, created or updated, keyed by class and id.
+ *     Retrieving an object already in the map returns the same instance without querying the database,
+ *     and references of retrieved objects are resolved against the map, so objects referencing the same object
+ *     share its instance. Objects deleted through the session are removed from the map.
+ * </p>
+ * <p>
+ *     Changes made outside of the session are not seen for objects it already holds, use {@link #evict(Object)}
+ *     or {@link #clear()} to retrieve them again. A session is meant to be used by a single thread and is not thread safe.
+ * </p>
+ */
+public class SORMSession implements AutoCloseable {
+
+    private final DataSource DATA_SOURCE;
+    private final Map<Class<?>, Map<Object, Object>> IDENTITY_MAP = new HashMap<>();
+
+    /**
+     * @param dataSource The connection pool used by the session
+     * @throws IllegalArgumentException Thrown when parameter dataSource is null
+     */
+    private SORMSession(DataSource dataSource) throws IllegalArgumentException {
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        this.DATA_SOURCE = dataSource;
+    }
+
+    /**
+     * Factory method to create a new, empty SORMSession
+     * @param dataSource The connection pool used by the session, it is not closed with the session
+     * @return Returns a new SORMSession
+     * @throws IllegalArgumentException Thrown when parameter dataSource is null
+     */
+    public static SORMSession createSORMSession(DataSource dataSource) throws IllegalArgumentException {
+        return new SORMSession(dataSource);
+    }
+
+    /**
+     * Retrieves an object by id, returning the session's instance if it was already retrieved
+     * @param id The id (primary key) marked with {@link dev.model.annotation.SORMID} of the object being retrieved
+     * @param tClass The class of the object being retrieved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of object being retrieved
+     * @param <I> The type of id
+     * @return Returns Optional which either contains the object if it exists in the database, or an empty optional if it does not
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter id is null
+     * @throws SORMObjectRetrievalException Thrown when a retrieved object could not be recreated
+     */
+    public <T, I> Optional<T> getById(I id, Class<T> tClass, Class<I> iClass) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        if(id == null)
+            throw new IllegalArgumentException("Parameter id cannot be null");
+        return Optional.ofNullable(getByIds(Collections.singletonList(id), tClass, iClass).get(id));
+    }
+
+    /**
+     * Retrieves several objects by id, only querying the database for objects the session does not hold yet
+     * @param ids The ids (primary keys) marked with {@link dev.model.annotation.SORMID} of the objects being retrieved
+     * @param tClass The class of the objects being retrieved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being retrieved
+     * @param <I> The type of id
+     * @return Returns the retrieved objects by id, in the order of ids, ids without an object in the database are left out
+     * @throws SQLException Thrown when unable to successfully query database
+     * @throws IllegalArgumentException Thrown when parameter ids is null or contains null
+     * @throws SORMObjectRetrievalException Thrown when a retrieved object could not be recreated
+     */
+    @SuppressWarnings("unchecked")
+    public <T, I> Map<I, T> getByIds(Collection<I> ids, Class<T> tClass, Class<I> iClass) throws SQLException, IllegalArgumentException, SORMObjectRetrievalException {
+        if(ids == null)
+            throw new IllegalArgumentException("Parameter ids cannot be null");
+
+        //answering from the identity map alone when every object is already held
+        Map<Object, Object> held = IDENTITY_MAP.getOrDefault(tClass, Collections.emptyMap());
+        Map<I, T> result = new LinkedHashMap<>();
+        for (I id : ids) {
+            if(id == null)
+                throw new IllegalArgumentException("Parameter ids cannot contain null");
+            Object object = held.get(id);
+            if(object == null)
+                return new SORMDAO<>(tClass, iClass, DATA_SOURCE).getByIds(ids, SORMDAO.DEFAULT_BATCH_SIZE, IDENTITY_MAP);
+            result.put(id, (T) object);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an object in the database, and holds it in the session when successful
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being stored in the database
+     * @param tClass The class of the object being stored
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of object being stored
+     * @param <I> The type of id
+     * @return Returns true if the object was created successfully, false if not
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when object parameter is null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    public <T, I> boolean create(T object, Class<T> tClass, Class<I> iClass) throws SORMAccessException, IllegalArgumentException, SQLException {
+        boolean created = new SORMDAO<>(tClass, iClass, DATA_SOURCE).create(object);
+        if(created)
+            hold(object);
+        return created;
+    }
+
+    /**
+     * Updates an object in the database, and holds it in the session when successful
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being updated in the database
+     * @param tClass The class of the object being updated
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of object being updated
+     * @param <I> The type of id
+     * @return Returns true if the object was updated successfully, false if not
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws IllegalArgumentException Thrown when object parameter is null
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    public <T, I> boolean update(T object, Class<T> tClass, Class<I> iClass) throws SORMAccessException, IllegalArgumentException, SQLException {
+        boolean updated = new SORMDAO<>(tClass, iClass, DATA_SOURCE).update(object);
+        if(updated)
+            hold(object);
+        return updated;
+    }
+
+    /**
+     * Deletes an object from the database, and removes it from the session
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being deleted from the database
+     * @param tClass The class of the object being deleted
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of object being deleted
+     * @param <I> The type of id
+     * @return Returns true if the object was deleted successfully, false if not
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     */
+    public <T, I> boolean delete(T object, Class<T> tClass, Class<I> iClass) throws SORMAccessException, SQLException {
+        boolean deleted = new SORMDAO<>(tClass, iClass, DATA_SOURCE).delete(object);
+        if(deleted && object != null)
+            evict(object);
+        return deleted;
+    }
+
+    /**
+     * Checks if the session holds an object
+     * @param object The object being checked
+     * @return Returns true if this exact instance is held by the session, false if not
+     * @throws IllegalArgumentException Thrown when parameter object is null
+     * @throws SORMAccessException Thrown when the object's ID could not be accessed
+     */
+    public boolean contains(Object object) throws IllegalArgumentException, SORMAccessException {
+        if(object == null)
+            throw new IllegalArgumentException("Parameter object cannot be null");
+        Map<Object, Object> held = IDENTITY_MAP.get(object.getClass());
+        return held != null && held.get(POJOPropertyGetSet.getID(object).getValue()) == object;
+    }
+
+    /**
+     * Removes an object from the session, it is retrieved from the database when next requested
+     * @param object The object being removed
+     * @throws IllegalArgumentException Thrown when parameter object is null
+     * @throws SORMAccessException Thrown when the object's ID could not be accessed
+     */
+    public void evict(Object object) throws IllegalArgumentException, SORMAccessException {
+        if(object == null)
+            throw new IllegalArgumentException("Parameter object cannot be null");
+        Map<Object, Object> held = IDENTITY_MAP.get(object.getClass());
+        if(held != null)
+            held.remove(POJOPropertyGetSet.getID(object).getValue());
+    }
+
+    /**
+     * Removes every object from the session
+     */
+    public void clear() {
+        IDENTITY_MAP.clear();
+    }
+
+    /**
+     * Adds an object to the identity map, replacing any instance held for its id
+     * @param object The object being held
+     * @throws SORMAccessException Thrown when the object's ID could not be accessed
+     */
+    private void hold(Object object) throws SORMAccessException {
+        IDENTITY_MAP.computeIfAbsent(object.getClass(), k -> new HashMap<>())
+                .put(POJOPropertyGetSet.getID(object).getValue(), object);
+    }
+
+    /**
+     * Closes the session, releasing every object it holds, the connection pool stays open
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+}
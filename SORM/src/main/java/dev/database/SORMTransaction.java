@@ -0,0 +1,216 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.exception.SORMAccessException;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * A unit of work, queueing creates, updates and deletes until they are committed together
+ * <p>
+ *     Nothing is written until {@link #commit()}, which writes every queued operation within one transaction on a
+ *     single connection. Operations are ordered by their {@link dev.model.annotation.SORMReference}s rather than by
+ *     the order they were queued in: inserts first, then updates, referenced rows before the rows referencing them,
+ *     then deletes, rows referencing others first. The rows of each table are written with JDBC batches.
+ * </p>
+ * <p>
+ *     Savepoints mark a position in the queue, rolling back to a savepoint discards the operations queued after it.
+ *     Objects are read when committed, so changes made to a queued object before the commit are written.
+ *     A transaction is meant to be used by a single thread and is not thread safe.
+ * </p>
+ */
+public class SORMTransaction implements AutoCloseable {
+
+    private final DataSource DATA_SOURCE;
+    private final List<Operation> OPERATIONS = new ArrayList<>();
+    private final Map<String, Integer> SAVEPOINTS = new HashMap<>();
+    private boolean finished;
+
+    /**
+     * @param dataSource The connection pool the transaction is committed to
+     * @throws IllegalArgumentException Thrown when parameter dataSource is null
+     */
+    private SORMTransaction(DataSource dataSource) throws IllegalArgumentException {
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        this.DATA_SOURCE = dataSource;
+    }
+
+    /**
+     * Factory method to create a new, empty SORMTransaction
+     * @param dataSource The connection pool the transaction is committed to, it is not closed with the transaction
+     * @return Returns a new SORMTransaction
+     * @throws IllegalArgumentException Thrown when parameter dataSource is null
+     */
+    public static SORMTransaction createSORMTransaction(DataSource dataSource) throws IllegalArgumentException {
+        return new SORMTransaction(dataSource);
+    }
+
+    /**
+     * Queues an object, and the objects it references, to be added to the database
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being stored in the database
+     * @throws IllegalArgumentException Thrown when parameter object is null
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public void create(Object object) throws IllegalArgumentException, IllegalStateException {
+        queue(Kind.CREATE, object);
+    }
+
+    /**
+     * Queues an object, and the objects it references, to be updated in the database
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being updated in the database
+     * @throws IllegalArgumentException Thrown when parameter object is null
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public void update(Object object) throws IllegalArgumentException, IllegalStateException {
+        queue(Kind.UPDATE, object);
+    }
+
+    /**
+     * Queues an object, and the objects it references, to be deleted from the database
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being deleted from the database
+     * @throws IllegalArgumentException Thrown when parameter object is null
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public void delete(Object object) throws IllegalArgumentException, IllegalStateException {
+        queue(Kind.DELETE, object);
+    }
+
+    /**
+     * Marks the current position of the queue, moving the savepoint if one with the same name exists
+     * @param name The name of the savepoint
+     * @throws IllegalArgumentException Thrown when parameter name is null
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public void setSavepoint(String name) throws IllegalArgumentException, IllegalStateException {
+        if(name == null)
+            throw new IllegalArgumentException("Parameter name cannot be null");
+        checkActive();
+        SAVEPOINTS.put(name, OPERATIONS.size());
+    }
+
+    /**
+     * Discards every operation queued after a savepoint, along with the savepoints set after it
+     * @param name The name of the savepoint
+     * @throws IllegalArgumentException Thrown when parameter name is null or no savepoint has that name
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public void rollbackToSavepoint(String name) throws IllegalArgumentException, IllegalStateException {
+        if(name == null)
+            throw new IllegalArgumentException("Parameter name cannot be null");
+        checkActive();
+        Integer position = SAVEPOINTS.get(name);
+        if(position == null)
+            throw new IllegalArgumentException("No savepoint is named " + name);
+        OPERATIONS.subList(position, OPERATIONS.size()).clear();
+        SAVEPOINTS.values().removeIf(p -> p > position);
+    }
+
+    /**
+     * @return Returns the number of operations queued
+     */
+    public int size() {
+        return OPERATIONS.size();
+    }
+
+    /**
+     * Writes every queued operation within one transaction, see {@link SORMTransaction}
+     * @return Returns true if every operation was written and committed, false if the transaction was rolled back
+     * @throws SORMAccessException Thrown when an object's fields, ID, or references could not be accessed, after rolling back
+     * @throws SQLException Thrown when a connection could not be borrowed from the pool, or a statement failed and the transaction was rolled back
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public boolean commit() throws SORMAccessException, SQLException, IllegalStateException {
+        checkActive();
+        finished = true;
+        if(OPERATIONS.isEmpty())
+            return true;
+
+        Map<Kind, List<Object>> objects = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            objects.put(kind, new ArrayList<>());
+        }
+        for (Operation operation : OPERATIONS) {
+            objects.get(operation.kind).add(operation.object);
+        }
+        OPERATIONS.clear();
+        SAVEPOINTS.clear();
+        return new SORMDAO<>(Object.class, Object.class, DATA_SOURCE).writeAll(objects.get(Kind.CREATE),
+                objects.get(Kind.UPDATE), objects.get(Kind.DELETE), SORMDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Discards every queued operation, nothing is written
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    public void rollback() throws IllegalStateException {
+        checkActive();
+        finished = true;
+        OPERATIONS.clear();
+        SAVEPOINTS.clear();
+    }
+
+    /**
+     * @return Returns true until the transaction is committed or rolled back
+     */
+    public boolean isActive() {
+        return !finished;
+    }
+
+    /**
+     * Closes the transaction, discarding the operations of a transaction which was not committed
+     */
+    @Override
+    public void close() {
+        if(!finished)
+            rollback();
+    }
+
+    /**
+     * Adds an operation to the queue
+     * @param kind The kind of operation
+     * @param object The object being written
+     * @throws IllegalArgumentException Thrown when parameter object is null
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    private void queue(Kind kind, Object object) throws IllegalArgumentException, IllegalStateException {
+        if(object == null)
+            throw new IllegalArgumentException("Parameter object cannot be null");
+        checkActive();
+        OPERATIONS.add(new Operation(kind, object));
+    }
+
+    /**
+     * @throws IllegalStateException Thrown when the transaction was already committed or rolled back
+     */
+    private void checkActive() throws IllegalStateException {
+        if(finished)
+            throw new IllegalStateException("The transaction was already committed or rolled back");
+    }
+
+    /**
+     * Kinds of queued operations
+     */
+    private enum Kind {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * An operation waiting for the transaction to be committed
+     */
+    private static final class Operation {
+        private final Kind kind;
+        private final Object object;
+
+        /**
+         * @param kind The kind of operation
+         * @param object The object being written
+         */
+        private Operation(Kind kind, Object object) {
+            this.kind = kind;
+            this.object = object;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package dev.database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In memory record of which tables exist in a database
+ * <p>
+ *     Tables are learned from {@link DatabaseMetaData} the first time an unknown table is asked about,
+ *     and from successful create table statements. Once known, existence is answered without a round trip.
+ *     Missing tables are remembered for a short time, so classes without a table don't read the metadata on every operation,
+ *     while a table created by another connection pool is still found once the miss expires.
+ *     Tables dropped outside of SORM are only noticed after {@link #refresh()} or {@link #invalidate(String)}.
+ *     Table names are compared case insensitively, as unquoted identifiers are.
+ * </p>
+ */
+public class SchemaRegistry {
+
+    /**
+     * Number of milliseconds a missing table is remembered for, when not configured otherwise
+     */
+    public static final long DEFAULT_MISS_TTL_MILLIS = 1000;
+
+    private static final String[] TABLE_TYPES = {"TABLE"};
+    private final Set<String> TABLES = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> MISSES = new ConcurrentHashMap<>();
+    private final long MISS_TTL_NANOS;
+
+    /**
+     * @param missTtlMillis The number of milliseconds a missing table is remembered for
+     */
+    private SchemaRegistry(long missTtlMillis) {
+        this.MISS_TTL_NANOS = TimeUnit.MILLISECONDS.toNanos(missTtlMillis);
+    }
+
+    /**
+     * Factory method to create a new, empty SchemaRegistry
+     * <p>
+     *     Missing tables are remembered for the "sorm.schemaMissTtlMillis" system property, or {@link #DEFAULT_MISS_TTL_MILLIS}
+     * </p>
+     * @return Returns a new SchemaRegistry
+     */
+    public static SchemaRegistry createSchemaRegistry() {
+        return new SchemaRegistry(Math.max(0, Long.getLong("sorm.schemaMissTtlMillis", DEFAULT_MISS_TTL_MILLIS)));
+    }
+
+    /**
+     * Factory method to create a new, empty SchemaRegistry
+     * @param missTtlMillis The number of milliseconds a missing table is remembered for, 0 reads the metadata on every check of a missing table
+     * @return Returns a new SchemaRegistry
+     * @throws IllegalArgumentException Thrown when missTtlMillis is negative
+     */
+    public static SchemaRegistry createSchemaRegistry(long missTtlMillis) throws IllegalArgumentException {
+        if(missTtlMillis < 0)
+            throw new IllegalArgumentException("Parameter missTtlMillis cannot be negative");
+        return new SchemaRegistry(missTtlMillis);
+    }
+
+    /**
+     * Checks if a table exists
+     * <p>
+     *     Only queries the database's metadata when the table is not yet known, and was not found missing recently
+     * </p>
+     * @param tableName The name of the table
+     * @param connection The connection to read metadata with when the table is unknown
+     * @return Returns true if the table exists, false if not
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    public boolean tableExists(String tableName, Connection connection) throws IllegalArgumentException {
+        if(tableName == null)
+            throw new IllegalArgumentException("Parameter tableName cannot be null");
+        if(connection == null)
+            throw new IllegalArgumentException("Parameter connection cannot be null");
+
+        String key = key(tableName);
+        if(TABLES.contains(key))
+            return true;
+        Long missedAt = MISSES.get(key);
+        if(missedAt != null && System.nanoTime() - missedAt < MISS_TTL_NANOS)
+            return false;
+
+        //learning every table of the schema at once, so that other unknown tables don't need a round trip
+        try {
+            loadTables(connection);
+        } catch (SQLException ignored) {
+            return false;
+        }
+        if(TABLES.contains(key))
+            return true;
+        if(MISS_TTL_NANOS > 0)
+            MISSES.put(key, System.nanoTime());
+        return false;
+    }
+
+    /**
+     * Records that a table exists, called once its create table statement succeeded
+     * @param tableName The name of the table
+     * @throws IllegalArgumentException Thrown when parameter tableName is null
+     */
+    public void registerTable(String tableName) throws IllegalArgumentException {
+        if(tableName == null)
+            throw new IllegalArgumentException("Parameter tableName cannot be null");
+        TABLES.add(key(tableName));
+        MISSES.remove(key(tableName));
+    }
+
+    /**
+     * Forgets a single table, its existence will be read from the database's metadata when next checked
+     * @param tableName The name of the table
+     * @throws IllegalArgumentException Thrown when parameter tableName is null
+     */
+    public void invalidate(String tableName) throws IllegalArgumentException {
+        if(tableName == null)
+            throw new IllegalArgumentException("Parameter tableName cannot be null");
+        TABLES.remove(key(tableName));
+        MISSES.remove(key(tableName));
+    }
+
+    /**
+     * Forgets every table, and every missing table, existence will be read from the database's metadata when next checked
+     */
+    public void refresh() {
+        TABLES.clear();
+        MISSES.clear();
+    }
+
+    /**
+     * Reads the names of every table in the connection's current schema
+     * @param connection The connection to read metadata with
+     * @throws SQLException Thrown when metadata could not be read
+     */
+    private void loadTables(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), null, TABLE_TYPES)) {
+            while (tables.next()) {
+                String key = key(tables.getString("TABLE_NAME"));
+                TABLES.add(key);
+                MISSES.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param tableName The name of a table
+     * @return Returns the case insensitive key of the table
+     */
+    private static String key(String tableName) {
+        return tableName.toUpperCase(Locale.ROOT);
+    }
+}
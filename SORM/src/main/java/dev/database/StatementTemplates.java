@@ -0,0 +1,305 @@
+package dev.database;
+
+import dev.model.database.ColumnMetadata;
+import dev.model.database.EntityMetadata;
+import dev.model.enumeration.SQLDialect;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * SQL statements of an entity, generated once from its {@link EntityMetadata}
+ * <p>
+ *     The text of each statement only depends on the entity's class, so every operation on
+ *     that class prepares exactly the same SQL, allowing driver and server side prepared
+ *     statement caches to be hit. Parameters are ordered id, field columns, then reference
+ *     columns, matching the order of {@link EntityMetadata#getFieldColumns()} and
+ *     {@link EntityMetadata#getReferenceColumns()}.
+ * </p>
+ */
+public class StatementTemplates {
+
+    private static final Map<Class<?>, StatementTemplates> STATEMENT_TEMPLATES = new ConcurrentHashMap<>();
+
+    private final EntityMetadata metadata;
+    private final Map<Integer, JoinFetch> joinFetches = new ConcurrentHashMap<>();
+    private final Map<String, String> queries = new ConcurrentHashMap<>();
+    private final Map<List<Integer>, String> partialUpdates = new ConcurrentHashMap<>();
+    private final String table;
+    private final String idName;
+    private final String columnList;
+    private final String insert;
+    private final String upsert;
+    private final String merge;
+    private final String updateById;
+    private final String deleteById;
+    private final String deleteByIds;
+    private final String selectById;
+    private final String selectByIds;
+    private final String createTable;
+
+    /**
+     * Generates every statement of an entity
+     * @param metadata The metadata of the entity
+     */
+    private StatementTemplates(EntityMetadata metadata) {
+        String table = metadata.getTableName();
+        this.metadata = metadata;
+        this.table = table;
+        String idName = POJOPropertyGetSet.getIDColumn(metadata).getColumnName();
+        this.idName = idName;
+
+        StringBuilder columns = new StringBuilder(idName);
+        StringBuilder placeholders = new StringBuilder("?");
+        StringBuilder excluded = new StringBuilder();
+        for (ColumnMetadata column : metadata.getFieldColumns()) {
+            columns.append(", ").append(column.getColumnName());
+            placeholders.append(", ?");
+            excluded.append(excluded.length() == 0 ? "" : ", ").append(column.getColumnName()).append(" = excluded.").append(column.getColumnName());
+        }
+        for (ColumnMetadata column : metadata.getReferenceColumns()) {
+            columns.append(", ").append(column.getColumnName());
+            placeholders.append(", ?");
+            excluded.append(excluded.length() == 0 ? "" : ", ").append(column.getColumnName()).append(" = excluded.").append(column.getColumnName());
+        }
+
+        this.columnList = columns.toString();
+        this.insert = "insert into " + table + " (" + columnList + ") values (" + placeholders + ")";
+        //an entity of only an id has nothing to update when its row exists
+        this.upsert = insert + " on conflict (" + idName + ") " + (excluded.length() == 0 ? "do nothing" : "do update set " + excluded);
+        this.merge = "merge into " + table + " (" + columnList + ") key (" + idName + ") values (" + placeholders + ")";
+        this.updateById = updateStatement(null);
+        this.deleteById = "delete from " + table + " where " + idName + " = ?";
+        this.deleteByIds = "delete from " + table + " where " + idName + " in (";
+        this.selectById = "select " + columnList + " from " + table + " where " + idName + " = ?";
+        this.selectByIds = "select " + columnList + " from " + table + " where " + idName + " in (";
+        this.createTable = createTableStatement(metadata);
+    }
+
+    /**
+     * Returns the statements of a class marked with {@link dev.model.annotation.SORMObject}, generating them only the first time they are requested
+     * @param clazz The class who's statements will be returned
+     * @return Returns the cached StatementTemplates of the class
+     * @throws dev.model.exception.NoSORMObjectFoundException Thrown when the class does not have a {@link dev.model.annotation.SORMObject} annotation on its definition
+     * @throws dev.model.exception.NoSORMIDFoundException Thrown when the class has no property marked with {@link dev.model.annotation.SORMID}
+     */
+    public static StatementTemplates getStatementTemplates(Class<?> clazz) {
+        StatementTemplates templates = STATEMENT_TEMPLATES.get(clazz);
+        if(templates != null)
+            return templates;
+
+        //generated outside of the map since DDL reads the metadata of referenced classes
+        templates = new StatementTemplates(POJOPropertyGetSet.getEntityMetadata(clazz));
+        StatementTemplates existing = STATEMENT_TEMPLATES.putIfAbsent(clazz, templates);
+        return existing == null ? templates : existing;
+    }
+
+    /**
+     * Generates the create table statement
+     * <p>
+     *     Reference columns are created as foreign keys to the referenced entity's
+     *     id column, deleting the referenced row cascades to this table.
+     * </p>
+     * @param metadata The metadata of the entity
+     * @return Returns the create table statement
+     */
+    private static String createTableStatement(EntityMetadata metadata) {
+        ColumnMetadata id = POJOPropertyGetSet.getIDColumn(metadata);
+
+        //defining name of table as name of object's class
+        StringBuilder stringBuilder = new StringBuilder("create table if not exists " + metadata.getTableName() + "(");
+
+        //adding primary key as first entry
+        stringBuilder.append(id.getColumnName() + " " + id.getDataType().toString() + " primary key");
+
+        //adding data fields if any exist
+        for (ColumnMetadata field : metadata.getFieldColumns()) {
+            stringBuilder.append(", " + field.getColumnName() + " " + field.getDataType().toString());
+        }
+
+        //adding reference / foreign key fields if any exist
+        for (ColumnMetadata ref : metadata.getReferenceColumns()) {
+            EntityMetadata referenced = POJOPropertyGetSet.getEntityMetadata(ref.getReferencedClass());
+            stringBuilder.append(", " + ref.getColumnName() +
+                    " " +
+                    ref.getDataType().toString() +
+                    " references " +
+                    referenced.getTableName() +
+                    "(" +
+                    POJOPropertyGetSet.getIDColumn(referenced).getColumnName() +
+                    ") on delete cascade");
+        }
+
+        return stringBuilder.append(")").toString();
+    }
+
+    /**
+     * @return Returns the comma separated column names in table order, id first
+     */
+    public String getColumnList() {
+        return columnList;
+    }
+
+    /**
+     * @return Returns the insert statement, parameters are every column in table order
+     */
+    public String getInsert() {
+        return insert;
+    }
+
+    /**
+     * Returns the statement inserting a row, or updating it when a row with the same id exists
+     * @param dialect The dialect of the database the statement is executed by
+     * @return Returns the upsert statement, parameters are every column in table order
+     * @throws IllegalArgumentException Thrown when parameter dialect is null
+     */
+    public String getUpsert(SQLDialect dialect) throws IllegalArgumentException {
+        if(dialect == null)
+            throw new IllegalArgumentException("Parameter dialect cannot be null");
+        return dialect == SQLDialect.H2 ? merge : upsert;
+    }
+
+    /**
+     * @return Returns the update statement, parameters are every field and reference column in table order followed by the id
+     */
+    public String getUpdateById() {
+        return updateById;
+    }
+
+    /**
+     * Returns the update statement setting only some columns, generating it only the first time it is requested
+     * @param columns The indexes of the columns set, counting field columns then reference columns, in ascending order
+     * @return Returns the update statement, parameters are the columns set followed by the id
+     * @throws IllegalArgumentException Thrown when parameter columns is null or empty, or holds an index which is not a column
+     */
+    public String getUpdateById(List<Integer> columns) throws IllegalArgumentException {
+        if(columns == null || columns.isEmpty())
+            throw new IllegalArgumentException("Parameter columns cannot be null or empty");
+        int count = metadata.getFieldColumns().size() + metadata.getReferenceColumns().size();
+        for (Integer column : columns) {
+            if(column == null || column < 0 || column >= count)
+                throw new IllegalArgumentException("Parameter columns holds an index which is not a column");
+        }
+        if(columns.size() == count)
+            return updateById;
+        return partialUpdates.computeIfAbsent(columns, this::updateStatement);
+    }
+
+    /**
+     * Generates an update statement
+     * @param columns The indexes of the columns set, counting field columns then reference columns, null for every column
+     * @return Returns the update statement, parameters are the columns set followed by the id
+     */
+    private String updateStatement(List<Integer> columns) {
+        List<ColumnMetadata> fields = metadata.getFieldColumns();
+        List<ColumnMetadata> references = metadata.getReferenceColumns();
+        int count = fields.size() + references.size();
+
+        StringBuilder assignments = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if(columns != null && !columns.contains(i))
+                continue;
+            ColumnMetadata column = i < fields.size() ? fields.get(i) : references.get(i - fields.size());
+            if(assignments.length() > 0)
+                assignments.append(", ");
+            assignments.append(column.getColumnName()).append(" = ?");
+        }
+
+        //an entity of only an id has nothing else to set
+        if(assignments.length() == 0)
+            assignments.append(idName).append(" = ").append(idName);
+        return "update " + table + " set " + assignments + " where " + idName + " = ?";
+    }
+
+    /**
+     * @return Returns the delete statement, the only parameter is the id
+     */
+    public String getDeleteById() {
+        return deleteById;
+    }
+
+    /**
+     * Returns the delete statement for several ids
+     * @param count The number of ids
+     * @return Returns the delete statement, the parameters are count ids
+     * @throws IllegalArgumentException Thrown when count is less than 1
+     */
+    public String getDeleteByIds(int count) throws IllegalArgumentException {
+        if(count < 1)
+            throw new IllegalArgumentException("Parameter count must be greater than 0");
+        return placeholders(deleteByIds, count);
+    }
+
+    /**
+     * Appends comma separated placeholders and a closing parenthesis to a statement
+     * @param statement The statement up to its opening parenthesis
+     * @param count The number of placeholders
+     * @return Returns the completed statement
+     */
+    private static String placeholders(String statement, int count) {
+        StringBuilder stringBuilder = new StringBuilder(statement.length() + count * 3).append(statement).append('?');
+        for (int i = 1; i < count; i++) {
+            stringBuilder.append(", ?");
+        }
+        return stringBuilder.append(')').toString();
+    }
+
+    /**
+     * @return Returns the select statement, the only parameter is the id, columns are selected in table order
+     */
+    public String getSelectById() {
+        return selectById;
+    }
+
+    /**
+     * Returns the select statement for several ids
+     * @param count The number of ids
+     * @return Returns the select statement, the parameters are count ids, columns are selected in table order
+     * @throws IllegalArgumentException Thrown when count is less than 1
+     */
+    public String getSelectByIds(int count) throws IllegalArgumentException {
+        if(count < 1)
+            throw new IllegalArgumentException("Parameter count must be greater than 0");
+        return placeholders(selectByIds, count);
+    }
+
+    /**
+     * Returns the statement selecting an object together with the objects it references, generating it only the first time it is requested
+     * @param maxDepth The maximum depth of references joined, 0 joins nothing
+     * @return Returns the cached JoinFetch of the entity for the depth
+     * @throws IllegalArgumentException Thrown when maxDepth is negative
+     */
+    public JoinFetch getJoinFetch(int maxDepth) throws IllegalArgumentException {
+        if(maxDepth < 0)
+            throw new IllegalArgumentException("Parameter maxDepth cannot be negative");
+        return joinFetches.computeIfAbsent(maxDepth, depth -> JoinFetch.createJoinFetch(metadata, depth));
+    }
+
+    /**
+     * Returns the statement of a query, compiling it only the first time its shape is requested
+     * <p>
+     *     A shape identifies the columns, operators, ordering and clauses of a query, but not its parameter values,
+     *     so every query of the same shape prepares exactly the same SQL
+     * </p>
+     * @param shape The shape of the query
+     * @param compiler Compiles the statement of the shape
+     * @return Returns the cached statement of the shape
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    public String getQuery(String shape, Function<String, String> compiler) throws IllegalArgumentException {
+        if(shape == null)
+            throw new IllegalArgumentException("Parameter shape cannot be null");
+        if(compiler == null)
+            throw new IllegalArgumentException("Parameter compiler cannot be null");
+        return queries.computeIfAbsent(shape, compiler);
+    }
+
+    /**
+     * @return Returns the create table statement, creating the table only if it does not exist
+     */
+    public String getCreateTable() {
+        return createTable;
+    }
+}
@@ -2,16 +2,29 @@ package dev.database.hikaricp;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import dev.database.DirtyTracker;
+import dev.database.EntityCache;
+import dev.database.SchemaRegistry;
 import java.sql.Connection;
 import java.sql.SQLException;
 
 /**
  * HikariCP data source used for connection pooling
+ * <p>
+ *     Each DataSource owns exactly one connection pool, which stays open
+ *     until {@link #close()} is called. Connections borrowed with
+ *     {@link #getConnection()} must be closed by the caller to return them to the pool.
+ *     The tables known to exist in the pool's database are kept in its {@link SchemaRegistry},
+ *     objects of cached classes retrieved by id in its {@link EntityCache}, and snapshots of the objects
+ *     retrieved from and written to it in its {@link DirtyTracker}.
+ * </p>
  */
-public class DataSource {
-    private static HikariConfig hikariConfig = new HikariConfig();
-    private static HikariDataSource dataSource;
-    private static int CONNECTION_SIZE = 10;
+public class DataSource implements AutoCloseable {
+    private static final int CONNECTION_SIZE = 10;
+    private final HikariDataSource dataSource;
+    private final SchemaRegistry schemaRegistry = SchemaRegistry.createSchemaRegistry();
+    private final EntityCache entityCache = EntityCache.createEntityCache();
+    private final DirtyTracker dirtyTracker = DirtyTracker.createDirtyTracker();
 
     /**
      * Constructor to create a new connection pool
@@ -20,6 +33,7 @@ public class DataSource {
      * @param jdbcPassword The password used to authorize with the database
      */
     public DataSource(String jdbcUrl, String jdbcUserName, String jdbcPassword){
+        HikariConfig hikariConfig = new HikariConfig();
         hikariConfig.setJdbcUrl(jdbcUrl);
         hikariConfig.setUsername(jdbcUserName);
         hikariConfig.setPassword(jdbcPassword);
@@ -28,11 +42,57 @@ public class DataSource {
     }
 
     /**
-     * Get the current connection
-     * @return Returns an active connection
+     * Borrows a connection from the pool
+     * @return Returns an active connection, closing it returns it to the pool
      * @throws SQLException Thrown when an issue is encountered with connection
      */
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
+
+    /**
+     * @return Returns the registry of tables known to exist in this pool's database
+     */
+    public SchemaRegistry getSchemaRegistry() {
+        return schemaRegistry;
+    }
+
+    /**
+     * @return Returns the cache of objects retrieved by id from this pool's database
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * @return Returns the snapshots of objects retrieved from and written to this pool's database
+     */
+    public DirtyTracker getDirtyTracker() {
+        return dirtyTracker;
+    }
+
+    /**
+     * @return Returns the maximum number of connections this pool will open
+     */
+    public int getMaximumPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    /**
+     * @return Returns true if this pool has been closed
+     */
+    public boolean isClosed() {
+        return dataSource.isClosed();
+    }
+
+    /**
+     * Autocloseable implementation
+     * <p>
+     *     Closes the pool and all of its physical connections
+     * </p>
+     */
+    @Override
+    public void close() {
+        dataSource.close();
+    }
 }
@@ -0,0 +1,34 @@
+package dev.model.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SORMCache annotation used to keep objects of a class retrieved by id in memory
+ * <p>
+ *     Objects of a {@link SORMObject} class marked with SORMCache are kept by the connection pool's
+ *     {@link dev.database.EntityCache} once retrieved by id, so that retrieving them again does not query the database.
+ *     The least recently used object is evicted once more than maxEntries are kept, and objects
+ *     older than ttlSeconds are retrieved again. Updating or deleting an object through SORM evicts it.
+ * </p>
+ * use {@link SORMObject} to mark class to allow basic CRUD operations
+ * use {@link SORMID} to mark property as ID (primary key)
+ * use {@link SORMField} to mark property as a field to be stored in the database
+ * use {@link SORMReference} to mark an object as a foreign key (has-a relationship)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SORMCache {
+
+    /**
+     * @return Returns the maximum number of objects kept
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * @return Returns the number of seconds an object is kept after being retrieved, 0 keeps it until evicted
+     */
+    long ttlSeconds() default 0;
+}
@@ -0,0 +1,134 @@
+package dev.model.database;
+
+import dev.model.enumeration.SQLDataType;
+import dev.utility.reflection.PropertyAccessor;
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+/**
+ * Represents a single column of an entity's table
+ * <p>
+ *     Stores the column name, the accessible property it is mapped to, the accessor used
+ *     to read and write it, and the SQL equivalent data type of the column.
+ *     Instances are immutable and shared by every object of the entity's class.
+ * </p>
+ */
+public class ColumnMetadata {
+    private final String columnName;
+    private final Field field;
+    private final SQLDataType dataType;
+    private final PropertyAccessor accessor;
+    private final Class<?> referencedClass;
+
+    /**
+     * @param field The property this column is mapped to
+     * @param dataType The SQL data type of the column
+     * @param accessor The accessor used to read and write the property
+     * @param referencedClass The class of the referenced object if this is a reference column, otherwise null
+     * @throws IllegalArgumentException Thrown when field, dataType or accessor is null
+     */
+    private ColumnMetadata(Field field, SQLDataType dataType, PropertyAccessor accessor, Class<?> referencedClass) throws IllegalArgumentException{
+        if(field == null)
+            throw new IllegalArgumentException("Parameter field cannot be null");
+        if(dataType == null)
+            throw new IllegalArgumentException("Parameter dataType cannot be null");
+        if(accessor == null)
+            throw new IllegalArgumentException("Parameter accessor cannot be null");
+
+        this.field = field;
+        this.columnName = field.getName();
+        this.dataType = dataType;
+        this.accessor = accessor;
+        this.referencedClass = referencedClass;
+    }
+
+    /**
+     * Creates a new ColumnMetadata for a property
+     * @param field The property this column is mapped to
+     * @param dataType The SQL data type of the column
+     * @param accessor The accessor used to read and write the property
+     * @return Returns a new ColumnMetadata
+     * @throws IllegalArgumentException Thrown when any parameter is null
+     */
+    public static ColumnMetadata createColumnMetadata(Field field, SQLDataType dataType, PropertyAccessor accessor) throws IllegalArgumentException{
+        return new ColumnMetadata(field, dataType, accessor, null);
+    }
+
+    /**
+     * Creates a new ColumnMetadata for a property referencing another entity
+     * @param field The property this column is mapped to
+     * @param dataType The SQL data type of the column, which is the data type of the referenced id
+     * @param accessor The accessor used to read and write the property
+     * @param referencedClass The class of the referenced object, the type argument when the property is a {@link LazyReference}
+     * @return Returns a new ColumnMetadata
+     * @throws IllegalArgumentException Thrown when any parameter is null
+     */
+    public static ColumnMetadata createReferenceColumnMetadata(Field field, SQLDataType dataType, PropertyAccessor accessor, Class<?> referencedClass) throws IllegalArgumentException{
+        if(referencedClass == null)
+            throw new IllegalArgumentException("Parameter referencedClass cannot be null");
+        return new ColumnMetadata(field, dataType, accessor, referencedClass);
+    }
+
+    /**
+     * @return Returns the name of the column, which is the name of the property
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * @return Returns the accessible property this column is mapped to
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return Returns the accessor used to read and write the property
+     */
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * @return Returns SQLDataType representation of the column's data type
+     */
+    public SQLDataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * @return Returns the class of the referenced object, or null if this is not a reference column
+     */
+    public Class<?> getReferencedClass() {
+        return referencedClass;
+    }
+
+    /**
+     * @return Returns true if this is a reference column whose property is a {@link LazyReference}, false if not
+     */
+    public boolean isLazy() {
+        return referencedClass != null && field.getType() == LazyReference.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColumnMetadata that = (ColumnMetadata) o;
+        return field.equals(that.field) && dataType == that.dataType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, dataType);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnMetadata{" +
+                "columnName='" + columnName + '\'' +
+                ", dataType=" + dataType +
+                '}';
+    }
+}
@@ -57,6 +57,14 @@ public class DataReference<T> {
         return REFERENCES_ID;
     }
 
+    /**
+     * @return Returns false if the reference is a {@link LazyReference} which was never loaded, its object is then
+     * unknown and only its id can be written, true otherwise
+     */
+    public boolean isLoaded() {
+        return !(REFERENCE instanceof LazyReference);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
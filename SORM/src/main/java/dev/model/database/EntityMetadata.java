@@ -0,0 +1,148 @@
+package dev.model.database;
+
+import dev.utility.reflection.Instantiator;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable description of how a class marked with {@link dev.model.annotation.SORMObject} maps to its table
+ * <p>
+ *     Stores the table name, the id (primary key) column, the ordered field columns,
+ *     the reference (foreign key) columns and the no argument constructor with its instantiator.
+ *     Column order matches the order columns are created in, so positional
+ *     statements and result sets can be bound and read by index.
+ * </p>
+ */
+public class EntityMetadata {
+    private final Class<?> entityClass;
+    private final String tableName;
+    private final ColumnMetadata idColumn;
+    private final List<ColumnMetadata> fieldColumns;
+    private final List<ColumnMetadata> referenceColumns;
+    private final Constructor<?> noArgConstructor;
+    private final Instantiator instantiator;
+
+    /**
+     * @param entityClass The class being described
+     * @param idColumn The column marked with {@link dev.model.annotation.SORMID}, may be null if none exists
+     * @param fieldColumns The columns marked with {@link dev.model.annotation.SORMField}
+     * @param referenceColumns The columns marked with {@link dev.model.annotation.SORMReference}, typed as the referenced id
+     * @param noArgConstructor The constructor marked with {@link dev.model.annotation.SORMNoArgConstructor}, may be null if none exists
+     * @param instantiator The instantiator invoking noArgConstructor, may be null if noArgConstructor is null
+     * @throws IllegalArgumentException Thrown when entityClass, fieldColumns, or referenceColumns is null, or when only one of noArgConstructor and instantiator is null
+     */
+    private EntityMetadata(Class<?> entityClass, ColumnMetadata idColumn, List<ColumnMetadata> fieldColumns, List<ColumnMetadata> referenceColumns, Constructor<?> noArgConstructor, Instantiator instantiator) throws IllegalArgumentException{
+        if(entityClass == null)
+            throw new IllegalArgumentException("Parameter entityClass cannot be null");
+        if(fieldColumns == null)
+            throw new IllegalArgumentException("Parameter fieldColumns cannot be null");
+        if(referenceColumns == null)
+            throw new IllegalArgumentException("Parameter referenceColumns cannot be null");
+        if((noArgConstructor == null) != (instantiator == null))
+            throw new IllegalArgumentException("Parameters noArgConstructor and instantiator must either both be null or both be present");
+
+        this.entityClass = entityClass;
+        this.tableName = entityClass.getSimpleName();
+        this.idColumn = idColumn;
+        this.fieldColumns = Collections.unmodifiableList(new ArrayList<>(fieldColumns));
+        this.referenceColumns = Collections.unmodifiableList(new ArrayList<>(referenceColumns));
+        this.noArgConstructor = noArgConstructor;
+        this.instantiator = instantiator;
+    }
+
+    /**
+     * Creates a new EntityMetadata
+     * @param entityClass The class being described
+     * @param idColumn The column marked with {@link dev.model.annotation.SORMID}, may be null if none exists
+     * @param fieldColumns The columns marked with {@link dev.model.annotation.SORMField}
+     * @param referenceColumns The columns marked with {@link dev.model.annotation.SORMReference}, typed as the referenced id
+     * @param noArgConstructor The constructor marked with {@link dev.model.annotation.SORMNoArgConstructor}, may be null if none exists
+     * @param instantiator The instantiator invoking noArgConstructor, may be null if noArgConstructor is null
+     * @return Returns a new EntityMetadata
+     * @throws IllegalArgumentException Thrown when entityClass, fieldColumns, or referenceColumns is null, or when only one of noArgConstructor and instantiator is null
+     */
+    public static EntityMetadata createEntityMetadata(Class<?> entityClass, ColumnMetadata idColumn, List<ColumnMetadata> fieldColumns, List<ColumnMetadata> referenceColumns, Constructor<?> noArgConstructor, Instantiator instantiator) throws IllegalArgumentException{
+        return new EntityMetadata(entityClass, idColumn, fieldColumns, referenceColumns, noArgConstructor, instantiator);
+    }
+
+    /**
+     * @return Returns the class described by this metadata
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return Returns the name of the entity's table
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @return Returns an optional of the id (primary key) column, empty if no property is marked with {@link dev.model.annotation.SORMID}
+     */
+    public Optional<ColumnMetadata> getIdColumn() {
+        return Optional.ofNullable(idColumn);
+    }
+
+    /**
+     * @return Returns an unmodifiable list of the field columns in table order
+     */
+    public List<ColumnMetadata> getFieldColumns() {
+        return fieldColumns;
+    }
+
+    /**
+     * @return Returns an unmodifiable list of the reference (foreign key) columns in table order
+     */
+    public List<ColumnMetadata> getReferenceColumns() {
+        return referenceColumns;
+    }
+
+    /**
+     * Finds a column of the entity by name
+     * @param columnName The name of the column, which is the name of its property
+     * @return Returns an optional of the id, field, or reference column with the name, empty if the entity has no such column
+     */
+    public Optional<ColumnMetadata> getColumn(String columnName) {
+        if(idColumn != null && idColumn.getColumnName().equals(columnName))
+            return Optional.of(idColumn);
+        for (ColumnMetadata column : fieldColumns) {
+            if(column.getColumnName().equals(columnName))
+                return Optional.of(column);
+        }
+        for (ColumnMetadata column : referenceColumns) {
+            if(column.getColumnName().equals(columnName))
+                return Optional.of(column);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return Returns an optional of the accessible no argument constructor, empty if none is marked with {@link dev.model.annotation.SORMNoArgConstructor}
+     */
+    public Optional<Constructor<?>> getNoArgConstructor() {
+        return Optional.ofNullable(noArgConstructor);
+    }
+
+    /**
+     * @return Returns an optional of the instantiator invoking the no argument constructor, empty if there is no such constructor
+     */
+    public Optional<Instantiator> getInstantiator() {
+        return Optional.ofNullable(instantiator);
+    }
+
+    @Override
+    public String toString() {
+        return "EntityMetadata{" +
+                "tableName='" + tableName + '\'' +
+                ", idColumn=" + idColumn +
+                ", fieldColumns=" + fieldColumns +
+                ", referenceColumns=" + referenceColumns +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package dev.model.database;
+
+import dev.model.exception.NoSORMIDFoundException;
+import dev.model.exception.NoSORMObjectFoundException;
+import dev.model.exception.SORMAccessException;
+import dev.model.exception.SORMObjectRetrievalException;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A reference to an object which is only retrieved from the database when first accessed
+ * <p>
+ *     Declaring a {@link dev.model.annotation.SORMReference} property as LazyReference&lt;T&gt; instead of T
+ *     opts it into lazy loading. The column is stored exactly as an eager reference to T, but when the owning
+ *     object is retrieved only the referenced id is read, and T is retrieved through the connection pool
+ *     the first time {@link #get()} is called. The loaded object is kept, so later calls don't query again.
+ * </p>
+ * <p>
+ *     Objects referenced by a LazyReference which was never loaded are not cascaded to when the owning object
+ *     is created, updated or deleted, only their id is written.
+ * </p>
+ * @param <T> The type of the referenced object
+ */
+public class LazyReference<T> {
+
+    private final Object id;
+    private final Loader<T> loader;
+    private volatile T reference;
+    private volatile boolean loaded;
+
+    /**
+     * @param id The id of the referenced object
+     * @param loader Retrieves the referenced object by its id, null when the reference is already loaded
+     * @param reference The referenced object if already loaded
+     * @param loaded Whether the referenced object is already loaded
+     */
+    private LazyReference(Object id, Loader<T> loader, T reference, boolean loaded) {
+        this.id = id;
+        this.loader = loader;
+        this.reference = reference;
+        this.loaded = loaded;
+    }
+
+    /**
+     * Creates a LazyReference to an object that is already loaded, used when creating objects to be stored
+     * @param reference The object to be referenced
+     * @param <T> The type of the referenced object
+     * @return Returns a new, loaded LazyReference
+     * @throws IllegalArgumentException Thrown when parameter reference is null
+     * @throws NoSORMObjectFoundException Thrown when the referenced object does not have a {@link dev.model.annotation.SORMObject} annotation on its class definition
+     * @throws NoSORMIDFoundException Thrown when the referenced object's ID could not be accessed
+     * @throws SORMAccessException Thrown when the referenced object's ID could not be accessed
+     */
+    public static <T> LazyReference<T> createLazyReference(T reference) throws IllegalArgumentException, NoSORMObjectFoundException, NoSORMIDFoundException, SORMAccessException {
+        if(reference == null)
+            throw new IllegalArgumentException("Parameter reference cannot be null");
+        return new LazyReference<>(POJOPropertyGetSet.getID(reference).getValue(), null, reference, true);
+    }
+
+    /**
+     * Creates a LazyReference to an object that has not been retrieved yet
+     * @param id The id of the referenced object
+     * @param loader Retrieves the referenced object by its id on first access
+     * @param <T> The type of the referenced object
+     * @return Returns a new, unloaded LazyReference
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    public static <T> LazyReference<T> createLazyReference(Object id, Loader<T> loader) throws IllegalArgumentException {
+        if(id == null)
+            throw new IllegalArgumentException("Parameter id cannot be null");
+        if(loader == null)
+            throw new IllegalArgumentException("Parameter loader cannot be null");
+        return new LazyReference<>(id, loader, null, false);
+    }
+
+    /**
+     * Returns the referenced object, retrieving it from the database on the first call
+     * <p>
+     *     Safe to call from several threads, the object is only retrieved once
+     * </p>
+     * @return Returns the referenced object, or null if it no longer exists
+     * @throws SORMObjectRetrievalException Thrown when the object could not be retrieved
+     */
+    public T get() throws SORMObjectRetrievalException {
+        if(!loaded) {
+            synchronized (this) {
+                if(!loaded) {
+                    try {
+                        reference = loader.load(id).orElse(null);
+                    } catch (SQLException e) {
+                        throw new SORMObjectRetrievalException("Referenced object with id " + id + " could not be retrieved: " + e.getMessage());
+                    }
+                    loaded = true;
+                }
+            }
+        }
+        return reference;
+    }
+
+    /**
+     * @return Returns the id of the referenced object, available without loading it
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * @return Returns true if the referenced object has been retrieved or was provided, false if not
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LazyReference<?> that = (LazyReference<?>) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "LazyReference{" +
+                "id=" + id +
+                ", loaded=" + loaded +
+                '}';
+    }
+
+    /**
+     * Retrieves a referenced object by its id
+     * @param <T> The type of the referenced object
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        /**
+         * @param id The id of the referenced object
+         * @return Returns the referenced object, or an empty optional if it does not exist
+         * @throws SQLException Thrown when unable to connect to the database
+         */
+        Optional<T> load(Object id) throws SQLException;
+    }
+}
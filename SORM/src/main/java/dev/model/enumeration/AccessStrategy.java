@@ -0,0 +1,25 @@
+package dev.model.enumeration;
+
+/**
+ * Enumeration representing how properties and constructors of entities are accessed
+ * <p>
+ *     METHOD_HANDLE uses {@link java.lang.invoke.MethodHandle}s created once per property,
+ *     with primitive specialized setters so primitive values are written without boxing.
+ *     REFLECTION uses {@link java.lang.reflect.Field} and {@link java.lang.reflect.Constructor} directly.
+ * </p>
+ */
+public enum AccessStrategy {
+    METHOD_HANDLE,
+    REFLECTION;
+
+    /**
+     * Returns the strategy named by the "sorm.accessStrategy" system property
+     * @return Returns the configured AccessStrategy, METHOD_HANDLE if none or an unknown strategy was configured
+     */
+    public static AccessStrategy fromSystemProperty(){
+        String strategy = System.getProperty("sorm.accessStrategy");
+        if(strategy != null && strategy.trim().equalsIgnoreCase(REFLECTION.name()))
+            return REFLECTION;
+        return METHOD_HANDLE;
+    }
+}
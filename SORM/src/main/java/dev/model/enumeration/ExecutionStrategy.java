@@ -0,0 +1,49 @@
+package dev.model.enumeration;
+
+/**
+ * Enumeration representing how {@link dev.service.thread.DBThreadService} runs operations
+ * <p>
+ *     FIXED runs operations on a fixed number of threads, by default as many as the connection pool has connections.
+ *     FORK_JOIN runs them on a work stealing {@link java.util.concurrent.ForkJoinPool} of that many threads.
+ *     VIRTUAL runs each operation on its own virtual thread, available from Java 21, falling back to FIXED on older runtimes.
+ *     CALLER_RUNS runs each operation on the calling thread, returning already completed futures.
+ * </p>
+ */
+public enum ExecutionStrategy {
+    FIXED,
+    FORK_JOIN,
+    VIRTUAL,
+    CALLER_RUNS;
+
+    /**
+     * Returns the strategy named by the "sorm.executionStrategy" system property
+     * @return Returns the configured ExecutionStrategy, FIXED if none or an unknown strategy was configured
+     */
+    public static ExecutionStrategy fromSystemProperty(){
+        String strategy = System.getProperty("sorm.executionStrategy");
+        if(strategy != null) {
+            for (ExecutionStrategy executionStrategy : values()) {
+                if(strategy.trim().equalsIgnoreCase(executionStrategy.name()))
+                    return executionStrategy;
+            }
+        }
+        return FIXED;
+    }
+
+    /**
+     * Returns the number of threads named by the "sorm.threadPoolSize" system property
+     * @param defaultSize The number of threads used if none or an invalid number was configured
+     * @return Returns the configured number of threads, defaultSize if none or a number less than 1 was configured
+     */
+    public static int threadsFromSystemProperty(int defaultSize){
+        String threads = System.getProperty("sorm.threadPoolSize");
+        if(threads == null)
+            return defaultSize;
+        try {
+            int size = Integer.parseInt(threads.trim());
+            return size < 1 ? defaultSize : size;
+        } catch (NumberFormatException e) {
+            return defaultSize;
+        }
+    }
+}
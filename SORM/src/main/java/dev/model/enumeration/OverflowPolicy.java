@@ -0,0 +1,24 @@
+package dev.model.enumeration;
+
+/**
+ * Enumeration representing what {@link dev.service.thread.DBThreadService} does with an operation submitted while its queue is full
+ * <p>
+ *     BLOCK makes the submitting thread wait until an operation leaves the queue, slowing callers down to the pace of the database.
+ *     REJECT fails the operation's future immediately with a {@link java.util.concurrent.RejectedExecutionException}, shedding the load.
+ * </p>
+ */
+public enum OverflowPolicy {
+    BLOCK,
+    REJECT;
+
+    /**
+     * Returns the policy named by the "sorm.overflowPolicy" system property
+     * @return Returns the configured OverflowPolicy, BLOCK if none or an unknown policy was configured
+     */
+    public static OverflowPolicy fromSystemProperty(){
+        String policy = System.getProperty("sorm.overflowPolicy");
+        if(policy != null && policy.trim().equalsIgnoreCase(REJECT.name()))
+            return REJECT;
+        return BLOCK;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.model.enumeration;
+
+/**
+ * Enumeration representing the comparisons a query can filter a column with
+ * <p>
+ *     IS_NULL and IS_NOT_NULL compare the column alone, every other operator compares it to a value
+ * </p>
+ */
+public enum QueryOperator {
+    EQUALS("="),
+    NOT_EQUALS("<>"),
+    LESS_THAN("<"),
+    LESS_THAN_OR_EQUALS("<="),
+    GREATER_THAN(">"),
+    GREATER_THAN_OR_EQUALS(">="),
+    LIKE("like"),
+    IS_NULL("is null"),
+    IS_NOT_NULL("is not null");
+
+    private final String sql;
+
+    QueryOperator(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * @return Returns the SQL text of the operator
+     */
+    public String getSQL() {
+        return sql;
+    }
+
+    /**
+     * @return Returns true if the operator compares the column to a value, false if it compares the column alone
+     */
+    public boolean hasValue() {
+        return this != IS_NULL && this != IS_NOT_NULL;
+    }
+}
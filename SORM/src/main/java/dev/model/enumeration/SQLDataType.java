@@ -28,25 +28,44 @@ public enum SQLDataType {
     public <T> SQLDataType convertToSQLDataType(T value) throws IllegalArgumentException{
         if(value == null)
             throw new IllegalArgumentException("Parameter value cannot be null");
-        switch (value.getClass().getSimpleName()) {
+        return convertTypeToSQLDataType(value.getClass());
+    }
+
+    /**
+     * Returns the SQL equivalent data type of the provided java type
+     * @param type Type whose SQL equivalent is to be determined, may be a primitive or its Wrapper
+     * @return SQL equivalent to the type as an SQLDataType enumeration
+     */
+    public SQLDataType convertTypeToSQLDataType(Class<?> type) throws IllegalArgumentException{
+        if(type == null)
+            throw new IllegalArgumentException("Parameter type cannot be null");
+        switch (type.getSimpleName()) {
+            case "char":
             case "Character":
                 return SQLDataType.CHAR;
             case "String":
                 return SQLDataType.TEXT;
+            case "boolean":
             case "Boolean":
                 return SQLDataType.BIT;
             case "BigDecimal":
                 return SQLDataType.NUMERIC;
+            case "byte":
             case "Byte":
                 return SQLDataType.TINYINT;
+            case "short":
             case "Short":
                 return SQLDataType.SMALLINT;
+            case "int":
             case "Integer":
                 return SQLDataType.INTEGER;
+            case "long":
             case "Long":
                 return SQLDataType.BIGINT;
+            case "float":
             case "Float":
                 return SQLDataType.REAL;
+            case "double":
             case "Double":
                 return SQLDataType.DOUBLE;
             case "Date":
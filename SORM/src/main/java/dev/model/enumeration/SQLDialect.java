@@ -0,0 +1,31 @@
+package dev.model.enumeration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Enumeration representing the SQL dialects statements are generated for, where standard SQL falls short
+ * <p>
+ *     POSTGRESQL upserts with "insert ... on conflict (id) do update", H2 with "merge into ... key (id)".
+ * </p>
+ */
+public enum SQLDialect {
+    POSTGRESQL,
+    H2;
+
+    /**
+     * Returns the dialect of the database a connection is connected to
+     * @param connection The connection, read through its {@link java.sql.DatabaseMetaData}
+     * @return Returns H2 when connected to H2, in any compatibility mode, POSTGRESQL otherwise
+     * @throws SQLException Thrown when the connection's metadata could not be read
+     * @throws IllegalArgumentException Thrown when parameter connection is null
+     */
+    public static SQLDialect fromConnection(Connection connection) throws SQLException, IllegalArgumentException {
+        if(connection == null)
+            throw new IllegalArgumentException("Parameter connection cannot be null");
+        String product = connection.getMetaData().getDatabaseProductName();
+        if(product != null && product.trim().equalsIgnoreCase(H2.name()))
+            return H2;
+        return POSTGRESQL;
+    }
+}
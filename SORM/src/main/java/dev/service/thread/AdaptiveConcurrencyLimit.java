@@ -0,0 +1,156 @@
+package dev.service.thread;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit on the number of operations running against the database at once, adapted to their observed latency
+ * <p>
+ *     The limit follows additive increase, multiplicative decrease, once per {@link #WINDOW} operations: a window whose
+ *     average latency stays close to the lowest window average recently observed raises the limit by one, while a window
+ *     averaging more than {@link #LATENCY_TOLERANCE} times that latency, a sign the database is queueing work, lowers it
+ *     by {@link #BACKOFF}. Comparing averages of windows rather than single operations keeps a steady mix of fast operations,
+ *     such as cached reads, and slow ones, such as batch writes, from reading as queueing. Operations beyond the limit are refused by {@link #tryAcquire()}, and are left for their
+ *     owner to start once another operation releases its place, so no thread ever waits on the limit.
+ * </p>
+ */
+final class AdaptiveConcurrencyLimit {
+
+    /**
+     * Ratio of a window's average latency to the lowest window average above which the database is considered saturated
+     */
+    static final double LATENCY_TOLERANCE = 2.0;
+
+    /**
+     * Factor the limit is multiplied by when the database is considered saturated
+     */
+    static final double BACKOFF = 0.9;
+
+    /**
+     * Number of operations whose average latency the limit is adapted to, the limit changes at most once per window
+     */
+    static final int WINDOW = 100;
+
+    /**
+     * Number of windows after which the lowest window average is measured again, following changes of the database's load
+     */
+    static final int BASELINE_WINDOWS = 10;
+
+    /**
+     * Number of nanoseconds a window's average latency must exceed the lowest average by to be considered slowed, ignoring jitter of fast operations
+     */
+    static final long MIN_QUEUEING_NANOS = 1_000_000;
+
+    private final Lock lock = new ReentrantLock();
+    private final int maxLimit;
+    private double limit;
+    private int running;
+    private long minLatency = Long.MAX_VALUE;
+    private long baselineMinLatency = Long.MAX_VALUE;
+    private int baselineWindows;
+    private long windowLatency;
+    private int windowSamples;
+
+    /**
+     * @param maxLimit The highest the limit can grow to, and its initial value
+     */
+    AdaptiveConcurrencyLimit(int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * Takes a place for an operation, if the limit allows one more operation to run against the database
+     * @return Returns true if the operation may run, false if the limit is reached
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if(running >= (int) limit)
+                return false;
+            running++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the place of an operation which did not run, without adapting the limit
+     */
+    void release() {
+        lock.lock();
+        try {
+            running--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a finished operation, adapting the limit to its latency
+     * @param latencyNanos The number of nanoseconds the operation ran for
+     */
+    void release(long latencyNanos) {
+        lock.lock();
+        try {
+            adapt(latencyNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the place of a finished operation and adapts the limit, called holding the lock
+     * @param latencyNanos The number of nanoseconds the operation ran for
+     */
+    private void adapt(long latencyNanos) {
+        running--;
+
+        //the limit only adapts once a window of operations finished, to their average latency
+        windowLatency += latencyNanos;
+        if(++windowSamples < WINDOW)
+            return;
+        long averageLatency = windowLatency / windowSamples;
+        windowLatency = 0;
+        windowSamples = 0;
+
+        //the lowest average is measured again every few windows, so it follows the database's load
+        baselineMinLatency = Math.min(baselineMinLatency, averageLatency);
+        minLatency = Math.min(minLatency, averageLatency);
+        if(++baselineWindows >= BASELINE_WINDOWS) {
+            minLatency = baselineMinLatency;
+            baselineMinLatency = Long.MAX_VALUE;
+            baselineWindows = 0;
+        }
+
+        if(averageLatency > minLatency * LATENCY_TOLERANCE && averageLatency - minLatency > MIN_QUEUEING_NANOS)
+            limit = Math.max(1, limit * BACKOFF);
+        else
+            limit = Math.min(maxLimit, limit + 1);
+    }
+
+    /**
+     * @return Returns the current number of operations allowed to run at once
+     */
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Returns the number of operations currently running
+     */
+    int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
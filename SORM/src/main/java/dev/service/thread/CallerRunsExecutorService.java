@@ -0,0 +1,86 @@
+package dev.service.thread;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExecutorService running every task on the thread submitting it
+ * <p>
+ *     Used by {@link dev.model.enumeration.ExecutionStrategy#CALLER_RUNS}, avoiding the hand off to another thread
+ *     on paths where latency matters more than the caller being free while the task runs
+ * </p>
+ */
+final class CallerRunsExecutorService extends AbstractExecutorService {
+
+    private boolean shutdown;
+    private int running;
+
+    /**
+     * Runs a task on the calling thread
+     * @param command The task being run
+     * @throws RejectedExecutionException Thrown when this executor has been shut down
+     */
+    @Override
+    public void execute(Runnable command) throws RejectedExecutionException {
+        synchronized (this) {
+            if(shutdown)
+                throw new RejectedExecutionException("The executor has been shut down");
+            running++;
+        }
+        try {
+            command.run();
+        } finally {
+            synchronized (this) {
+                running--;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Shuts down the executor, tasks already running on their callers' threads are not interrupted
+     * @return Returns an empty list, as no task ever waits to be run
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return shutdown && running == 0;
+    }
+
+    /**
+     * Waits for the tasks running on their callers' threads to finish once shut down
+     * @param timeout The maximum time to wait
+     * @param unit The unit of timeout
+     * @return Returns true if the executor terminated, false if the timeout elapsed first
+     * @throws InterruptedException Thrown when interrupted while waiting
+     */
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            long remaining = deadline - System.nanoTime();
+            if(remaining <= 0)
+                return false;
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+}
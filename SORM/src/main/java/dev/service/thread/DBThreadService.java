@@ -1,26 +1,212 @@
 package dev.service.thread;
 
+import dev.database.Query;
 import dev.database.SORMDAO;
+import dev.database.hikaricp.DataSource;
+import dev.model.enumeration.ExecutionStrategy;
+import dev.model.enumeration.OverflowPolicy;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Runs operations of SORM on a pool of threads, or as configured by an {@link ExecutionStrategy}
+ * <p>
+ *     Every operation returns a {@link CompletableFuture}, so results can be composed without blocking, for example
+ *     {@code create(user, ...).thenCompose(created -> getByID(id, ...))}. Futures are completed by the thread which ran
+ *     the operation unless a completion executor is given, in which case callbacks chained without an executor run
+ *     on the completion executor instead of holding up the threads which query the database.
+ * </p>
+ */
 public class DBThreadService implements AutoCloseable{
 
-    private DBThreadService(){}
+    private final DataSource DATA_SOURCE;
+    private final Executor COMPLETION_EXECUTOR;
+    private final ExecutionStrategy EXECUTION_STRATEGY;
+    private final int THREAD_POOL_SIZE;
+    private final ExecutorService EXECUTOR_SERVICE;
+    private final int QUEUE_CAPACITY;
+    private final OverflowPolicy OVERFLOW_POLICY;
+    private final Semaphore QUEUE_PERMITS;
+    private final AdaptiveConcurrencyLimit CONCURRENCY_LIMIT;
+    private final Queue<PendingTask> PENDING = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Boolean> DISPATCHING = new ThreadLocal<>();
+    private final AtomicLong REJECTED = new AtomicLong();
+    private final AtomicLong COMPLETED = new AtomicLong();
+    private volatile GroupCommit groupCommit;
+    private volatile boolean closed;
+
+    /**
+     * The default maximum number of operations waiting to run
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /**
+     * @param dataSource The connection pool shared by every task this service runs
+     * @param strategy How operations are run
+     * @param threads The number of threads of FIXED and FORK_JOIN strategies, and the highest concurrency limit
+     * @param queueCapacity The maximum number of operations waiting to run
+     * @param policy What is done with operations submitted while the queue is full
+     * @param completionExecutor The executor completing futures, null to complete them on the thread which ran the operation
+     */
+    private DBThreadService(DataSource dataSource, ExecutionStrategy strategy, int threads, int queueCapacity, OverflowPolicy policy, Executor completionExecutor){
+        this.DATA_SOURCE = dataSource;
+        this.COMPLETION_EXECUTOR = completionExecutor;
+        this.THREAD_POOL_SIZE = threads;
+        this.QUEUE_CAPACITY = queueCapacity;
+        this.OVERFLOW_POLICY = policy;
+        this.QUEUE_PERMITS = new Semaphore(queueCapacity);
+        this.CONCURRENCY_LIMIT = new AdaptiveConcurrencyLimit(threads);
+
+        //virtual threads are only available from Java 21, found reflectively to keep running on Java 8
+        ExecutorService virtual = strategy == ExecutionStrategy.VIRTUAL ? createVirtualThreadExecutor() : null;
+        this.EXECUTION_STRATEGY = strategy == ExecutionStrategy.VIRTUAL && virtual == null ? ExecutionStrategy.FIXED : strategy;
+        switch (EXECUTION_STRATEGY) {
+            case FORK_JOIN:
+                this.EXECUTOR_SERVICE = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+                break;
+            case VIRTUAL:
+                this.EXECUTOR_SERVICE = virtual;
+                break;
+            case CALLER_RUNS:
+                this.EXECUTOR_SERVICE = new CallerRunsExecutorService();
+                break;
+            default:
+                this.EXECUTOR_SERVICE = Executors.newFixedThreadPool(threads);
+        }
+    }
 
     /**
      * Creates a new instance of DBThreadService
+     * <p>
+     *     Operations run as configured by the "sorm.executionStrategy" and "sorm.threadPoolSize" system properties,
+     *     by default on a fixed pool with as many threads as the connection pool has connections.
+     *     At most {@link #DEFAULT_QUEUE_CAPACITY} operations wait to run, further operations are handled as configured by
+     *     the "sorm.overflowPolicy" system property, by default making their callers wait
+     * </p>
+     * @param dataSource The connection pool shared by every task this service runs, it is not closed by this service
+     * @return Returns DBThreadService
+     * @throws IllegalArgumentException Thrown when parameter dataSource is null
+     */
+    public static DBThreadService createDBThreadService(DataSource dataSource) throws IllegalArgumentException{
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        return new DBThreadService(dataSource, ExecutionStrategy.fromSystemProperty(),
+                ExecutionStrategy.threadsFromSystemProperty(dataSource.getMaximumPoolSize()),
+                DEFAULT_QUEUE_CAPACITY, OverflowPolicy.fromSystemProperty(), null);
+    }
+
+    /**
+     * Creates a new instance of DBThreadService completing its futures on a caller supplied executor
+     * @param dataSource The connection pool shared by every task this service runs, it is not closed by this service
+     * @param completionExecutor The executor completing the futures of this service, it is not shut down by this service
+     * @return Returns DBThreadService
+     * @throws IllegalArgumentException Thrown when parameter dataSource or completionExecutor is null
+     * @see #createDBThreadService(DataSource)
+     */
+    public static DBThreadService createDBThreadService(DataSource dataSource, Executor completionExecutor) throws IllegalArgumentException{
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        if(completionExecutor == null)
+            throw new IllegalArgumentException("Parameter completionExecutor cannot be null");
+        return new DBThreadService(dataSource, ExecutionStrategy.fromSystemProperty(),
+                ExecutionStrategy.threadsFromSystemProperty(dataSource.getMaximumPoolSize()),
+                DEFAULT_QUEUE_CAPACITY, OverflowPolicy.fromSystemProperty(), completionExecutor);
+    }
+
+    /**
+     * Creates a new instance of DBThreadService running operations with the given strategy
+     * @param dataSource The connection pool shared by every task this service runs, it is not closed by this service
+     * @param strategy How operations are run, see {@link ExecutionStrategy}
+     * @param threads The number of threads of FIXED and FORK_JOIN strategies, usually the size of the connection pool
+     * @return Returns DBThreadService
+     * @throws IllegalArgumentException Thrown when parameter dataSource or strategy is null, or threads is less than 1
+     */
+    public static DBThreadService createDBThreadService(DataSource dataSource, ExecutionStrategy strategy, int threads) throws IllegalArgumentException{
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+        if(threads < 1)
+            throw new IllegalArgumentException("Parameter threads must be greater than 0");
+        return new DBThreadService(dataSource, strategy, threads, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.fromSystemProperty(), null);
+    }
+
+    /**
+     * Creates a new instance of DBThreadService running operations with the given strategy, completing its futures on a caller supplied executor
+     * @param dataSource The connection pool shared by every task this service runs, it is not closed by this service
+     * @param strategy How operations are run, see {@link ExecutionStrategy}
+     * @param threads The number of threads of FIXED and FORK_JOIN strategies, usually the size of the connection pool
+     * @param completionExecutor The executor completing the futures of this service, it is not shut down by this service
      * @return Returns DBThreadService
+     * @throws IllegalArgumentException Thrown when parameter dataSource, strategy or completionExecutor is null, or threads is less than 1
      */
-    public static DBThreadService createDBThreadService(){
-        return new DBThreadService();
+    public static DBThreadService createDBThreadService(DataSource dataSource, ExecutionStrategy strategy, int threads, Executor completionExecutor) throws IllegalArgumentException{
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+        if(threads < 1)
+            throw new IllegalArgumentException("Parameter threads must be greater than 0");
+        if(completionExecutor == null)
+            throw new IllegalArgumentException("Parameter completionExecutor cannot be null");
+        return new DBThreadService(dataSource, strategy, threads, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.fromSystemProperty(), completionExecutor);
     }
 
-    private final int THREAD_POOL_SIZE = 4;
-    ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    /**
+     * Creates a new instance of DBThreadService with a bounded queue of operations waiting to run
+     * <p>
+     *     When the queue is full, BLOCK makes callers wait for room while REJECT fails the operation's future with a
+     *     {@link RejectedExecutionException}. Callbacks submitting further operations from the service's own threads
+     *     should be chained with a completion executor when BLOCK is used, so the threads emptying the queue never wait for it
+     * </p>
+     * @param dataSource The connection pool shared by every task this service runs, it is not closed by this service
+     * @param strategy How operations are run, see {@link ExecutionStrategy}
+     * @param threads The number of threads of FIXED and FORK_JOIN strategies, usually the size of the connection pool
+     * @param queueCapacity The maximum number of operations waiting to run
+     * @param policy What is done with operations submitted while the queue is full
+     * @return Returns DBThreadService
+     * @throws IllegalArgumentException Thrown when parameter dataSource, strategy or policy is null, or threads or queueCapacity is less than 1
+     */
+    public static DBThreadService createDBThreadService(DataSource dataSource, ExecutionStrategy strategy, int threads, int queueCapacity, OverflowPolicy policy) throws IllegalArgumentException{
+        if(dataSource == null)
+            throw new IllegalArgumentException("Parameter dataSource cannot be null");
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+        if(threads < 1)
+            throw new IllegalArgumentException("Parameter threads must be greater than 0");
+        if(queueCapacity < 1)
+            throw new IllegalArgumentException("Parameter queueCapacity must be greater than 0");
+        if(policy == null)
+            throw new IllegalArgumentException("Parameter policy cannot be null");
+        return new DBThreadService(dataSource, strategy, threads, queueCapacity, policy, null);
+    }
+
+    /**
+     * @return Returns how this service runs operations, FIXED when VIRTUAL was requested on a runtime without virtual threads
+     */
+    public ExecutionStrategy getExecutionStrategy() {
+        return EXECUTION_STRATEGY;
+    }
+
+    /**
+     * @return Returns the number of threads of FIXED and FORK_JOIN strategies
+     */
+    public int getThreadPoolSize() {
+        return THREAD_POOL_SIZE;
+    }
 
     /**
      * Get object from database by ID, runs in separate thread
@@ -29,11 +215,40 @@ public class DBThreadService implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
-     * @return Returns a future of optional of the object being retrieved from the database
+     * @return Returns a CompletableFuture of optional of the object being retrieved from the database
+     */
+    public <T, I> CompletableFuture<Optional<T>> getByID(I id, Class<T> tClass, Class<I> iClass){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).getById(id);
+        });
+    }
+
+    /**
+     * Get several objects from database by ID in chunks, runs in separate thread
+     * @param ids The ids (primary keys) marked with {@link dev.model.annotation.SORMID} of the objects being retrieved
+     * @param tClass The class of the objects being retrieved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being retrieved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture of the retrieved objects by id, ids without an object in the database are left out
+     */
+    public <T, I> CompletableFuture<Map<I, T>> getByIds(Collection<I> ids, Class<T> tClass, Class<I> iClass){
+        return getByIds(ids, tClass, iClass, SORMDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Get several objects from database by ID in chunks, runs in separate thread
+     * @param ids The ids (primary keys) marked with {@link dev.model.annotation.SORMID} of the objects being retrieved
+     * @param tClass The class of the objects being retrieved
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of ids bound into a single statement
+     * @param <T> The type of objects being retrieved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture of the retrieved objects by id, ids without an object in the database are left out
      */
-    public <T, I> Future<Optional<T>> getByID(I id, Class<T> tClass, Class<I> iClass){
-        return executorService.submit(() -> {
-            return new SORMDAO<T,I>(tClass, iClass).getById(id);
+    public <T, I> CompletableFuture<Map<I, T>> getByIds(Collection<I> ids, Class<T> tClass, Class<I> iClass, int batchSize){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).getByIds(ids, batchSize);
         });
     }
 
@@ -44,11 +259,43 @@ public class DBThreadService implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
-     * @return Returns a Future boolean which is true if the object was created successfully, false if not
+     * @return Returns a CompletableFuture boolean which is true if the object was created successfully, false if not
      */
-    public <T, I> Future<Boolean> create(T object, Class<T> tClass, Class<I> iClass){
-        return executorService.submit(() -> {
-            return new SORMDAO<T,I>(tClass, iClass).create(object);
+    public <T, I> CompletableFuture<Boolean> create(T object, Class<T> tClass, Class<I> iClass){
+        GroupCommit groupCommit = this.groupCommit;
+        if(groupCommit != null && object != null)
+            return groupCommit.add(true, object, tClass, iClass);
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).create(object);
+        });
+    }
+
+    /**
+     * Creates several objects and their tables in the database as batches within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being stored in the database
+     * @param tClass The class of the objects being stored
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being stored
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was created successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> createAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return createAll(objects, tClass, iClass, SORMDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates several objects and their tables in the database as batches within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being stored in the database
+     * @param tClass The class of the objects being stored
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param <T> The type of objects being stored
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was created successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> createAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).createAll(objects, batchSize);
         });
     }
 
@@ -59,11 +306,155 @@ public class DBThreadService implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
-     * @return Returns a Future boolean which is true if the object was updated successfully, false if not
+     * @return Returns a CompletableFuture boolean which is true if the object was updated successfully, false if not
+     */
+    public <T, I> CompletableFuture<Boolean> update(T object, Class<T> tClass, Class<I> iClass){
+        GroupCommit groupCommit = this.groupCommit;
+        if(groupCommit != null && object != null)
+            return groupCommit.add(false, object, tClass, iClass);
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).update(object);
+        });
+    }
+
+    /**
+     * Updates several objects in the database as batches within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being updated in the database
+     * @param tClass The class of the objects being updated
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being updated
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was updated successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> updateAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return updateAll(objects, tClass, iClass, SORMDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Updates several objects in the database as batches within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being updated in the database
+     * @param tClass The class of the objects being updated
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param <T> The type of objects being updated
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was updated successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> updateAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).updateAll(objects, batchSize);
+        });
+    }
+
+    /**
+     * Deletes every row matching a query's conditions with a single statement, without retrieving them, runs in separate thread
+     * @param query The query whose matching rows are deleted, it must not be changed until the future completes
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows deleted
+     * @see Query#delete()
+     */
+    public <T> CompletableFuture<Integer> deleteWhere(Query<T> query){
+        return submit(() -> {
+            return checkQuery(query).delete();
+        });
+    }
+
+    /**
+     * Deletes every row matching a query's conditions in chunks committed one by one, runs in separate thread
+     * @param query The query whose matching rows are deleted, it must not be changed until the future completes
+     * @param chunkSize The maximum number of rows deleted by a single statement
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows deleted
+     * @see Query#delete(int)
+     */
+    public <T> CompletableFuture<Integer> deleteWhere(Query<T> query, int chunkSize){
+        return submit(() -> {
+            return checkQuery(query).delete(chunkSize);
+        });
+    }
+
+    /**
+     * Sets the columns given to {@link Query#set(String, Object)} on every row matching a query's conditions with a single statement,
+     * without retrieving them, runs in separate thread
+     * @param query The query whose matching rows are updated, it must not be changed until the future completes
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows updated
+     * @see Query#update()
+     */
+    public <T> CompletableFuture<Integer> updateWhere(Query<T> query){
+        return submit(() -> {
+            return checkQuery(query).update();
+        });
+    }
+
+    /**
+     * Sets the columns given to {@link Query#set(String, Object)} on every row matching a query's conditions in chunks committed one by one,
+     * runs in separate thread
+     * @param query The query whose matching rows are updated, it must not be changed until the future completes
+     * @param chunkSize The maximum number of rows updated by a single statement
+     * @param <T> The type of the query's objects
+     * @return Returns a CompletableFuture of the number of rows updated
+     * @see Query#update(int)
+     */
+    public <T> CompletableFuture<Integer> updateWhere(Query<T> query, int chunkSize){
+        return submit(() -> {
+            return checkQuery(query).update(chunkSize);
+        });
+    }
+
+    /**
+     * @param query The query of a set-based write
+     * @param <T> The type of the query's objects
+     * @return Returns the query
+     * @throws IllegalArgumentException Thrown when parameter query is null
+     */
+    private static <T> Query<T> checkQuery(Query<T> query) throws IllegalArgumentException {
+        if(query == null)
+            throw new IllegalArgumentException("Parameter query cannot be null");
+        return query;
+    }
+
+    /**
+     * Creates an object in the database, or updates it if one with the same id exists, with a single upsert statement per row, runs in separate thread
+     * @param object The object marked with {@link dev.model.annotation.SORMObject} being saved to the database
+     * @param tClass The class of the object being saved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of object being saved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the object was saved successfully, false if not
      */
-    public <T, I> Future<Boolean> update(T object, Class<T> tClass, Class<I> iClass){
-        return executorService.submit(() -> {
-            return new SORMDAO<T,I>(tClass, iClass).update(object);
+    public <T, I> CompletableFuture<Boolean> save(T object, Class<T> tClass, Class<I> iClass){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).save(object);
+        });
+    }
+
+    /**
+     * Saves several objects in the database as batches of upserts within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being saved to the database
+     * @param tClass The class of the objects being saved
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being saved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was saved successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> saveAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return saveAll(objects, tClass, iClass, SORMDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Saves several objects in the database as batches of upserts within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being saved to the database
+     * @param tClass The class of the objects being saved
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of rows bound into a single batch
+     * @param <T> The type of objects being saved
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if every object was saved successfully, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> saveAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).saveAll(objects, batchSize);
         });
     }
 
@@ -74,24 +465,351 @@ public class DBThreadService implements AutoCloseable{
      * @param iClass The class of the id (primary key) field
      * @param <T> The type of object being retrieved
      * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the object was deleted successfully, false if not
+     */
+    public <T, I> CompletableFuture<Boolean> delete(T object, Class<T> tClass, Class<I> iClass){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).delete(object);
+        });
+    }
+
+    /**
+     * Deletes several objects from the database in chunks within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being deleted from the database
+     * @param tClass The class of the objects being deleted
+     * @param iClass The class of the id (primary key) field
+     * @param <T> The type of objects being deleted
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the objects were deleted, false if none were
      */
-    public <T, I> Future<Boolean> delete(T object, Class<T> tClass, Class<I> iClass){
-        return executorService.submit(() -> {
-            return new SORMDAO<T,I>(tClass, iClass).delete(object);
+    public <T, I> CompletableFuture<Boolean> deleteAll(Collection<T> objects, Class<T> tClass, Class<I> iClass){
+        return deleteAll(objects, tClass, iClass, SORMDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Deletes several objects from the database in chunks within one transaction, runs in separate thread
+     * @param objects The objects marked with {@link dev.model.annotation.SORMObject} being deleted from the database
+     * @param tClass The class of the objects being deleted
+     * @param iClass The class of the id (primary key) field
+     * @param batchSize The maximum number of ids bound into a single statement
+     * @param <T> The type of objects being deleted
+     * @param <I> The type of id
+     * @return Returns a CompletableFuture boolean which is true if the objects were deleted, false if none were
+     */
+    public <T, I> CompletableFuture<Boolean> deleteAll(Collection<T> objects, Class<T> tClass, Class<I> iClass, int batchSize){
+        return submit(() -> {
+            return new SORMDAO<T,I>(tClass, iClass, DATA_SOURCE).deleteAll(objects, batchSize);
         });
     }
 
+    /**
+     * Starts grouping creates and updates, writing the ones arriving close together as one batch per table
+     * <p>
+     *     Writes are held until maxWrites have arrived or windowMillis have passed since the first of them, then the
+     *     group is written by a single operation, each table's objects with one JDBC batch within one transaction.
+     *     Every caller's future is completed with the result of its own write: if a batch fails, its writes are retried
+     *     one by one. Grouping trades up to windowMillis of latency per write for far fewer statements and commits
+     *     when many threads write at once
+     * </p>
+     * @param windowMillis The number of milliseconds writes are held after the first of a group arrived
+     * @param maxWrites The number of writes after which a group is written without waiting for the window to pass
+     * @throws IllegalArgumentException Thrown when windowMillis is negative or maxWrites is less than 1
+     * @throws IllegalStateException Thrown when group commit is already enabled
+     */
+    public synchronized void enableGroupCommit(long windowMillis, int maxWrites) throws IllegalArgumentException, IllegalStateException {
+        if(windowMillis < 0)
+            throw new IllegalArgumentException("Parameter windowMillis cannot be negative");
+        if(maxWrites < 1)
+            throw new IllegalArgumentException("Parameter maxWrites must be greater than 0");
+        if(groupCommit != null)
+            throw new IllegalStateException("Group commit is already enabled");
+        groupCommit = new GroupCommit(TimeUnit.MILLISECONDS.toNanos(windowMillis), maxWrites, writes -> {
+            CompletableFuture<Boolean> flushed;
+            try {
+                flushed = submit(() -> {
+                    GroupCommit.write(writes, DATA_SOURCE, this::complete);
+                    return true;
+                });
+            } catch (RejectedExecutionException e) {
+                flushed = new CompletableFuture<>();
+                flushed.completeExceptionally(e);
+            }
+            //failing writes whose group could not be run
+            flushed.whenComplete((result, e) -> {
+                if(e != null) {
+                    for (GroupCommit.Write write : writes) {
+                        complete(() -> write.getFuture().completeExceptionally(e));
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Stops grouping writes, the writes already held are submitted as a last group
+     */
+    public synchronized void disableGroupCommit() {
+        GroupCommit groupCommit = this.groupCommit;
+        this.groupCommit = null;
+        if(groupCommit != null)
+            groupCommit.close();
+    }
+
+    /**
+     * @return Returns true if creates and updates are being grouped, see {@link #enableGroupCommit(long, int)}
+     */
+    public boolean isGroupCommitEnabled() {
+        return groupCommit != null;
+    }
+
+    /**
+     * @return Returns a snapshot of the queue, concurrency limit and counters of this service
+     */
+    public Statistics getStatistics() {
+        return new Statistics(QUEUE_CAPACITY - QUEUE_PERMITS.availablePermits(), CONCURRENCY_LIMIT.getRunning(),
+                CONCURRENCY_LIMIT.getLimit(), REJECTED.get(), COMPLETED.get());
+    }
+
+    /**
+     * Runs a task on the thread pool once admitted to the queue and allowed by the concurrency limit
+     * <p>
+     *     The future is completed exceptionally with the exception thrown by the task itself,
+     *     which {@link CompletableFuture#get()} wraps in an {@link java.util.concurrent.ExecutionException}.
+     *     A task submitted while the queue is full either waits for room or fails with a {@link RejectedExecutionException},
+     *     as configured by the {@link OverflowPolicy}. A task keeps its place in the queue until the concurrency limit lets it start,
+     *     only then is it handed to the thread pool, so no thread is started or held waiting on the limit.
+     * </p>
+     * @param task The task being run
+     * @param <R> The type of the result of the task
+     * @return Returns a CompletableFuture of the result of the task
+     * @throws RejectedExecutionException Thrown when this service has been closed
+     */
+    private <R> CompletableFuture<R> submit(Callable<R> task) throws RejectedExecutionException {
+        if(closed)
+            throw new RejectedExecutionException("The service has been closed");
+        CompletableFuture<R> future = new CompletableFuture<>();
+        if(!admit()) {
+            REJECTED.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("The queue of " + QUEUE_CAPACITY + " operations is full"));
+            return future;
+        }
+        PENDING.add(new PendingTask(future, () -> run(task, future)));
+        dispatch();
+        return future;
+    }
+
+    /**
+     * Runs a task which was given a place by the concurrency limit, then starts the tasks its place can be given to
+     * @param task The task being run
+     * @param future The future completed with the result of the task
+     * @param <R> The type of the result of the task
+     */
+    private <R> void run(Callable<R> task, CompletableFuture<R> future) {
+        //skipping tasks cancelled before they started
+        if(future.isDone()) {
+            CONCURRENCY_LIMIT.release();
+        } else {
+            long start = System.nanoTime();
+            try {
+                R result = task.call();
+                complete(() -> future.complete(result));
+            } catch (Throwable e) {
+                complete(() -> future.completeExceptionally(e));
+            } finally {
+                CONCURRENCY_LIMIT.release(System.nanoTime() - start);
+                COMPLETED.incrementAndGet();
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Hands queued tasks to the thread pool for as long as the concurrency limit allows more to run, freeing their places in the queue
+     * <p>
+     *     Called whenever a task is queued and whenever one finishes, so a queued task is started as soon as a place is free
+     * </p>
+     */
+    private void dispatch() {
+        //tasks run by CALLER_RUNS finish within execute, the outermost dispatch of the thread keeps starting tasks instead of recursing
+        if(DISPATCHING.get() != null)
+            return;
+        DISPATCHING.set(Boolean.TRUE);
+        try {
+            while (!PENDING.isEmpty() && CONCURRENCY_LIMIT.tryAcquire()) {
+                PendingTask next = PENDING.poll();
+                if(next == null) {
+                    //another thread started the last queued task first
+                    CONCURRENCY_LIMIT.release();
+                    continue;
+                }
+                QUEUE_PERMITS.release();
+                try {
+                    EXECUTOR_SERVICE.execute(next.task);
+                } catch (RejectedExecutionException e) {
+                    CONCURRENCY_LIMIT.release();
+                    complete(() -> next.future.completeExceptionally(e));
+                }
+            }
+        } finally {
+            DISPATCHING.remove();
+        }
+    }
+
+    /**
+     * Takes a place in the queue for a task, waiting for room when the overflow policy is BLOCK
+     * @return Returns true if the task was admitted, false if the queue is full and the policy is REJECT, or the caller was interrupted
+     */
+    private boolean admit() {
+        if(OVERFLOW_POLICY == OverflowPolicy.REJECT)
+            return QUEUE_PERMITS.tryAcquire();
+        try {
+            QUEUE_PERMITS.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Completes a future on the completion executor, or on the current thread if there is none or it rejects the completion
+     * @param completion Completes the future
+     */
+    private void complete(Runnable completion) {
+        if(COMPLETION_EXECUTOR == null) {
+            completion.run();
+            return;
+        }
+        try {
+            COMPLETION_EXECUTOR.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, see Executors.newVirtualThreadPerTaskExecutor()
+     * @return Returns the executor, or null if the runtime has no virtual threads
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     /**
      * Autocloseable implementation
      * <p>
-     *     Gives currently running threads 3 seconds to finish execution before forcibly closing them.
+     *     Writes held for group commit are submitted first, then queued and currently running operations are given
+     *     3 seconds to finish execution before forcibly closing them. Queued operations which never started are failed
+     *     with a {@link RejectedExecutionException}.
      * </p>
      * @throws Exception Thrown when forcibly closing/interrupting threads
      */
     @Override
     public void close() throws Exception {
-        executorService.shutdown();
-        boolean closed = executorService.awaitTermination(3, TimeUnit.SECONDS);
-        if(!closed) {executorService.shutdownNow();}
+        disableGroupCommit();
+        closed = true;
+
+        //queued tasks are only handed to the pool as running ones finish, so they are given the time to start first
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!PENDING.isEmpty() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        EXECUTOR_SERVICE.shutdown();
+        boolean terminated = EXECUTOR_SERVICE.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if(!terminated) {EXECUTOR_SERVICE.shutdownNow();}
+
+        //failing the tasks which never started
+        PendingTask pending;
+        while ((pending = PENDING.poll()) != null) {
+            QUEUE_PERMITS.release();
+            PendingTask failed = pending;
+            complete(() -> failed.future.completeExceptionally(new RejectedExecutionException("The service was closed before the operation started")));
+        }
+    }
+
+    /**
+     * A task admitted to the queue, waiting for the concurrency limit to let it start
+     */
+    private static final class PendingTask {
+        private final CompletableFuture<?> future;
+        private final Runnable task;
+
+        /**
+         * @param future The future of the task, failed if the task can not be started
+         * @param task Runs the task and completes its future
+         */
+        private PendingTask(CompletableFuture<?> future, Runnable task) {
+            this.future = future;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Snapshot of the statistics of a DBThreadService
+     */
+    public static final class Statistics {
+        private final int queued;
+        private final int running;
+        private final int concurrencyLimit;
+        private final long rejected;
+        private final long completed;
+
+        private Statistics(int queued, int running, int concurrencyLimit, long rejected, long completed) {
+            this.queued = queued;
+            this.running = running;
+            this.concurrencyLimit = concurrencyLimit;
+            this.rejected = rejected;
+            this.completed = completed;
+        }
+
+        /**
+         * @return Returns the number of operations waiting to run, including those waiting for the concurrency limit
+         */
+        public int getQueued() {
+            return queued;
+        }
+
+        /**
+         * @return Returns the number of operations running against the database
+         */
+        public int getRunning() {
+            return running;
+        }
+
+        /**
+         * @return Returns the number of operations currently allowed to run at once, lowered while the database is slowed
+         */
+        public int getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        /**
+         * @return Returns the number of operations rejected because the queue was full
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * @return Returns the number of operations which finished running, successfully or not
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "queued=" + queued +
+                    ", running=" + running +
+                    ", concurrencyLimit=" + concurrencyLimit +
+                    ", rejected=" + rejected +
+                    ", completed=" + completed +
+                    '}';
+        }
     }
 }
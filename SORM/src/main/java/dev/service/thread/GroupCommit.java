@@ -0,0 +1,221 @@
+package dev.service.thread;
+
+import dev.database.SORMDAO;
+import dev.database.hikaricp.DataSource;
+import dev.utility.reflection.POJOPropertyGetSet;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects creates and updates arriving close together, writing them as one batch per table
+ * <p>
+ *     Writes are held until maxWrites have arrived or window has passed since the first of them, then handed to the
+ *     flusher as one group. Each table's creates and updates are written with {@link SORMDAO#createAll(Collection)}
+ *     or {@link SORMDAO#updateAll(Collection)}, a single JDBC batch within one transaction. When a batch fails its writes
+ *     are retried one by one, so that each caller's future receives the result of its own write.
+ * </p>
+ */
+final class GroupCommit implements AutoCloseable {
+
+    private final long WINDOW_NANOS;
+    private final int MAX_WRITES;
+    private final Consumer<List<Write>> FLUSHER;
+    private final ScheduledExecutorService TIMER;
+    private List<Write> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * @param windowNanos The number of nanoseconds writes are held after the first of a group arrived
+     * @param maxWrites The number of writes after which a group is flushed without waiting for the window to pass
+     * @param flusher Writes a group, usually by calling {@link #write(List, DataSource, Consumer)} on another thread
+     */
+    GroupCommit(long windowNanos, int maxWrites, Consumer<List<Write>> flusher) {
+        this.WINDOW_NANOS = windowNanos;
+        this.MAX_WRITES = maxWrites;
+        this.FLUSHER = flusher;
+        this.TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sorm-group-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a write to the current group
+     * @param create True if the object is being created, false if it is being updated
+     * @param object The object being written
+     * @param tClass The class of the object
+     * @param iClass The class of the object's id
+     * @return Returns a CompletableFuture boolean which is true if the object was written successfully, false if not
+     */
+    CompletableFuture<Boolean> add(boolean create, Object object, Class<?> tClass, Class<?> iClass) {
+        Write write = new Write(create, object, tClass, iClass);
+        List<Write> full = null;
+        synchronized (this) {
+            pending.add(write);
+            if(pending.size() >= MAX_WRITES) {
+                full = drain();
+            } else if(pending.size() == 1) {
+                scheduled = TIMER.schedule(this::flush, WINDOW_NANOS, TimeUnit.NANOSECONDS);
+            }
+        }
+        if(full != null)
+            FLUSHER.accept(full);
+        return write.future;
+    }
+
+    /**
+     * Hands the current group to the flusher, if it holds any write
+     */
+    void flush() {
+        List<Write> writes;
+        synchronized (this) {
+            writes = drain();
+        }
+        if(!writes.isEmpty())
+            FLUSHER.accept(writes);
+    }
+
+    /**
+     * Takes the current group, starting a new one
+     * @return Returns the writes of the current group
+     */
+    private List<Write> drain() {
+        if(scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        List<Write> writes = pending;
+        pending = new ArrayList<>();
+        return writes;
+    }
+
+    /**
+     * Writes a group, completing the future of every write
+     * <p>
+     *     An object written twice in the group is written in a second batch after the first,
+     *     so the writes of each object are applied in the order they arrived
+     * </p>
+     * @param writes The writes of the group
+     * @param dataSource The connection pool written to
+     * @param completer Runs the completion of each write's future
+     */
+    static void write(List<Write> writes, DataSource dataSource, Consumer<Runnable> completer) {
+        for (List<Write> batch : batches(writes)) {
+            Write first = batch.get(0);
+            SORMDAO<Object, Object> dao = dao(first, dataSource);
+            List<Object> objects = new ArrayList<>();
+            for (Write write : batch) {
+                objects.add(write.object);
+            }
+
+            boolean written;
+            try {
+                written = first.create ? dao.createAll(objects) : dao.updateAll(objects);
+            } catch (Exception e) {
+                written = false;
+            }
+            if(written) {
+                for (Write write : batch) {
+                    completer.accept(() -> write.future.complete(true));
+                }
+                continue;
+            }
+
+            //retrying one by one, telling each caller the result of its own write
+            for (Write write : batch) {
+                try {
+                    boolean result = write.create ? dao.create(write.object) : dao.update(write.object);
+                    completer.accept(() -> write.future.complete(result));
+                } catch (Throwable e) {
+                    completer.accept(() -> write.future.completeExceptionally(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits a group into batches of the same table and kind of write, each holding an object at most once
+     * @param writes The writes of the group, in arrival order
+     * @return Returns the batches in the order they are written
+     */
+    private static List<List<Write>> batches(List<Write> writes) {
+        Map<List<Object>, List<Write>> batches = new LinkedHashMap<>();
+        Map<List<Object>, Integer> rounds = new HashMap<>();
+        for (Write write : writes) {
+            //an object repeated within the group goes to the next round of its table
+            Object id;
+            try {
+                id = POJOPropertyGetSet.getID(write.object).getValue();
+            } catch (Exception e) {
+                id = write;
+            }
+            List<Object> object = Arrays.asList(write.tClass, id);
+            int round = rounds.merge(object, 1, Integer::sum);
+            batches.computeIfAbsent(Arrays.asList(round, !write.create, write.tClass), k -> new ArrayList<>()).add(write);
+        }
+
+        List<List<Object>> keys = new ArrayList<>(batches.keySet());
+        keys.sort(Comparator.comparing(k -> (Integer) k.get(0)));
+        List<List<Write>> ordered = new ArrayList<>();
+        for (List<Object> key : keys) {
+            ordered.add(batches.get(key));
+        }
+        return ordered;
+    }
+
+    /**
+     * @param write A write of a batch
+     * @param dataSource The connection pool written to
+     * @return Returns a SORMDAO of the write's class
+     */
+    @SuppressWarnings("unchecked")
+    private static SORMDAO<Object, Object> dao(Write write, DataSource dataSource) {
+        return new SORMDAO<>((Class<Object>) write.tClass, (Class<Object>) write.iClass, dataSource);
+    }
+
+    /**
+     * Hands the current group to the flusher and stops the timer
+     */
+    @Override
+    public void close() {
+        flush();
+        TIMER.shutdownNow();
+    }
+
+    /**
+     * A create or update waiting for its group to be written
+     */
+    static final class Write {
+        private final boolean create;
+        private final Object object;
+        private final Class<?> tClass;
+        private final Class<?> iClass;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        /**
+         * @param create True if the object is being created, false if it is being updated
+         * @param object The object being written
+         * @param tClass The class of the object
+         * @param iClass The class of the object's id
+         */
+        private Write(boolean create, Object object, Class<?> tClass, Class<?> iClass) {
+            this.create = create;
+            this.object = object;
+            this.tClass = tClass;
+            this.iClass = iClass;
+        }
+
+        /**
+         * @return Returns the future completed with the result of the write
+         */
+        CompletableFuture<Boolean> getFuture() {
+            return future;
+        }
+    }
+}
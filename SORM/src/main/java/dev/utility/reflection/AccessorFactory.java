@@ -0,0 +1,287 @@
+package dev.utility.reflection;
+
+import dev.model.enumeration.AccessStrategy;
+import dev.model.exception.SORMAccessException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Creates {@link PropertyAccessor}s and {@link Instantiator}s for entity properties and constructors
+ * <p>
+ *     With {@link AccessStrategy#METHOD_HANDLE} a getter, a boxed setter and, for primitive properties,
+ *     an exactly typed setter handle are created once per property so they can be invoked without
+ *     reflective access checks or boxing. Properties or constructors that cannot be unreflected
+ *     into a handle fall back to plain reflection.
+ * </p>
+ */
+public abstract class AccessorFactory {
+
+    private AccessorFactory(){}
+
+    /**
+     * Creates an accessor for a property, making the property accessible
+     * @param field The property to be accessed
+     * @param strategy How the property will be accessed
+     * @return Returns a new PropertyAccessor
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    public static PropertyAccessor createPropertyAccessor(Field field, AccessStrategy strategy) throws IllegalArgumentException {
+        if(field == null)
+            throw new IllegalArgumentException("Parameter field cannot be null");
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+
+        field.setAccessible(true);
+        if(strategy == AccessStrategy.METHOD_HANDLE) {
+            try {
+                return new MethodHandlePropertyAccessor(field);
+            } catch (IllegalAccessException ignored) {
+                //final properties cannot be unreflected into a setter, reflection can still write them
+            }
+        }
+        return new ReflectionPropertyAccessor(field);
+    }
+
+    /**
+     * Creates an instantiator for a no argument constructor, making the constructor accessible
+     * @param constructor The constructor to be invoked
+     * @param strategy How the constructor will be invoked
+     * @return Returns a new Instantiator
+     * @throws IllegalArgumentException Thrown when either parameter is null
+     */
+    public static Instantiator createInstantiator(Constructor<?> constructor, AccessStrategy strategy) throws IllegalArgumentException {
+        if(constructor == null)
+            throw new IllegalArgumentException("Parameter constructor cannot be null");
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+
+        constructor.setAccessible(true);
+        if(strategy == AccessStrategy.METHOD_HANDLE) {
+            try {
+                final MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                        .asType(MethodType.methodType(Object.class));
+                return () -> {
+                    try {
+                        return (Object) handle.invokeExact();
+                    } catch (Error e) {
+                        throw e;
+                    } catch (Throwable t) {
+                        throw new InvocationTargetException(t);
+                    }
+                };
+            } catch (IllegalAccessException | WrongMethodTypeException ignored) {
+                //constructors of inner classes take their enclosing instance, leave reporting that to reflection
+            }
+        }
+        return () -> constructor.newInstance();
+    }
+
+    /**
+     * Wraps a failure thrown by a handle or by reflection
+     * @param field The property being accessed
+     * @param t The failure
+     * @return Returns a SORMAccessException describing the failure
+     */
+    private static SORMAccessException accessFailure(Field field, Throwable t) {
+        if(t instanceof Error)
+            throw (Error) t;
+        return new SORMAccessException("Property " + field.getDeclaringClass().getSimpleName() + "." + field.getName() +
+                " could not be accessed, ensure annotated field is accessible and of a supported datatype: " + t);
+    }
+
+    /**
+     * PropertyAccessor backed by {@link MethodHandle}s
+     */
+    private static final class MethodHandlePropertyAccessor implements PropertyAccessor {
+        private final Field field;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final MethodHandle primitiveSetter;
+
+        private MethodHandlePropertyAccessor(Field field) throws IllegalAccessException {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle unreflectedSetter = lookup.unreflectSetter(field);
+            this.field = field;
+            this.type = field.getType();
+            this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = unreflectedSetter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.primitiveSetter = type.isPrimitive() ?
+                    unreflectedSetter.asType(MethodType.methodType(void.class, Object.class, type)) : null;
+        }
+
+        @Override
+        public Object get(Object entity) throws SORMAccessException {
+            try {
+                return (Object) getter.invokeExact(entity);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void set(Object entity, Object value) throws SORMAccessException {
+            try {
+                setter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setBoolean(Object entity, boolean value) throws SORMAccessException {
+            if(type != boolean.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setByte(Object entity, byte value) throws SORMAccessException {
+            if(type != byte.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setShort(Object entity, short value) throws SORMAccessException {
+            if(type != short.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setChar(Object entity, char value) throws SORMAccessException {
+            if(type != char.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setInt(Object entity, int value) throws SORMAccessException {
+            if(type != int.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setLong(Object entity, long value) throws SORMAccessException {
+            if(type != long.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setFloat(Object entity, float value) throws SORMAccessException {
+            if(type != float.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+
+        @Override
+        public void setDouble(Object entity, double value) throws SORMAccessException {
+            if(type != double.class) {set(entity, value); return;}
+            try {
+                primitiveSetter.invokeExact(entity, value);
+            } catch (Throwable t) {throw accessFailure(field, t);}
+        }
+    }
+
+    /**
+     * PropertyAccessor backed by {@link Field}, used for comparison and as a fallback
+     */
+    private static final class ReflectionPropertyAccessor implements PropertyAccessor {
+        private final Field field;
+        private final boolean primitive;
+
+        private ReflectionPropertyAccessor(Field field) {
+            this.field = field;
+            this.primitive = field.getType().isPrimitive();
+        }
+
+        @Override
+        public Object get(Object entity) throws SORMAccessException {
+            try {
+                return field.get(entity);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void set(Object entity, Object value) throws SORMAccessException {
+            try {
+                field.set(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setBoolean(Object entity, boolean value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setBoolean(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setByte(Object entity, byte value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setByte(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setShort(Object entity, short value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setShort(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setChar(Object entity, char value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setChar(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setInt(Object entity, int value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setInt(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setLong(Object entity, long value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setLong(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setFloat(Object entity, float value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setFloat(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+
+        @Override
+        public void setDouble(Object entity, double value) throws SORMAccessException {
+            if(!primitive) {set(entity, value); return;}
+            try {
+                field.setDouble(entity, value);
+            } catch (IllegalAccessException | RuntimeException e) {throw accessFailure(field, e);}
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.utility.reflection;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Creates new instances of an entity using its {@link dev.model.annotation.SORMNoArgConstructor}
+ * <p>
+ *     Created by {@link AccessorFactory}.
+ * </p>
+ */
+public interface Instantiator {
+
+    /**
+     * @return Returns a new instance of the entity
+     * @throws InvocationTargetException Thrown when the constructor threw an exception
+     * @throws InstantiationException Thrown when the object could not be successfully instantiated
+     * @throws IllegalAccessException Thrown when the constructor could not be accessed
+     */
+    Object newInstance() throws InvocationTargetException, InstantiationException, IllegalAccessException;
+}
@@ -1,20 +1,28 @@
 package dev.utility.reflection;
 
-import dev.database.SORMDAO;
 import dev.model.annotation.*;
+import dev.model.database.ColumnMetadata;
 import dev.model.database.DataField;
 import dev.model.database.DataReference;
+import dev.model.database.EntityMetadata;
+import dev.model.database.LazyReference;
+import dev.model.enumeration.AccessStrategy;
+import dev.model.enumeration.SQLDataType;
 import dev.model.exception.NoSORMIDFoundException;
 import dev.model.exception.NoSORMObjectFoundException;
 import dev.model.exception.SORMAccessException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The PropertyGatherer does the gathering and collecting of properties related to objects using SORM annotations
@@ -24,9 +32,136 @@ import java.util.Optional;
  *      {@link SORMField} to mark property as a field to be stored in the database
  *      {@link SORMReference} to mark an object as a foreign key (has-a relationship)
  *  </p>
+ *  <p>
+ *      Annotations are only scanned once per class, the resulting {@link EntityMetadata} is cached and shared by all threads.
+ *      Properties and constructors are accessed as configured by {@link #setAccessStrategy(AccessStrategy)}.
+ *  </p>
  */
 public class POJOPropertyGetSet {
 
+    private static final Map<Class<?>, EntityMetadata> ENTITY_METADATA = new ConcurrentHashMap<>();
+    private static volatile AccessStrategy accessStrategy = AccessStrategy.fromSystemProperty();
+
+    /**
+     * @return Returns the strategy used to access properties and constructors of entities
+     */
+    public static AccessStrategy getAccessStrategy () {
+        return accessStrategy;
+    }
+
+    /**
+     * Changes how properties and constructors of entities are accessed
+     * <p>
+     *     Defaults to the "sorm.accessStrategy" system property, or {@link AccessStrategy#METHOD_HANDLE}.
+     *     Cached metadata is discarded so it is rebuilt with accessors of the new strategy.
+     * </p>
+     * @param strategy The strategy to use
+     * @throws IllegalArgumentException Thrown when parameter strategy is null
+     */
+    public static void setAccessStrategy (AccessStrategy strategy) throws IllegalArgumentException {
+        if(strategy == null)
+            throw new IllegalArgumentException("Parameter strategy cannot be null");
+        accessStrategy = strategy;
+        ENTITY_METADATA.clear();
+    }
+
+    /**
+     * Returns the metadata of a class marked with {@link SORMObject}, scanning the class only the first time it is requested
+     * @param clazz The class who's metadata will be returned
+     * @return Returns the cached EntityMetadata of the class
+     * @throws NoSORMObjectFoundException Thrown when the class does not have a {@link SORMObject} annotation on its definition
+     */
+    public static EntityMetadata getEntityMetadata (Class<?> clazz) throws NoSORMObjectFoundException {
+        EntityMetadata metadata = ENTITY_METADATA.get(clazz);
+        if(metadata != null)
+            return metadata;
+
+        //two threads may race to build the same metadata, both results are equal so the first stored wins
+        metadata = buildEntityMetadata(clazz);
+        EntityMetadata existing = ENTITY_METADATA.putIfAbsent(clazz, metadata);
+        return existing == null ? metadata : existing;
+    }
+
+    /**
+     * Scans a class's annotations to build its metadata
+     * @param clazz The class being scanned
+     * @return Returns a new EntityMetadata
+     * @throws NoSORMObjectFoundException Thrown when the class does not have a {@link SORMObject} annotation on its definition
+     */
+    private static EntityMetadata buildEntityMetadata (Class<?> clazz) throws NoSORMObjectFoundException {
+        if(!clazz.isAnnotationPresent(SORMObject.class))
+            throw new NoSORMObjectFoundException("No @SORMObject annotation found, ensure classes to be stored are marked with @SORMObject");
+
+        AccessStrategy strategy = accessStrategy;
+        ColumnMetadata idColumn = null;
+        List<ColumnMetadata> fieldColumns = new ArrayList<>();
+        List<Field> referenceFields = new ArrayList<>();
+        for (Field f : clazz.getDeclaredFields()) {
+            if (idColumn == null && f.isAnnotationPresent(SORMID.class))
+                idColumn = createColumnMetadata(f, SQLDataType.INVALID.convertTypeToSQLDataType(f.getType()), strategy);
+            else if (f.isAnnotationPresent(SORMField.class))
+                fieldColumns.add(createColumnMetadata(f, SQLDataType.INVALID.convertTypeToSQLDataType(f.getType()), strategy));
+            else if (f.isAnnotationPresent(SORMReference.class))
+                referenceFields.add(f);
+        }
+
+        //reference columns store the id of the referenced object, so they take the referenced id's data type
+        List<ColumnMetadata> referenceColumns = new ArrayList<>();
+        for (Field f : referenceFields) {
+            Class<?> referencedClass = getReferencedClass(f);
+            SQLDataType referenceType = SQLDataType.INVALID;
+            for (Field referencedField : referencedClass.getDeclaredFields()) {
+                if (referencedField.isAnnotationPresent(SORMID.class)) {
+                    referenceType = SQLDataType.INVALID.convertTypeToSQLDataType(referencedField.getType());
+                    break;
+                }
+            }
+            referenceColumns.add(ColumnMetadata.createReferenceColumnMetadata(f, referenceType,
+                    AccessorFactory.createPropertyAccessor(f, strategy), referencedClass));
+        }
+
+        Constructor<?> noArg = null;
+        for (Constructor<?> c : clazz.getDeclaredConstructors()) {
+            if (c.isAnnotationPresent(SORMNoArgConstructor.class)) {
+                noArg = c;
+                break;
+            }
+        }
+
+        return EntityMetadata.createEntityMetadata(clazz, idColumn, fieldColumns, referenceColumns, noArg,
+                noArg == null ? null : AccessorFactory.createInstantiator(noArg, strategy));
+    }
+
+    /**
+     * Gets the class referenced by a property marked with {@link SORMReference}
+     * @param field The reference property
+     * @return Returns the type argument of a {@link LazyReference} property, otherwise the property's type
+     * @throws NoSORMObjectFoundException Thrown when a {@link LazyReference} property does not declare the referenced class
+     */
+    private static Class<?> getReferencedClass (Field field) throws NoSORMObjectFoundException {
+        if(field.getType() != LazyReference.class)
+            return field.getType();
+
+        Type type = field.getGenericType();
+        if(type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if(argument instanceof Class)
+                return (Class<?>) argument;
+        }
+        throw new NoSORMObjectFoundException("LazyReference " + field.getName() + " must declare the class it references, such as LazyReference<Potato>");
+    }
+
+    /**
+     * Creates the metadata of a single column along with its accessor
+     * @param field The property the column is mapped to
+     * @param dataType The SQL data type of the column
+     * @param strategy How the property will be accessed
+     * @return Returns a new ColumnMetadata
+     */
+    private static ColumnMetadata createColumnMetadata (Field field, SQLDataType dataType, AccessStrategy strategy) {
+        return ColumnMetadata.createColumnMetadata(field, dataType, AccessorFactory.createPropertyAccessor(field, strategy));
+    }
+
     /**
      * Gathers list of DataFields of object marked by {@link SORMField}
      * @param o The object who's DataFields marked with {@link SORMField} will be gathered
@@ -35,15 +170,11 @@ public class POJOPropertyGetSet {
      * @throws NoSORMObjectFoundException Thrown when the Object parameter does not have a {@link SORMObject} annotation on its class definition
      */
     public static List<DataField<Object>> getFields (Object o) throws SORMAccessException, NoSORMObjectFoundException {
-        if(!o.getClass().isAnnotationPresent(SORMObject.class))
-            throw new NoSORMObjectFoundException("No @SORMObject annotation found, ensure classes to be stored are marked with @SORMObject");
-        List<DataField<Object>> dataFields = new ArrayList<>();
+        EntityMetadata metadata = getEntityMetadata(o.getClass());
+        List<DataField<Object>> dataFields = new ArrayList<>(metadata.getFieldColumns().size());
         try {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                f.setAccessible(true);
-                if (f.isAnnotationPresent(SORMField.class)) {
-                    dataFields.add(DataField.createDataField(f.get(o), f.getName()));
-                }
+            for (ColumnMetadata column : metadata.getFieldColumns()) {
+                dataFields.add(DataField.createDataField(column.getAccessor().get(o), column.getColumnName()));
             }
         } catch (IllegalAccessException e){throw new SORMAccessException("One or more fields in " + o.getClass().getSimpleName() + " could not be read, ensure annotated field is accessible and of a supported datatype");}
         return dataFields;
@@ -58,17 +189,10 @@ public class POJOPropertyGetSet {
      * @throws SORMAccessException Thrown when an ID field could not be accessed
      */
     public static DataField<Object> getID (Object o) throws NoSORMIDFoundException, NoSORMObjectFoundException, SORMAccessException {
-        if(!o.getClass().isAnnotationPresent(SORMObject.class))
-            throw new NoSORMObjectFoundException("No @SORMObject annotation found, ensure classes to be stored are marked with @SORMObject");
+        ColumnMetadata idColumn = getIDColumn(getEntityMetadata(o.getClass()));
         try {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                f.setAccessible(true);
-                if (f.isAnnotationPresent(SORMID.class)) {
-                    return DataField.createDataField(f.get(o), f.getName());
-                }
-            }
+            return DataField.createDataField(idColumn.getAccessor().get(o), idColumn.getColumnName());
         }catch (IllegalAccessException ignored) {throw new SORMAccessException("One or more fields in " + o.getClass().getSimpleName() + " could not be read, ensure annotated field is accessible and of a supported datatype");}
-        throw new NoSORMIDFoundException("No appropriate @SORMID annotation was found, ensure this data field is present and accessible, and that is is of a supported datatype");
     }
 
     /**
@@ -79,223 +203,258 @@ public class POJOPropertyGetSet {
      * @throws NoSORMObjectFoundException Thrown when the Object parameter does not have a {@link SORMObject} annotation on its class definition
      */
     public static String getIDNameByClass (Class clazz) throws NoSORMObjectFoundException {
-        if(!clazz.isAnnotationPresent(SORMObject.class))
-            throw new NoSORMObjectFoundException("No @SORMObject annotation found, ensure classes to be stored are marked with @SORMObject");
-        for (Field f : clazz.getDeclaredFields()) {
-            f.setAccessible(true);
-            if (f.isAnnotationPresent(SORMID.class))
-                return f.getName();
-        }
-        throw new NoSORMIDFoundException("No appropriate @SORMID annotation was found, ensure this data field is present and accessible, and that is is of a supported datatype");
+        return getIDColumn(getEntityMetadata(clazz)).getColumnName();
+    }
+
+    /**
+     * Gets the id column of an entity, failing if it has none
+     * @param metadata The metadata of the entity
+     * @return Returns the column marked with {@link SORMID}
+     * @throws NoSORMIDFoundException Thrown when the entity has no {@link SORMID} column
+     */
+    public static ColumnMetadata getIDColumn (EntityMetadata metadata) throws NoSORMIDFoundException {
+        Optional<ColumnMetadata> idColumn = metadata.getIdColumn();
+        if(!idColumn.isPresent())
+            throw new NoSORMIDFoundException("No appropriate @SORMID annotation was found, ensure this data field is present and accessible, and that is is of a supported datatype");
+        return idColumn.get();
     }
 
     /**
      * Gathers reference objects (foreign keys) marked with {@link SORMReference}
      * @param o The object who's properties marked with {@link SORMReference} will be gathered
-     * @return Returns a list of objects marked with {@link SORMReference}, returns an empty list if no appropriate annotations were found
+     * @return Returns a list of objects marked with {@link SORMReference}, returns an empty list if no appropriate annotations were found.
+     * A {@link LazyReference} is replaced by its object once loaded, an unloaded one is returned as is, see {@link DataReference#isLoaded()}
      * @throws NoSORMObjectFoundException Thrown when the Object parameter does not have a {@link SORMObject} annotation on its class definition
      * @throws SORMAccessException Thrown when a field could not be accessed
+     * @throws IllegalArgumentException Thrown when a {@link LazyReference} property is null
      */
-    public static List<DataReference<Object>> getReference (Object o) throws NoSORMObjectFoundException, SORMAccessException {
-        if(!o.getClass().isAnnotationPresent(SORMObject.class))
-            throw new NoSORMObjectFoundException("No @SORMObject annotation found, ensure classes to be stored are marked with @SORMObject");
-        List<DataReference<Object>> references = new ArrayList<>();
+    public static List<DataReference<Object>> getReference (Object o) throws NoSORMObjectFoundException, SORMAccessException, IllegalArgumentException {
+        EntityMetadata metadata = getEntityMetadata(o.getClass());
+        List<DataReference<Object>> references = new ArrayList<>(metadata.getReferenceColumns().size());
         try {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                f.setAccessible(true);
-                if (f.isAnnotationPresent(SORMReference.class)) {
-                    references.add(DataReference.createDataReference(f.get(o),
-                            f.getName(),
-                            getID(f.get(o))));
+            for (ColumnMetadata column : metadata.getReferenceColumns()) {
+                Object reference = column.getAccessor().get(o);
+
+                //an unloaded lazy reference only knows the referenced id, it is kept as the reference itself
+                if(column.isLazy()) {
+                    LazyReference<?> lazy = (LazyReference<?>) reference;
+                    if(lazy == null)
+                        throw new IllegalArgumentException("LazyReference " + column.getColumnName() + " cannot be null");
+                    references.add(DataReference.createDataReference(lazy.isLoaded() && lazy.get() != null ? lazy.get() : lazy,
+                            column.getColumnName(),
+                            DataField.createDataField(lazy.getId(), getIDColumn(getEntityMetadata(column.getReferencedClass())).getColumnName())));
+                    continue;
                 }
+                references.add(DataReference.createDataReference(reference,
+                        column.getColumnName(),
+                        getID(reference)));
             }
         }catch (IllegalAccessException ignored) {throw new SORMAccessException("One or more fields in " + o.getClass().getSimpleName() + " could not be read, ensure annotated field is accessible and of a supported datatype");}
         return references;
     }
 
     /**
-     * Constructs an object of provided type using provided ResultSet
-     * @param id The id of the object being created
-     * @param resultSet The ResultSet of object information
+     * Constructs an object of provided type from the current row of a ResultSet, without its references
+     * <p>
+     *     The row's columns must be in table order, id first, as selected by {@link dev.database.StatementTemplates}
+     * </p>
+     * @param resultSet The ResultSet positioned on the row being read
      * @param clazz The class of the object being created
      * @param <T> The type of the object being created
-     * @param <I> The type of the object's ID
-     * @return Returns a created object with fields equal to those in the ResultSet
+     * @return Returns a created object with id and fields equal to those in the row, or an empty optional if the class has no {@link dev.model.annotation.SORMNoArgConstructor}
      * @throws SQLException Thrown when unable to read ResultSet
-     * @throws NoSuchFieldException Thrown if field in object being created does not exist
      * @throws IllegalAccessException Thrown when this could not access a field/property of an object
      * @throws InvocationTargetException Thrown when failed to invoke constructor
      * @throws InstantiationException Thrown when the object could not be successfully instantiated
      */
-    public static <T, I> Optional<T> buildObject (I id, ResultSet resultSet, Class<T> clazz) throws SQLException, NoSuchFieldException, IllegalAccessException, InvocationTargetException, InstantiationException {
+    public static <T> Optional<T> buildRow (ResultSet resultSet, Class<T> clazz) throws SQLException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        return buildRow(resultSet, clazz, 0);
+    }
 
-        resultSet.next();
+    /**
+     * Constructs an object of provided type from columns of the current row of a ResultSet, without its references
+     * <p>
+     *     The object's columns must be in table order, id first, starting after offset columns of the row.
+     *     Used when the row holds the columns of several joined tables
+     * </p>
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param clazz The class of the object being created
+     * @param offset The number of columns of the row preceding the object's id column
+     * @param <T> The type of the object being created
+     * @return Returns a created object with id and fields equal to those in the row, or an empty optional if the class has no {@link dev.model.annotation.SORMNoArgConstructor}
+     * @throws SQLException Thrown when unable to read ResultSet
+     * @throws IllegalAccessException Thrown when this could not access a field/property of an object
+     * @throws InvocationTargetException Thrown when failed to invoke constructor
+     * @throws InstantiationException Thrown when the object could not be successfully instantiated
+     */
+    public static <T> Optional<T> buildRow (ResultSet resultSet, Class<T> clazz, int offset) throws SQLException, IllegalAccessException, InvocationTargetException, InstantiationException {
 
-        String idFieldName = POJOPropertyGetSet.getIDNameByClass(clazz);
-        DataField<Object> idDataField = DataField.createDataField(id, idFieldName);
+        EntityMetadata metadata = getEntityMetadata(clazz);
+        Optional<Instantiator> instantiator = metadata.getInstantiator();
+        if(!instantiator.isPresent())
+            return Optional.empty();
 
         //Creating Object
-        Constructor[] constructors = clazz.getDeclaredConstructors();
-        Constructor noArg;
-        for (Constructor c:constructors) {
-            if (c.isAnnotationPresent(SORMNoArgConstructor.class)) {
+        T object = clazz.cast(instantiator.get().newInstance());
 
-                c.setAccessible(true);
-                T object = clazz.cast(c.newInstance());
-
-                idDataField = POJOPropertyGetSet.getID(object);
-                List<DataField<Object>> fields = POJOPropertyGetSet.getFields(object);
-                List<DataReference<Object>> references = POJOPropertyGetSet.getReference(object);
-
-                Field idField = clazz.getDeclaredField(idDataField.getValueFieldName());
-                idField.setAccessible(true);
-
-                //building id field
-                switch (idDataField.getDataType()) {
-                    case CHAR:
-                        idField.setChar(object, resultSet.getString(1).charAt(0));
-                        break;
-                    case TEXT:
-                        idField.set(object, resultSet.getString(1));
-                        break;
-                    case BIT:
-                        idField.setBoolean(object, resultSet.getBoolean(1));
-                        break;
-                    case NUMERIC:
-                        idField.set(object, resultSet.getBigDecimal(1));
-                        break;
-                    case TINYINT:
-                        idField.setByte(object, Byte.valueOf(resultSet.getByte(1)));
-                        break;
-                    case SMALLINT:
-                        idField.setShort(object, resultSet.getShort(1));
-                        break;
-                    case INTEGER:
-                        idField.setInt(object, resultSet.getInt(1));
-                        break;
-                    case BIGINT:
-                        idField.setLong(object, resultSet.getLong(1));
-                        break;
-                    case REAL:
-                        idField.setFloat(object, resultSet.getFloat(1));
-                    case DOUBLE:
-                        idField.setDouble(object, resultSet.getDouble(1));
-                        break;
-                    case DATE:
-                        idField.set(object, resultSet.getDate(1));
-                        break;
-                    case TIME:
-                        idField.set(object, resultSet.getTime(1));
-                        break;
-                    case TIMESTAMP:
-                        idField.set(object, resultSet.getTimestamp(1));
-                        break;
-                    case INVALID:
-                        throw new IllegalArgumentException("Data type is INVALID, and not supported");
-                }
+        //building id field
+        setColumn(object, getIDColumn(metadata), resultSet, offset+1);
 
-                //building normal fields
-                for(int i = 0; i < fields.size(); i++){
-                    Field f = clazz.getDeclaredField(fields.get(i).getValueFieldName());
-                    f.setAccessible(true);
-                    switch (fields.get(i).getDataType()) {
-                        case CHAR:
-                            f.setChar(object, resultSet.getString(2+i).charAt(0));
-                            break;
-                        case TEXT:
-                            f.set(object, resultSet.getString(2+i));
-                            break;
-                        case BIT:
-                            f.setBoolean(object, resultSet.getBoolean(2+i));
-                            break;
-                        case NUMERIC:
-                            f.set(object, resultSet.getBigDecimal(2+i));
-                            break;
-                        case TINYINT:
-                            f.setByte(object, resultSet.getByte(2+i));
-                            break;
-                        case SMALLINT:
-                            f.setShort(object, resultSet.getShort(2+i));
-                            break;
-                        case INTEGER:
-                            f.setInt(object, resultSet.getInt(2+i));
-                            break;
-                        case BIGINT:
-                            f.setLong(object, resultSet.getLong(2+i));
-                            break;
-                        case REAL:
-                            f.setFloat(object, resultSet.getFloat(2+i));
-                            break;
-                        case DOUBLE:
-                            f.setDouble(object, resultSet.getDouble(2+i));
-                            break;
-                        case DATE:
-                            f.set(object, resultSet.getDate(2+i));
-                            break;
-                        case TIME:
-                            f.set(object, resultSet.getTime(2+i));
-                            break;
-                        case TIMESTAMP:
-                            f.set(object, resultSet.getTimestamp(2+i));
-                            break;
-                        case INVALID:
-                            throw new IllegalArgumentException("Data type is INVALID, and not supported");
-                    }
-                }
+        //building normal fields
+        List<ColumnMetadata> fields = metadata.getFieldColumns();
+        for(int i = 0; i < fields.size(); i++){
+            setColumn(object, fields.get(i), resultSet, offset+2+i);
+        }
+        return Optional.of(object);
+    }
 
-                //building references
-                for(int i = 0; i < references.size(); i++){
-                    Class ftClass = references.get(i).getREFERENCE().getClass();
-                    Class fiClass = references.get(i).getREFERENCES_ID().getValue().getClass();
-                    Field f = clazz.getDeclaredField(references.get(i).getREFERENCE_NAME());
-                    f.setAccessible(true);
-
-                    switch (references.get(i).getREFERENCES_ID().getDataType()) {
-                        case CHAR:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getString(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case TEXT:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getString(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case BIT:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getBoolean(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case NUMERIC:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getBigDecimal(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case TINYINT:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getByte(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case SMALLINT:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getShort(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case INTEGER:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getInt(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case BIGINT:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getLong(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case REAL:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getFloat(references.get(i).getREFERENCE_NAME())).get());
-                        case DOUBLE:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getDouble(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case DATE:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getDate(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case TIME:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getTime(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case TIMESTAMP:
-                            f.set(object, new SORMDAO<>(ftClass, fiClass).getById(resultSet.getTimestamp(references.get(i).getREFERENCE_NAME())).get());
-                            break;
-                        case INVALID:
-                            throw new IllegalArgumentException("Data type is INVALID, and not supported");
-                    }
-                }
-                return Optional.of(clazz.cast(object));
-            }
+    /**
+     * Constructs an object of provided type from the current row of a ResultSet selecting only some of its columns
+     * <p>
+     *     Properties of columns that are not selected keep the value given by the no argument constructor
+     * </p>
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param clazz The class of the object being created
+     * @param columns The id or field columns of the row, in row order
+     * @param <T> The type of the object being created
+     * @return Returns a created object with the selected columns equal to those in the row, or an empty optional if the class has no {@link dev.model.annotation.SORMNoArgConstructor}
+     * @throws SQLException Thrown when unable to read ResultSet
+     * @throws IllegalAccessException Thrown when this could not access a field/property of an object
+     * @throws InvocationTargetException Thrown when failed to invoke constructor
+     * @throws InstantiationException Thrown when the object could not be successfully instantiated
+     */
+    public static <T> Optional<T> buildColumns (ResultSet resultSet, Class<T> clazz, List<ColumnMetadata> columns) throws SQLException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        Optional<Instantiator> instantiator = getEntityMetadata(clazz).getInstantiator();
+        if(!instantiator.isPresent())
+            return Optional.empty();
+
+        T object = clazz.cast(instantiator.get().newInstance());
+        for (int i = 0; i < columns.size(); i++) {
+            setColumn(object, columns.get(i), resultSet, i+1);
+        }
+        return Optional.of(object);
+    }
+
+    /**
+     * Reads the value of a column of the current ResultSet row as the column's data type
+     * @param column The column being read
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param index The index of the column in the ResultSet
+     * @return Returns the value of the column, boxed, or null if the column is null
+     * @throws SQLException Thrown when unable to read ResultSet
+     */
+    public static Object getColumnValue (ColumnMetadata column, ResultSet resultSet, int index) throws SQLException {
+        Object value = getColumn(column, resultSet, index);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Reads the id of the object referenced by a reference column of the current ResultSet row
+     * @param reference The reference column being read
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param index The index of the reference column in the ResultSet
+     * @return Returns the id of the referenced object, boxed as the referenced object's id is, or null if the column is null
+     * @throws SQLException Thrown when unable to read ResultSet
+     */
+    public static Object getReferenceID (ColumnMetadata reference, ResultSet resultSet, int index) throws SQLException {
+        return getColumnValue(reference, resultSet, index);
+    }
+
+    /**
+     * Sets a property of an object to the value at a column index of the current ResultSet row
+     * @param object The object being populated
+     * @param column The column being read
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param index The index of the column in the ResultSet
+     * @throws SQLException Thrown when unable to read ResultSet
+     * @throws SORMAccessException Thrown when this could not access a field/property of an object
+     */
+    private static void setColumn (Object object, ColumnMetadata column, ResultSet resultSet, int index) throws SQLException, SORMAccessException {
+        PropertyAccessor accessor = column.getAccessor();
+        switch (column.getDataType()) {
+            case CHAR:
+                accessor.setChar(object, resultSet.getString(index).charAt(0));
+                break;
+            case TEXT:
+                accessor.set(object, resultSet.getString(index));
+                break;
+            case BIT:
+                accessor.setBoolean(object, resultSet.getBoolean(index));
+                break;
+            case NUMERIC:
+                accessor.set(object, resultSet.getBigDecimal(index));
+                break;
+            case TINYINT:
+                accessor.setByte(object, resultSet.getByte(index));
+                break;
+            case SMALLINT:
+                accessor.setShort(object, resultSet.getShort(index));
+                break;
+            case INTEGER:
+                accessor.setInt(object, resultSet.getInt(index));
+                break;
+            case BIGINT:
+                accessor.setLong(object, resultSet.getLong(index));
+                break;
+            case REAL:
+                accessor.setFloat(object, resultSet.getFloat(index));
+                break;
+            case DOUBLE:
+                accessor.setDouble(object, resultSet.getDouble(index));
+                break;
+            case DATE:
+                accessor.set(object, resultSet.getDate(index));
+                break;
+            case TIME:
+                accessor.set(object, resultSet.getTime(index));
+                break;
+            case TIMESTAMP:
+                accessor.set(object, resultSet.getTimestamp(index));
+                break;
+            case INVALID:
+                throw new IllegalArgumentException("Data type is INVALID, and not supported");
+        }
+    }
+
+    /**
+     * Reads the value at a column index of the current ResultSet row as the column's data type
+     * @param column The column being read
+     * @param resultSet The ResultSet positioned on the row being read
+     * @param index The index of the column in the ResultSet
+     * @return Returns the value of the column
+     * @throws SQLException Thrown when unable to read ResultSet
+     */
+    private static Object getColumn (ColumnMetadata column, ResultSet resultSet, int index) throws SQLException {
+        switch (column.getDataType()) {
+            case CHAR:
+                String character = resultSet.getString(index);
+                return character == null || character.isEmpty() ? null : character.charAt(0);
+            case TEXT:
+                return resultSet.getString(index);
+            case BIT:
+                return resultSet.getBoolean(index);
+            case NUMERIC:
+                return resultSet.getBigDecimal(index);
+            case TINYINT:
+                return resultSet.getByte(index);
+            case SMALLINT:
+                return resultSet.getShort(index);
+            case INTEGER:
+                return resultSet.getInt(index);
+            case BIGINT:
+                return resultSet.getLong(index);
+            case REAL:
+                return resultSet.getFloat(index);
+            case DOUBLE:
+                return resultSet.getDouble(index);
+            case DATE:
+                return resultSet.getDate(index);
+            case TIME:
+                return resultSet.getTime(index);
+            case TIMESTAMP:
+                return resultSet.getTimestamp(index);
+            default:
+                throw new IllegalArgumentException("Data type is INVALID, and not supported");
         }
-        return Optional.empty();
     }
 }
@@ -0,0 +1,68 @@
+package dev.utility.reflection;
+
+import dev.model.exception.SORMAccessException;
+
+/**
+ * Reads and writes a single property of an entity
+ * <p>
+ *     Primitive setters write primitive properties without boxing,
+ *     when used on a wrapper property the value is boxed and set instead.
+ *     Created by {@link AccessorFactory}.
+ * </p>
+ */
+public interface PropertyAccessor {
+
+    /**
+     * @param entity The object whose property is read
+     * @return Returns the value of the property, primitives are boxed
+     * @throws SORMAccessException Thrown when the property could not be read
+     */
+    Object get(Object entity) throws SORMAccessException;
+
+    /**
+     * @param entity The object whose property is written
+     * @param value The value to write, must be assignable to the property (unboxed for primitive properties)
+     * @throws SORMAccessException Thrown when the property could not be written
+     */
+    void set(Object entity, Object value) throws SORMAccessException;
+
+    /**
+     * Writes a boolean property, see {@link #set(Object, Object)}
+     */
+    void setBoolean(Object entity, boolean value) throws SORMAccessException;
+
+    /**
+     * Writes a byte property, see {@link #set(Object, Object)}
+     */
+    void setByte(Object entity, byte value) throws SORMAccessException;
+
+    /**
+     * Writes a short property, see {@link #set(Object, Object)}
+     */
+    void setShort(Object entity, short value) throws SORMAccessException;
+
+    /**
+     * Writes a char property, see {@link #set(Object, Object)}
+     */
+    void setChar(Object entity, char value) throws SORMAccessException;
+
+    /**
+     * Writes an int property, see {@link #set(Object, Object)}
+     */
+    void setInt(Object entity, int value) throws SORMAccessException;
+
+    /**
+     * Writes a long property, see {@link #set(Object, Object)}
+     */
+    void setLong(Object entity, long value) throws SORMAccessException;
+
+    /**
+     * Writes a float property, see {@link #set(Object, Object)}
+     */
+    void setFloat(Object entity, float value) throws SORMAccessException;
+
+    /**
+     * Writes a double property, see {@link #set(Object, Object)}
+     */
+    void setDouble(Object entity, double value) throws SORMAccessException;
+}
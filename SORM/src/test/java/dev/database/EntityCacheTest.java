@@ -0,0 +1,106 @@
+package dev.database;
+
+import dev.model.annotation.*;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.Arrays;
+
+/**
+ * testing {@link EntityCache}
+ */
+public class EntityCacheTest {
+
+    @Test
+    public void EntityCacheEvictsLeastRecentlyUsed(){
+        EntityCache cache = EntityCache.createEntityCache();
+        Assert.assertFalse(cache.isCached(Clove.class));
+        cache.configure(Clove.class, 2, 0);
+        Assert.assertTrue(cache.isCached(Clove.class));
+
+        cache.put(Clove.class, 1, "one", cache.version(Clove.class));
+        cache.put(Clove.class, 2, "two", cache.version(Clove.class));
+        Assert.assertEquals("one", cache.get(Clove.class, 1).get());
+        cache.put(Clove.class, 3, "three", cache.version(Clove.class));
+
+        //2 was used least recently
+        Assert.assertFalse(cache.get(Clove.class, 2).isPresent());
+        Assert.assertEquals("one", cache.get(Clove.class, 1).get());
+        Assert.assertEquals("three", cache.get(Clove.class, 3).get());
+
+        EntityCache.Statistics statistics = cache.getStatistics(Clove.class).get();
+        Assert.assertEquals(3, statistics.getHits());
+        Assert.assertEquals(1, statistics.getMisses());
+        Assert.assertEquals(1, statistics.getEvictions());
+        Assert.assertEquals(2, statistics.getSize());
+        Assert.assertEquals(0.75, statistics.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void EntityCacheExpiresEntries() throws InterruptedException {
+        EntityCache cache = EntityCache.createEntityCache();
+        cache.configure(Clove.class, 10, 20);
+        cache.put(Clove.class, 1, "one", cache.version(Clove.class));
+        Assert.assertTrue(cache.get(Clove.class, 1).isPresent());
+        Thread.sleep(50);
+        Assert.assertFalse(cache.get(Clove.class, 1).isPresent());
+    }
+
+    @Test
+    public void EntityCacheInvalidation(){
+        EntityCache cache = EntityCache.createEntityCache();
+        cache.configure(Clove.class, 10, 0);
+        cache.configure(Garlic.class, 10, 0);
+
+        //an object read before a write is not cached after it
+        long version = cache.version(Clove.class);
+        cache.invalidate(Clove.class, 1);
+        cache.put(Clove.class, 1, "stale", version);
+        Assert.assertFalse(cache.get(Clove.class, 1).isPresent());
+
+        //writing a clove evicts the garlics which may hold it
+        cache.put(Clove.class, 1, "clove", cache.version(Clove.class));
+        cache.put(Clove.class, 2, "other clove", cache.version(Clove.class));
+        cache.put(Garlic.class, 1, "garlic", cache.version(Garlic.class));
+        cache.invalidateAll(Clove.class, Arrays.asList(1));
+        Assert.assertFalse(cache.get(Clove.class, 1).isPresent());
+        Assert.assertTrue(cache.get(Clove.class, 2).isPresent());
+        Assert.assertFalse(cache.get(Garlic.class, 1).isPresent());
+
+        cache.disable(Clove.class);
+        Assert.assertFalse(cache.isCached(Clove.class));
+        Assert.assertFalse(cache.getStatistics(Clove.class).isPresent());
+    }
+
+    @Test
+    public void EntityCacheInvalidParameters(){
+        EntityCache cache = EntityCache.createEntityCache();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.configure(null, 1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.configure(Garlic.class, 0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.configure(Garlic.class, 1, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.disable(null));
+    }
+}
+
+@SORMObject
+class Garlic {
+    @SORMID
+    int garlicID = 0;
+    @SORMField
+    int weight = 0;
+    @SORMReference
+    Clove clove = new Clove();
+
+    @SORMNoArgConstructor
+    Garlic(){}
+}
+
+@SORMObject
+class Clove {
+    @SORMID
+    int cloveID = 0;
+
+    @SORMNoArgConstructor
+    Clove(){}
+}
@@ -0,0 +1,278 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.annotation.*;
+import dev.model.enumeration.QueryOperator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * testing {@link Query}
+ */
+public class QueryTest {
+
+    @Test
+    public void QueryCompilesParameterizedSQL(){
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            Query<Turnip> query = Query.createQuery(Turnip.class, dataSource)
+                    .where("name", QueryOperator.EQUALS, "a")
+                    .where("weight", QueryOperator.GREATER_THAN, 3)
+                    .orderByDescending("weight")
+                    .limit(5);
+            Assert.assertEquals("select t0.turnipID as t0_turnipID, t0.name as t0_name, t0.weight as t0_weight from Turnip t0 " +
+                    "where t0.name = ? and t0.weight > ? order by t0.weight desc limit ?", query.toSQL());
+
+            //queries of the same shape share their statement
+            Assert.assertSame(query.toSQL(), Query.createQuery(Turnip.class, dataSource)
+                    .where("name", QueryOperator.EQUALS, "b")
+                    .where("weight", QueryOperator.GREATER_THAN, 7)
+                    .orderByDescending("weight")
+                    .limit(1).toSQL());
+            Assert.assertEquals("select t0.turnipID as t0_turnipID, t0.name as t0_name, t0.weight as t0_weight from Turnip t0 " +
+                    "where t0.name is not null", Query.createQuery(Turnip.class, dataSource).where("name", QueryOperator.IS_NOT_NULL).toSQL());
+        }
+    }
+
+    @Test
+    public void QueryFiltersOrdersAndLimits() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            List<Turnip> turnips = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                turnips.add(new Turnip(i, i % 2 == 0 ? "even" : "odd", i * 10));
+            }
+            Assert.assertTrue(new SORMDAO<>(Turnip.class, Integer.class, dataSource).createAll(turnips));
+
+            List<Turnip> even = Query.createQuery(Turnip.class, dataSource)
+                    .where("name", QueryOperator.EQUALS, "even")
+                    .where("weight", QueryOperator.GREATER_THAN_OR_EQUALS, 40)
+                    .orderByDescending("weight")
+                    .list();
+            Assert.assertEquals("[10, 8, 6, 4]", even.stream().map(t -> t.turnipID).collect(Collectors.toList()).toString());
+
+            Assert.assertEquals(3, Query.createQuery(Turnip.class, dataSource).where("name", QueryOperator.LIKE, "o%")
+                    .orderBy("turnipID").limit(3).list().size());
+            Assert.assertEquals(9, Query.createQuery(Turnip.class, dataSource).where("weight", QueryOperator.LESS_THAN, 100)
+                    .orderByDescending("weight").first().get().turnipID);
+            Assert.assertFalse(Query.createQuery(Turnip.class, dataSource).where("turnipID", QueryOperator.EQUALS, 11).first().isPresent());
+            try (Stream<Turnip> stream = Query.createQuery(Turnip.class, dataSource).where("name", QueryOperator.IS_NOT_NULL).fetchSize(2).stream()) {
+                Assert.assertEquals(10, stream.count());
+            }
+        }
+    }
+
+    @Test
+    public void QueryKeysetPages() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            List<Parsnip> parsnips = new ArrayList<>();
+            for (int i = 1; i <= 7; i++) {
+                parsnips.add(new Parsnip(i, i % 3));
+            }
+            Assert.assertTrue(new SORMDAO<>(Parsnip.class, Integer.class, dataSource).createAll(parsnips));
+
+            //by id
+            List<Integer> ids = new ArrayList<>();
+            Object afterKey = null;
+            Page<Parsnip> page;
+            do {
+                page = Query.createQuery(Parsnip.class, dataSource).page(afterKey, 3);
+                page.getItems().forEach(p -> ids.add(p.parsnipID));
+                afterKey = page.getNextKey().orElse(null);
+            } while (page.hasNext());
+            Assert.assertEquals("[1, 2, 3, 4, 5, 6, 7]", ids.toString());
+
+            //by a field, ties broken by id
+            ids.clear();
+            Object afterValue = null;
+            afterKey = null;
+            do {
+                page = Query.createQuery(Parsnip.class, dataSource).where("parsnipID", QueryOperator.NOT_EQUALS, 4)
+                        .page("length", afterValue, afterKey, 2);
+                page.getItems().forEach(p -> ids.add(p.parsnipID));
+                afterValue = page.getNextValue().orElse(null);
+                afterKey = page.getNextKey().orElse(null);
+            } while (page.hasNext());
+            Assert.assertEquals("[3, 6, 1, 7, 2, 5]", ids.toString());
+            Assert.assertFalse(page.getNextKey().isPresent());
+
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Parsnip.class, dataSource).page(null, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Parsnip.class, dataSource).limit(2).page(null, 2));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Parsnip.class, dataSource).page("length", null, 3, 2));
+        }
+    }
+
+    @Test
+    public void QueryProjectsSelectedColumns() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            List<Radish> radishes = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) {
+                radishes.add(new Radish(i, "radish" + i, i * 5));
+            }
+            Assert.assertTrue(new SORMDAO<>(Radish.class, Integer.class, dataSource).createAll(radishes));
+
+            //partially populated entities always hold their id
+            Query<Radish> query = Query.createQuery(Radish.class, dataSource).select("weight")
+                    .where("weight", QueryOperator.GREATER_THAN, 10).orderBy("radishID");
+            Assert.assertEquals("select t0.radishID, t0.weight from Radish t0 where t0.weight > ? order by t0.radishID asc", query.toSQL());
+            List<Radish> partial = query.list();
+            Assert.assertEquals(3, partial.size());
+            Assert.assertEquals(3, partial.get(0).radishID);
+            Assert.assertEquals(15, partial.get(0).weight);
+            Assert.assertEquals("", partial.get(0).name);
+
+            //data transfer objects receive the columns they declare
+            List<RadishLabel> labels = Query.createQuery(Radish.class, dataSource).orderByDescending("weight").limit(2).listAs(RadishLabel.class);
+            Assert.assertEquals(2, labels.size());
+            Assert.assertEquals("radish5", labels.get(0).name);
+            Assert.assertEquals(25, labels.get(0).weight);
+            Assert.assertEquals("radish3", Query.createQuery(Radish.class, dataSource).select("name")
+                    .where("radishID", QueryOperator.EQUALS, 3).listAs(RadishLabel.class).get(0).name);
+
+            Page<Radish> page = Query.createQuery(Radish.class, dataSource).select("weight").page("weight", null, null, 2);
+            Assert.assertEquals(10, page.getItems().get(1).weight);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Radish.class, dataSource).select("name").page("weight", null, null, 2));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Radish.class, dataSource).select("radishID").listAs(RadishLabel.class));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Radish.class, dataSource).select());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Radish.class, dataSource).select("color"));
+        }
+    }
+
+    @Test
+    public void QueryDeletesAndUpdatesWithoutLoading() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            List<Rutabaga> rutabagas = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                rutabagas.add(new Rutabaga(i, "raw", i * 10));
+            }
+            SORMDAO<Rutabaga, Integer> dao = new SORMDAO<>(Rutabaga.class, Integer.class, dataSource);
+            Assert.assertTrue(dao.createAll(rutabagas));
+
+            Assert.assertEquals(9, Query.createQuery(Rutabaga.class, dataSource)
+                    .where("weight", QueryOperator.LESS_THAN, 100).set("name", "light").update());
+            Assert.assertEquals("light", dao.getById(9).get().name);
+            Assert.assertEquals("raw", dao.getById(10).get().name);
+
+            //rows still matching once updated are only visited once
+            Assert.assertEquals(9, Query.createQuery(Rutabaga.class, dataSource)
+                    .where("name", QueryOperator.EQUALS, "light").set("weight", 5).set("name", "peeled").update(4));
+            Assert.assertEquals(9, Query.createQuery(Rutabaga.class, dataSource).where("name", QueryOperator.EQUALS, "peeled")
+                    .where("weight", QueryOperator.EQUALS, 5).list().size());
+
+            Assert.assertEquals(9, Query.createQuery(Rutabaga.class, dataSource).where("weight", QueryOperator.EQUALS, 5).delete(4));
+            Assert.assertEquals(0, Query.createQuery(Rutabaga.class, dataSource).where("weight", QueryOperator.EQUALS, 5).delete());
+            Assert.assertEquals(11, Query.createQuery(Rutabaga.class, dataSource).delete());
+            Assert.assertFalse(dao.getById(20).isPresent());
+        }
+    }
+
+    @Test
+    public void QueryInvalidWrites(){
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            Assertions.assertThrows(IllegalStateException.class, () -> Query.createQuery(Rutabaga.class, dataSource).update());
+            Assertions.assertThrows(IllegalStateException.class, () -> Query.createQuery(Rutabaga.class, dataSource).limit(1).delete());
+            Assertions.assertThrows(IllegalStateException.class, () -> Query.createQuery(Rutabaga.class, dataSource).orderBy("weight").set("weight", 1).update());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Rutabaga.class, dataSource).set("rutabagaID", 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Rutabaga.class, dataSource).delete(0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Rutabaga.class, dataSource).set("weight", 1).update(0));
+        }
+    }
+
+    @Test
+    public void QueryInvalidParameters(){
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            Query<Turnip> query = Query.createQuery(Turnip.class, dataSource);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(null, dataSource));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Query.createQuery(Turnip.class, null));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.where("color", QueryOperator.EQUALS, "red"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.where("name", QueryOperator.IS_NULL, "red"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.where("name", QueryOperator.EQUALS));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.where("name", QueryOperator.EQUALS, null));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.orderBy("color"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.limit(-1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> query.fetchSize(0));
+        }
+    }
+}
+
+@SORMObject
+class Parsnip {
+    @SORMID
+    int parsnipID = 0;
+    @SORMField
+    int length = 0;
+
+    @SORMNoArgConstructor
+    Parsnip(){}
+
+    Parsnip(int parsnipID, int length){
+        this.parsnipID = parsnipID;
+        this.length = length;
+    }
+}
+
+@SORMObject
+class Turnip {
+    @SORMID
+    int turnipID = 0;
+    @SORMField
+    String name = "";
+    @SORMField
+    int weight = 0;
+
+    @SORMNoArgConstructor
+    Turnip(){}
+
+    Turnip(int turnipID, String name, int weight){
+        this.turnipID = turnipID;
+        this.name = name;
+        this.weight = weight;
+    }
+}
+
+@SORMObject
+class Radish {
+    @SORMID
+    int radishID = 0;
+    @SORMField
+    String name = "";
+    @SORMField
+    int weight = 0;
+
+    @SORMNoArgConstructor
+    Radish(){}
+
+    Radish(int radishID, String name, int weight){
+        this.radishID = radishID;
+        this.name = name;
+        this.weight = weight;
+    }
+}
+
+@SORMObject
+class Rutabaga {
+    @SORMID
+    int rutabagaID = 0;
+    @SORMField
+    String name = "";
+    @SORMField
+    int weight = 0;
+
+    @SORMNoArgConstructor
+    Rutabaga(){}
+
+    Rutabaga(int rutabagaID, String name, int weight){
+        this.rutabagaID = rutabagaID;
+        this.name = name;
+        this.weight = weight;
+    }
+}
+
+class RadishLabel {
+    String name;
+    int weight;
+}
@@ -0,0 +1,109 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.annotation.*;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * testing {@link SORMTransaction}
+ */
+public class SORMTransactionTest {
+
+    @Test
+    public void SORMTransactionCommitsInReferenceOrder() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            SORMDAO<Carrot, Integer> carrots = new SORMDAO<>(Carrot.class, Integer.class, dataSource);
+            try (SORMTransaction transaction = SORMTransaction.createSORMTransaction(dataSource)) {
+                Carrot first = new Carrot(1, "first", new CarrotTop(1));
+                Carrot second = new Carrot(2, "second", first.top);
+                //queued before its reference, written after it
+                transaction.create(second);
+                transaction.create(first);
+                first.name = "changed";
+                transaction.update(first);
+                Assert.assertFalse(carrots.getById(1).isPresent());
+                Assert.assertTrue(transaction.commit());
+                Assert.assertFalse(transaction.isActive());
+            }
+            Assert.assertEquals("changed", carrots.getById(1).get().name);
+            Assert.assertEquals(1, carrots.getById(2).get().top.topID);
+
+            //a failing operation rolls every operation back
+            try (SORMTransaction transaction = SORMTransaction.createSORMTransaction(dataSource)) {
+                transaction.update(new Carrot(2, "rolled back", new CarrotTop(1)));
+                transaction.update(new Carrot(3, "missing", new CarrotTop(1)));
+                Assert.assertFalse(transaction.commit());
+            }
+            Assert.assertEquals("second", carrots.getById(2).get().name);
+        }
+    }
+
+    @Test
+    public void SORMTransactionSavepoints() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            SORMDAO<Carrot, Integer> carrots = new SORMDAO<>(Carrot.class, Integer.class, dataSource);
+            try (SORMTransaction transaction = SORMTransaction.createSORMTransaction(dataSource)) {
+                transaction.create(new Carrot(4, "kept", new CarrotTop(2)));
+                transaction.setSavepoint("a");
+                transaction.create(new Carrot(5, "discarded", new CarrotTop(3)));
+                transaction.setSavepoint("b");
+                transaction.create(new Carrot(6, "discarded", new CarrotTop(3)));
+                transaction.rollbackToSavepoint("a");
+                Assert.assertEquals(1, transaction.size());
+                Assertions.assertThrows(IllegalArgumentException.class, () -> transaction.rollbackToSavepoint("b"));
+                Assert.assertTrue(transaction.commit());
+                Assertions.assertThrows(IllegalStateException.class, () -> transaction.create(new Carrot(7, "late", new CarrotTop(2))));
+            }
+            Assert.assertTrue(carrots.getById(4).isPresent());
+            Assert.assertFalse(carrots.getById(5).isPresent());
+
+            //deletes remove the rows referencing others first
+            try (SORMTransaction transaction = SORMTransaction.createSORMTransaction(dataSource)) {
+                transaction.delete(carrots.getById(4).get());
+                transaction.rollback();
+                Assert.assertEquals(0, transaction.size());
+            }
+            Assert.assertTrue(carrots.getById(4).isPresent());
+            try (SORMTransaction transaction = SORMTransaction.createSORMTransaction(dataSource)) {
+                transaction.delete(carrots.getById(4).get());
+                Assert.assertTrue(transaction.commit());
+            }
+            Assert.assertFalse(carrots.getById(4).isPresent());
+            Assert.assertFalse(new SORMDAO<>(CarrotTop.class, Integer.class, dataSource).getById(2).isPresent());
+        }
+    }
+}
+
+@SORMObject
+class CarrotTop {
+    @SORMID
+    int topID = 0;
+
+    @SORMNoArgConstructor
+    CarrotTop(){}
+
+    CarrotTop(int topID){
+        this.topID = topID;
+    }
+}
+
+@SORMObject
+class Carrot {
+    @SORMID
+    int carrotID = 0;
+    @SORMField
+    String name = "";
+    @SORMReference
+    CarrotTop top = new CarrotTop(0);
+
+    @SORMNoArgConstructor
+    Carrot(){}
+
+    Carrot(int carrotID, String name, CarrotTop top){
+        this.carrotID = carrotID;
+        this.name = name;
+        this.top = top;
+    }
+}
@@ -0,0 +1,81 @@
+package dev.database;
+
+import dev.database.hikaricp.DataSource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * testing {@link SchemaRegistry}
+ */
+public class SchemaRegistryTest {
+
+    @Test
+    public void SchemaRegistryLearnsTablesFromMetadata() throws SQLException {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","");
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            SchemaRegistry registry = SchemaRegistry.createSchemaRegistry(0);
+            Assert.assertFalse(registry.tableExists("SchemaRegistryTable", connection));
+            statement.execute("create table if not exists SchemaRegistryTable(id INTEGER primary key)");
+            Assert.assertTrue(registry.tableExists("SchemaRegistryTable", connection));
+            Assert.assertTrue(registry.tableExists("schemaregistrytable", connection));
+        }
+    }
+
+    @Test
+    public void SchemaRegistryInvalidateAndRefresh() throws SQLException {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","");
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            SchemaRegistry registry = SchemaRegistry.createSchemaRegistry();
+            statement.execute("create table if not exists SchemaRegistryDropped(id INTEGER primary key)");
+            Assert.assertTrue(registry.tableExists("SchemaRegistryDropped", connection));
+            statement.execute("drop table SchemaRegistryDropped");
+
+            //dropped outside of SORM, still known until invalidated
+            Assert.assertTrue(registry.tableExists("SchemaRegistryDropped", connection));
+            registry.invalidate("SchemaRegistryDropped");
+            Assert.assertFalse(registry.tableExists("SchemaRegistryDropped", connection));
+
+            registry.registerTable("SchemaRegistryDropped");
+            Assert.assertTrue(registry.tableExists("SchemaRegistryDropped", connection));
+            registry.refresh();
+            Assert.assertFalse(registry.tableExists("SchemaRegistryDropped", connection));
+        }
+    }
+
+    @Test
+    public void SchemaRegistryRemembersMissingTables() throws SQLException {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","");
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            SchemaRegistry registry = SchemaRegistry.createSchemaRegistry(60000);
+            Assert.assertFalse(registry.tableExists("SchemaRegistryMissed", connection));
+            statement.execute("create table if not exists SchemaRegistryMissed(id INTEGER primary key)");
+
+            //created outside of SORM, still missing until the miss expires or is forgotten
+            Assert.assertFalse(registry.tableExists("SchemaRegistryMissed", connection));
+            registry.invalidate("SchemaRegistryMissed");
+            Assert.assertTrue(registry.tableExists("SchemaRegistryMissed", connection));
+
+            Assert.assertFalse(registry.tableExists("SchemaRegistryRegistered", connection));
+            registry.registerTable("SchemaRegistryRegistered");
+            Assert.assertTrue(registry.tableExists("SchemaRegistryRegistered", connection));
+            statement.execute("drop table SchemaRegistryMissed");
+        }
+    }
+
+    @Test
+    public void SchemaRegistryNullParameters() throws SQLException {
+        SchemaRegistry registry = SchemaRegistry.createSchemaRegistry();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.tableExists(null, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.registerTable(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.invalidate(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SchemaRegistry.createSchemaRegistry(-1));
+    }
+}
@@ -0,0 +1,113 @@
+package dev.database;
+
+import dev.model.annotation.*;
+import dev.model.database.LazyReference;
+import dev.model.enumeration.SQLDialect;
+import dev.model.exception.NoSORMObjectFoundException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * testing {@link StatementTemplates}
+ */
+public class StatementTemplatesTest {
+
+    @Test
+    public void StatementTemplatesGeneratedSQL(){
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(Onion.class);
+        Assert.assertEquals("onionID, layers, ring", templates.getColumnList());
+        Assert.assertEquals("insert into Onion (onionID, layers, ring) values (?, ?, ?)", templates.getInsert());
+        Assert.assertEquals("update Onion set layers = ?, ring = ? where onionID = ?", templates.getUpdateById());
+        Assert.assertEquals("insert into Onion (onionID, layers, ring) values (?, ?, ?) on conflict (onionID) " +
+                "do update set layers = excluded.layers, ring = excluded.ring", templates.getUpsert(SQLDialect.POSTGRESQL));
+        Assert.assertEquals("merge into Onion (onionID, layers, ring) key (onionID) values (?, ?, ?)", templates.getUpsert(SQLDialect.H2));
+        Assert.assertEquals("insert into OnionRing (ringID) values (?) on conflict (ringID) do nothing",
+                StatementTemplates.getStatementTemplates(OnionRing.class).getUpsert(SQLDialect.POSTGRESQL));
+        Assert.assertEquals("delete from Onion where onionID = ?", templates.getDeleteById());
+        Assert.assertEquals("delete from Onion where onionID in (?)", templates.getDeleteByIds(1));
+        Assert.assertEquals("delete from Onion where onionID in (?, ?, ?)", templates.getDeleteByIds(3));
+        Assert.assertEquals("select onionID, layers, ring from Onion where onionID = ?", templates.getSelectById());
+        Assert.assertEquals("select onionID, layers, ring from Onion where onionID in (?, ?)", templates.getSelectByIds(2));
+        Assert.assertEquals("create table if not exists Onion(onionID INTEGER primary key, layers INTEGER, " +
+                "ring INTEGER references OnionRing(ringID) on delete cascade)", templates.getCreateTable());
+    }
+
+    @Test
+    public void StatementTemplatesPartialUpdate(){
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(Onion.class);
+        Assert.assertEquals("update Onion set layers = ? where onionID = ?", templates.getUpdateById(Arrays.asList(0)));
+        Assert.assertEquals("update Onion set ring = ? where onionID = ?", templates.getUpdateById(Arrays.asList(1)));
+        Assert.assertSame(templates.getUpdateById(), templates.getUpdateById(Arrays.asList(0, 1)));
+        Assert.assertEquals("update OnionRing set ringID = ringID where ringID = ?",
+                StatementTemplates.getStatementTemplates(OnionRing.class).getUpdateById());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> templates.getUpdateById(Collections.emptyList()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> templates.getUpdateById(Arrays.asList(2)));
+    }
+
+    @Test
+    public void StatementTemplatesJoinFetch(){
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(Onion.class);
+        Assert.assertEquals("select t0.onionID as t0_onionID, t0.layers as t0_layers, t0.ring as t0_ring from Onion t0 " +
+                "where t0.onionID = ?", templates.getJoinFetch(0).getSelectById());
+        Assert.assertEquals("select t0.onionID as t0_onionID, t0.layers as t0_layers, t0.ring as t0_ring, t1.ringID as t1_ringID " +
+                "from Onion t0 left join OnionRing t1 on t1.ringID = t0.ring where t0.onionID = ?", templates.getJoinFetch(2).getSelectById());
+        Assert.assertSame(templates.getJoinFetch(2), templates.getJoinFetch(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> templates.getJoinFetch(-1));
+    }
+
+    @Test
+    public void StatementTemplatesLazyReferenceNotJoined(){
+        StatementTemplates templates = StatementTemplates.getStatementTemplates(LazyOnion.class);
+        Assert.assertEquals("create table if not exists LazyOnion(onionID INTEGER primary key, " +
+                "ring INTEGER references OnionRing(ringID) on delete cascade)", templates.getCreateTable());
+        Assert.assertEquals("select t0.onionID as t0_onionID, t0.ring as t0_ring from LazyOnion t0 " +
+                "where t0.onionID = ?", templates.getJoinFetch(2).getSelectById());
+    }
+
+    @Test
+    public void StatementTemplatesAreCached(){
+        Assert.assertSame(StatementTemplates.getStatementTemplates(Onion.class), StatementTemplates.getStatementTemplates(Onion.class));
+        Assert.assertNotSame(StatementTemplates.getStatementTemplates(Onion.class), StatementTemplates.getStatementTemplates(OnionRing.class));
+    }
+
+    @Test
+    public void StatementTemplatesNoSORMObject(){
+        Assertions.assertThrows(NoSORMObjectFoundException.class, () -> StatementTemplates.getStatementTemplates(String.class));
+    }
+}
+
+@SORMObject
+class Onion {
+    @SORMID
+    int onionID = 0;
+    @SORMField
+    int layers = 0;
+    @SORMReference
+    OnionRing ring = new OnionRing();
+
+    @SORMNoArgConstructor
+    Onion(){}
+}
+
+@SORMObject
+class LazyOnion {
+    @SORMID
+    int onionID = 0;
+    @SORMReference
+    LazyReference<OnionRing> ring;
+
+    @SORMNoArgConstructor
+    LazyOnion(){}
+}
+
+@SORMObject
+class OnionRing {
+    @SORMID
+    int ringID = 0;
+
+    @SORMNoArgConstructor
+    OnionRing(){}
+}
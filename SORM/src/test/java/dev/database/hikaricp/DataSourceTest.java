@@ -3,6 +3,8 @@ package dev.database.hikaricp;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.sql.Connection;
+
 /**
  * testing {@link DataSource}
  */
@@ -17,4 +19,16 @@ public class DataSourceTest {
         }
         Assert.assertTrue(true);
     }
+
+    @Test
+    public void DataSourceReturnsConnectionsAndCloses() throws Exception {
+        DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","");
+        for(int i = 0; i < dataSource.getMaximumPoolSize() * 2; i++) {
+            try (Connection connection = dataSource.getConnection()) {
+                Assert.assertFalse(connection.isClosed());
+            }
+        }
+        dataSource.close();
+        Assert.assertTrue(dataSource.isClosed());
+    }
 }
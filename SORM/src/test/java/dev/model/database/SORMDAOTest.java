@@ -1,8 +1,14 @@
 package dev.model.database;
 
+import dev.database.DBConnection;
+import dev.database.EntityCache;
+import dev.database.Query;
 import dev.database.SORMDAO;
+import dev.database.hikaricp.DataSource;
 import dev.model.annotation.*;
+import dev.model.enumeration.QueryOperator;
 import dev.model.exception.SORMAccessException;
+import dev.model.exception.SORMObjectRetrievalException;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
@@ -12,7 +18,12 @@ import java.math.BigDecimal;
 import java.sql.*;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class SORMDAOTest {
 
@@ -173,6 +184,391 @@ public class SORMDAOTest {
         Assert.assertTrue(dao.delete(null));
     }
 
+    @Test
+    public void SORMDAOCreateAllInBatchesWithSharedReferences() throws SQLException, SORMAccessException {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        List<Potato> potatoes = new ArrayList<>();
+        for(int i = 0; i < 7; i++) {
+            potatoes.add(new Potato("Batch " + i, 1000 + i, 500 + i % 2));
+        }
+        Assert.assertTrue(dao.createAll(potatoes, 3));
+        for(Potato p : potatoes) {
+            Optional<Potato> po = dao.getById(p.spudID);
+            Assert.assertTrue(po.isPresent());
+            Assert.assertEquals(p.name, po.get().name);
+            Assert.assertEquals(p.potatoReference.babyCode, po.get().potatoReference.babyCode);
+        }
+    }
+
+    @Test
+    public void SORMDAOCreateAllRollsBackOnFailure() throws SQLException, SORMAccessException {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        Assert.assertTrue(dao.create(new Potato("Existing", 1100, 510)));
+        Assertions.assertThrows(SQLException.class, () -> dao.createAll(Arrays.asList(new Potato("New", 1101, 511), new Potato("Duplicate", 1100, 512))));
+        Assert.assertFalse(dao.getById(1101).isPresent());
+        Assert.assertEquals("Existing", dao.getById(1100).get().name);
+    }
+
+    @Test
+    public void SORMDAOUpdateAllAndDeleteAll() throws SQLException, SORMAccessException {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        List<Potato> potatoes = new ArrayList<>();
+        for(int i = 6; i >= 0; i--) {
+            potatoes.add(new Potato("Before " + i, 1300 + i, 530 + i));
+        }
+        Assert.assertTrue(dao.createAll(potatoes));
+        for(Potato p : potatoes) {
+            p.name = "After " + p.spudID;
+        }
+        Assert.assertTrue(dao.updateAll(potatoes, 2));
+        for(Potato p : potatoes) {
+            Assert.assertEquals("After " + p.spudID, dao.getById(p.spudID).get().name);
+        }
+        Assert.assertTrue(dao.deleteAll(potatoes, 3));
+        for(Potato p : potatoes) {
+            Assert.assertFalse(dao.getById(p.spudID).isPresent());
+        }
+    }
+
+    @Test
+    public void SORMDAOUpdateAllRollsBackWhenRowMissing() throws SQLException, SORMAccessException {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        Assert.assertTrue(dao.create(new Potato("Present", 1400, 540)));
+        Assert.assertFalse(dao.updateAll(Arrays.asList(new Potato("Changed", 1400, 540), new Potato("Missing", 1401, 541))));
+        Assert.assertEquals("Present", dao.getById(1400).get().name);
+    }
+
+    @Test
+    public void SORMDAOGetByIdsInChunks() throws SQLException, SORMAccessException {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        List<Potato> potatoes = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            potatoes.add(new Potato("Multi " + i, 1500 + i, 550 + i % 2));
+            ids.add(1500 + i);
+        }
+        Assert.assertTrue(dao.createAll(potatoes));
+        ids.add(1599);
+        Map<Integer, Potato> found = dao.getByIds(ids, 2);
+        Assert.assertEquals(5, found.size());
+        Assert.assertFalse(found.containsKey(1599));
+        for(Potato p : potatoes) {
+            Assert.assertEquals(p.name, found.get(p.spudID).name);
+            Assert.assertEquals(p.potatoReference.babyCode, found.get(p.spudID).potatoReference.babyCode);
+        }
+        Assert.assertSame(found.get(1500).potatoReference, found.get(1502).potatoReference);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.getByIds(Arrays.asList(1500, null)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.getByIds(ids, 0));
+    }
+
+    @Test
+    public void SORMDAOCreateAllInvalidParameters() {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.createAll(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.createAll(Arrays.asList(new Potato("Null", 1200, 520), null)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.createAll(new ArrayList<>(), 0));
+    }
+
+    @Test
+    public void SORMDAOGetByIdWithAndWithoutJoins() throws SQLException, SORMAccessException {
+        SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
+        Assert.assertTrue(dao.create(new Potato("Joined", 1600, 560)));
+        try {
+            for(int depth = 0; depth <= 1; depth++) {
+                SORMDAO.setMaxJoinDepth(depth);
+                Optional<Potato> po = dao.getById(1600);
+                Assert.assertTrue(po.isPresent());
+                Assert.assertEquals("Joined", po.get().name);
+                Assert.assertEquals(560, po.get().potatoReference.babyCode);
+            }
+        } finally {
+            SORMDAO.setMaxJoinDepth(SORMDAO.DEFAULT_MAX_JOIN_DEPTH);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SORMDAO.setMaxJoinDepth(-1));
+    }
+
+    @Test
+    public void SORMDAOLazyReferenceLoadedOnAccess() throws SQLException, SORMAccessException {
+        SORMDAO<LazyPotato, Integer> dao = new SORMDAO<>(LazyPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new LazyPotato(1700, new PotatoReference(570))));
+
+        for (LazyPotato lazy : new LazyPotato[]{dao.getById(1700).get(), dao.getByIds(Arrays.asList(1700)).get(1700)}) {
+            Assert.assertFalse(lazy.potatoReference.isLoaded());
+            Assert.assertEquals(570, lazy.potatoReference.getId());
+            Assert.assertEquals(570, lazy.potatoReference.get().babyCode);
+            Assert.assertTrue(lazy.potatoReference.isLoaded());
+            Assert.assertSame(lazy.potatoReference.get(), lazy.potatoReference.get());
+        }
+
+        //an unloaded reference only has its id written
+        LazyPotato lazy = dao.getById(1700).get();
+        lazy.peeled = true;
+        Assert.assertTrue(dao.update(lazy));
+        Assert.assertTrue(dao.getById(1700).get().peeled);
+        Assert.assertEquals(570, dao.getById(1700).get().potatoReference.get().babyCode);
+    }
+
+    @Test
+    public void SORMDAOCachedGetByIdInvalidatedByWrites() throws SQLException, SORMAccessException {
+        SORMDAO<CachedPotato, Integer> dao = new SORMDAO<>(CachedPotato.class, Integer.class);
+        EntityCache cache = DBConnection.getInstance().getDataSource().getEntityCache();
+        Assert.assertTrue(dao.create(new CachedPotato(1800, "Cached")));
+
+        CachedPotato first = dao.getById(1800).get();
+        long hits = cache.getStatistics(CachedPotato.class).get().getHits();
+        Assert.assertNotSame(first, dao.getById(1800).get());
+        Assert.assertEquals(hits + 1, cache.getStatistics(CachedPotato.class).get().getHits());
+
+        CachedPotato renamed = new CachedPotato(1800, "Renamed");
+        Assert.assertTrue(dao.update(renamed));
+        Assert.assertEquals("Renamed", dao.getById(1800).get().name);
+        Assert.assertTrue(dao.updateAll(Arrays.asList(new CachedPotato(1800, "Batched"))));
+        Assert.assertEquals("Batched", dao.getById(1800).get().name);
+
+        Assert.assertTrue(dao.delete(renamed));
+        Assert.assertFalse(dao.getById(1800).isPresent());
+    }
+
+    @Test
+    public void SORMDAOGetByIdReportsRowsWhichCanNotBeRecreated() throws SQLException, SORMAccessException {
+        SORMDAO<BrokenPotato, Integer> dao = new SORMDAO<>(BrokenPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new BrokenPotato(1850)));
+
+        //the row exists, so failing to recreate it is not reported as not found
+        Assertions.assertThrows(SORMObjectRetrievalException.class, () -> dao.getById(1850));
+        Assert.assertFalse(dao.getById(1851).isPresent());
+    }
+
+    @Test
+    public void SORMDAOCachedGetByIdIgnoresUnwrittenChanges() throws SQLException, SORMAccessException {
+        SORMDAO<CachedPotato, Integer> dao = new SORMDAO<>(CachedPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new CachedPotato(1801, "Stored")));
+
+        //changing both the object which filled the cache and one answered by it, without updating either
+        CachedPotato missed = dao.getById(1801).get();
+        missed.name = "Unwritten";
+        CachedPotato hit = dao.getById(1801).get();
+        Assert.assertEquals("Stored", hit.name);
+        hit.name = "Also unwritten";
+        Assert.assertEquals("Stored", dao.getById(1801).get().name);
+
+        Assert.assertTrue(dao.delete(hit));
+    }
+
+    @Test
+    public void SORMDAOFindAllStreamsEveryRow() throws SQLException, SORMAccessException {
+        SORMDAO<StreamedSpud, Integer> dao = new SORMDAO<>(StreamedSpud.class, Integer.class);
+        try (Stream<StreamedSpud> none = dao.findAll()) {
+            Assert.assertEquals(0, none.count());
+        }
+        List<StreamedSpud> spuds = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            spuds.add(new StreamedSpud(1900 + i, new PotatoReference(580 + i % 2)));
+        }
+        Assert.assertTrue(dao.createAll(spuds));
+
+        //every stream returns its connection, whether read to the end or closed early
+        for (int i = 0; i < 15; i++) {
+            try (Stream<StreamedSpud> stream = dao.findAll(4)) {
+                Assert.assertEquals(25, stream.filter(s -> s.potatoReference.babyCode == 580 + s.streamedID % 2).count());
+            }
+            try (Stream<StreamedSpud> stream = dao.findAll(4)) {
+                Assert.assertEquals(3, stream.limit(3).count());
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.findAll(0));
+    }
+
+    @Test
+    public void SORMDAOUpdateOnlyChangedColumns() throws SQLException, SORMAccessException {
+        SORMDAO<DirtyPotato, Integer> dao = new SORMDAO<>(DirtyPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new DirtyPotato(1, "Before", 10)));
+        Assert.assertTrue(dao.create(new DirtyPotato(2, "Before", 10)));
+
+        //two copies of each row, each changing another column without overwriting the other's change
+        DirtyPotato first = dao.getById(1).get();
+        DirtyPotato second = dao.getById(1).get();
+        first.name = "After";
+        Assert.assertTrue(dao.update(first));
+        second.weight = 20;
+        Assert.assertTrue(dao.update(second));
+        DirtyPotato updated = dao.getById(1).get();
+        Assert.assertEquals("After", updated.name);
+        Assert.assertEquals(20, updated.weight);
+
+        Map<Integer, DirtyPotato> firsts = dao.getByIds(Arrays.asList(1, 2));
+        Map<Integer, DirtyPotato> seconds = dao.getByIds(Arrays.asList(1, 2));
+        firsts.values().forEach(p -> p.name = "Batched");
+        Assert.assertTrue(dao.updateAll(firsts.values()));
+        seconds.get(2).weight = 30;
+        Assert.assertTrue(dao.updateAll(seconds.values()));
+        Assert.assertEquals("Batched", dao.getById(2).get().name);
+        Assert.assertEquals(30, dao.getById(2).get().weight);
+        Assert.assertEquals(20, dao.getById(1).get().weight);
+    }
+
+    @Test
+    public void SORMDAOUpdateSkipsUnchangedObjects() throws SQLException, SORMAccessException {
+        SORMDAO<DirtyPotato, Integer> dao = new SORMDAO<>(DirtyPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new DirtyPotato(3, "Unchanged", 10)));
+        DirtyPotato loaded = dao.getById(3).get();
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from DirtyPotato where dirtyID = 3");
+        }
+
+        //nothing changed so nothing is written, while a changed object finds its row missing
+        Assert.assertTrue(dao.update(loaded));
+        loaded.weight = 11;
+        Assert.assertFalse(dao.update(loaded));
+        Assert.assertFalse(dao.update(new DirtyPotato(3, "Unchanged", 10)));
+    }
+
+    @Test
+    public void SORMDAOUpdateTracksQueriedObjects() throws SQLException, SORMAccessException {
+        SORMDAO<DirtyPotato, Integer> dao = new SORMDAO<>(DirtyPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new DirtyPotato(4, "Queried", 10)));
+        DirtyPotato queried = Query.createQuery(DirtyPotato.class, DBConnection.getInstance().getDataSource())
+                .where("dirtyID", QueryOperator.EQUALS, 4).list().get(0);
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from DirtyPotato where dirtyID = 4");
+        }
+
+        //queried objects are snapshotted like retrieved ones
+        Assert.assertTrue(dao.update(queried));
+        queried.weight = 11;
+        Assert.assertFalse(dao.update(queried));
+    }
+
+    @Test
+    public void SORMDAOUpdateTracksPerDataSource() throws SQLException, SORMAccessException {
+        SORMDAO<DirtyPotato, Integer> dao = new SORMDAO<>(DirtyPotato.class, Integer.class);
+        Assert.assertTrue(dao.create(new DirtyPotato(5, "Here", 10)));
+        DirtyPotato loaded = dao.getById(5).get();
+        try (DataSource other = new DataSource("jdbc:h2:mem:dirtyOther;MODE=PostgreSQL;", "sa", "")) {
+            SORMDAO<DirtyPotato, Integer> otherDao = new SORMDAO<>(DirtyPotato.class, Integer.class, other);
+            Assert.assertTrue(otherDao.create(new DirtyPotato(5, "There", 20)));
+
+            //the snapshot of the first database does not describe the row of the other
+            Assert.assertTrue(otherDao.update(loaded));
+            DirtyPotato updated = otherDao.getById(5).get();
+            Assert.assertEquals("Here", updated.name);
+            Assert.assertEquals(10, updated.weight);
+        }
+    }
+
+    @Test
+    public void SORMDAOCascadeWritesSharedReferencesOnce() throws SQLException, SORMAccessException {
+        SORMDAO<PotatoRoot, Integer> dao = new SORMDAO<>(PotatoRoot.class, Integer.class);
+        PotatoReference shared = new PotatoReference(590);
+        PotatoRoot root = new PotatoRoot(1, new PotatoBranch(1, shared), new PotatoBranch(2, shared));
+
+        //the shared reference is reached twice but inserted, updated and deleted once
+        Assert.assertTrue(dao.create(root));
+        PotatoRoot loaded = dao.getById(1).get();
+        Assert.assertEquals(590, loaded.left.potatoReference.babyCode);
+        Assert.assertEquals(590, loaded.right.potatoReference.babyCode);
+        root.left.name = "Changed";
+        Assert.assertTrue(dao.update(root));
+        Assert.assertEquals("Changed", dao.getById(1).get().left.name);
+        Assert.assertTrue(dao.delete(root));
+        Assert.assertFalse(dao.getById(1).isPresent());
+        Assert.assertFalse(new SORMDAO<>(PotatoReference.class, Integer.class).getById(590).isPresent());
+    }
+
+    @Test
+    public void SORMDAOCascadeEndsOnCycles() throws SQLException, SORMAccessException {
+        SORMDAO<PotatoKnot, Integer> dao = new SORMDAO<>(PotatoKnot.class, Integer.class);
+        PotatoKnot knot = new PotatoKnot(1, "Loose");
+        knot.next = knot;
+        Assert.assertTrue(dao.create(knot));
+        knot.name = "Tied";
+        Assert.assertTrue(dao.update(knot));
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from PotatoKnot where knotID = 1")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals("Tied", resultSet.getString(1));
+        }
+        PotatoKnot read = dao.getById(1).get();
+        Assert.assertEquals("Tied", read.name);
+        Assert.assertSame(read, read.next);
+        Assert.assertTrue(dao.delete(knot));
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from PotatoKnot")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    public void SORMDAOCascadeWritesTwoObjectCycles() throws SQLException, SORMAccessException {
+        SORMDAO<PotatoKnot, Integer> dao = new SORMDAO<>(PotatoKnot.class, Integer.class);
+        PotatoKnot first = new PotatoKnot(2, "First");
+        PotatoKnot second = new PotatoKnot(3, "Second");
+        first.next = second;
+        second.next = first;
+        Assert.assertTrue(dao.create(first));
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select knotID, next from PotatoKnot where knotID in (2, 3) order by knotID")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(3, resultSet.getInt(2));
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(2, resultSet.getInt(2));
+        }
+        PotatoKnot read = dao.getById(2).get();
+        Assert.assertEquals("Second", read.next.name);
+        Assert.assertSame(read, read.next.next);
+
+        second.name = "Saved";
+        Assert.assertTrue(dao.save(second));
+        Assert.assertTrue(dao.delete(second));
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from PotatoKnot where knotID in (2, 3)")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    public void SORMDAOGetByIdsFollowsCycles() throws SQLException, SORMAccessException {
+        SORMDAO<PotatoKnot, Integer> dao = new SORMDAO<>(PotatoKnot.class, Integer.class);
+        PotatoKnot first = new PotatoKnot(5, "First");
+        PotatoKnot second = new PotatoKnot(6, "Second");
+        PotatoKnot tied = new PotatoKnot(7, "Tied");
+        first.next = second;
+        second.next = first;
+        tied.next = tied;
+        Assert.assertTrue(dao.createAll(Arrays.asList(first, tied)));
+        //a knot without a next knot is only written by hand, writes require references to be set
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("insert into PotatoKnot (knotID, name, next) values (4, 'Loose', null)");
+        }
+
+        Map<Integer, PotatoKnot> read = dao.getByIds(Arrays.asList(4, 5, 7));
+        Assert.assertEquals(3, read.size());
+        Assert.assertNull(read.get(4).next);
+        Assert.assertEquals("Second", read.get(5).next.name);
+        Assert.assertSame(read.get(5), read.get(5).next.next);
+        Assert.assertSame(read.get(7), read.get(7).next);
+
+        Assert.assertTrue(dao.deleteAll(Arrays.asList(first, tied)));
+        try (Connection connection = DBConnection.getInstance().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from PotatoKnot where knotID = 4");
+        }
+    }
+
+    @Test
+    public void SORMNullDataSource() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SORMDAO<>(Potato.class, Integer.class, null));
+    }
+
     @Test
     public void SORMNullObjectUpdate() throws SQLException, SORMAccessException {
         SORMDAO<Potato, Integer> dao = new SORMDAO<>(Potato.class, Integer.class);
@@ -191,6 +587,130 @@ class PotatoReference {
     }
 }
 
+@SORMObject
+class LazyPotato {
+    @SORMID
+    int lazyID = 0;
+    @SORMField
+    boolean peeled = false;
+    @SORMReference
+    LazyReference<PotatoReference> potatoReference;
+    @SORMNoArgConstructor
+    private LazyPotato(){}
+    public LazyPotato(int id, PotatoReference reference) throws SORMAccessException {
+        this.lazyID = id;
+        this.potatoReference = LazyReference.createLazyReference(reference);
+    }
+}
+
+@SORMObject
+@SORMCache(maxEntries = 10)
+class CachedPotato {
+    @SORMID
+    int cachedID = 0;
+    @SORMField
+    String name = "";
+    @SORMNoArgConstructor
+    private CachedPotato(){}
+    public CachedPotato(int id, String name){
+        this.cachedID = id;
+        this.name = name;
+    }
+}
+
+@SORMObject
+class BrokenPotato {
+    @SORMID
+    int brokenID = 0;
+    @SORMNoArgConstructor
+    private BrokenPotato(){
+        throw new IllegalStateException("Broken potatoes can not be recreated");
+    }
+    public BrokenPotato(int id){
+        this.brokenID = id;
+    }
+}
+
+@SORMObject
+class StreamedSpud {
+    @SORMID
+    int streamedID = 0;
+    @SORMReference
+    PotatoReference potatoReference;
+    @SORMNoArgConstructor
+    private StreamedSpud(){}
+    public StreamedSpud(int id, PotatoReference reference){
+        this.streamedID = id;
+        this.potatoReference = reference;
+    }
+}
+
+@SORMObject
+class DirtyPotato {
+    @SORMID
+    int dirtyID = 0;
+    @SORMField
+    String name = "";
+    @SORMField
+    int weight = 0;
+    @SORMNoArgConstructor
+    private DirtyPotato(){}
+    public DirtyPotato(int id, String name, int weight){
+        this.dirtyID = id;
+        this.name = name;
+        this.weight = weight;
+    }
+}
+
+@SORMObject
+class PotatoBranch {
+    @SORMID
+    int branchID = 0;
+    @SORMField
+    String name = "";
+    @SORMReference
+    PotatoReference potatoReference;
+    @SORMNoArgConstructor
+    private PotatoBranch(){}
+    public PotatoBranch(int id, PotatoReference reference){
+        this.branchID = id;
+        this.potatoReference = reference;
+    }
+}
+
+@SORMObject
+class PotatoRoot {
+    @SORMID
+    int rootID = 0;
+    @SORMReference
+    PotatoBranch left;
+    @SORMReference
+    PotatoBranch right;
+    @SORMNoArgConstructor
+    private PotatoRoot(){}
+    public PotatoRoot(int id, PotatoBranch left, PotatoBranch right){
+        this.rootID = id;
+        this.left = left;
+        this.right = right;
+    }
+}
+
+@SORMObject
+class PotatoKnot {
+    @SORMID
+    int knotID = 0;
+    @SORMField
+    String name = "";
+    @SORMReference
+    PotatoKnot next;
+    @SORMNoArgConstructor
+    private PotatoKnot(){}
+    public PotatoKnot(int id, String name){
+        this.knotID = id;
+        this.name = name;
+    }
+}
+
 @SORMObject
 class Potato {
     @SORMID
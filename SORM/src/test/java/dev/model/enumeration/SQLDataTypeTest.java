@@ -104,4 +104,21 @@ public class SQLDataTypeTest {
     public void SQLDataType_Null(){
         Assertions.assertThrows(IllegalArgumentException.class,() -> SQLDataType.INVALID.convertToSQLDataType(null));
     }
+
+    @Test
+    public void SQLDataType_ConvertPrimitiveAndWrapperTypes(){
+        Assert.assertEquals(SQLDataType.CHAR, SQLDataType.INVALID.convertTypeToSQLDataType(char.class));
+        Assert.assertEquals(SQLDataType.BIT, SQLDataType.INVALID.convertTypeToSQLDataType(boolean.class));
+        Assert.assertEquals(SQLDataType.INTEGER, SQLDataType.INVALID.convertTypeToSQLDataType(int.class));
+        Assert.assertEquals(SQLDataType.INTEGER, SQLDataType.INVALID.convertTypeToSQLDataType(Integer.class));
+        Assert.assertEquals(SQLDataType.BIGINT, SQLDataType.INVALID.convertTypeToSQLDataType(long.class));
+        Assert.assertEquals(SQLDataType.DOUBLE, SQLDataType.INVALID.convertTypeToSQLDataType(double.class));
+        Assert.assertEquals(SQLDataType.TEXT, SQLDataType.INVALID.convertTypeToSQLDataType(String.class));
+        Assert.assertEquals(SQLDataType.INVALID, SQLDataType.INVALID.convertTypeToSQLDataType(Object.class));
+    }
+
+    @Test
+    public void SQLDataType_ConvertNullType(){
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SQLDataType.INVALID.convertTypeToSQLDataType(null));
+    }
 }
@@ -0,0 +1,224 @@
+package dev.service.thread;
+
+import dev.database.hikaricp.DataSource;
+import dev.model.annotation.*;
+import dev.model.enumeration.ExecutionStrategy;
+import dev.model.enumeration.OverflowPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.sql.SQLException;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * testing {@link DBThreadService}
+ */
+public class DBThreadServiceTest {
+
+    @Test
+    public void DBThreadServiceRunsWithEveryStrategy() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            int id = 1;
+            for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+                try (DBThreadService service = DBThreadService.createDBThreadService(dataSource, strategy, 2)) {
+                    Beet beet = new Beet(id++, strategy.name());
+                    Assert.assertTrue(service.create(beet, Beet.class, Integer.class)
+                            .thenCompose(created -> service.getByID(beet.beetID, Beet.class, Integer.class))
+                            .get().isPresent());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void DBThreadServiceRejectsWhenQueueIsFull() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            CountDownLatch release = new CountDownLatch(1);
+            try (DBThreadService service = DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.FIXED, 1, 1, OverflowPolicy.REJECT)) {
+                //occupying the only thread until released
+                CompletableFuture<Boolean> blocking = service.createAll(new AbstractCollection<Beet>() {
+                    @Override
+                    public Iterator<Beet> iterator() {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return Collections.emptyIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return 0;
+                    }
+                }, Beet.class, Integer.class);
+                while (service.getStatistics().getRunning() == 0) {
+                    Thread.sleep(1);
+                }
+
+                CompletableFuture<Optional<Beet>> queued = service.getByID(20, Beet.class, Integer.class);
+                CompletableFuture<Optional<Beet>> rejected = service.getByID(21, Beet.class, Integer.class);
+                Assert.assertTrue(rejected.isCompletedExceptionally());
+                ExecutionException e = Assertions.assertThrows(ExecutionException.class, rejected::get);
+                Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+                Assert.assertEquals(1, service.getStatistics().getQueued());
+                Assert.assertEquals(1, service.getStatistics().getRejected());
+
+                release.countDown();
+                Assert.assertTrue(blocking.get());
+                Assert.assertFalse(queued.get().isPresent());
+                Assert.assertEquals(0, service.getStatistics().getQueued());
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    public void DBThreadServiceGroupsCommits() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            try (DBThreadService service = DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.FIXED, 2)) {
+                service.enableGroupCommit(10000, 12);
+                Assert.assertTrue(service.isGroupCommitEnabled());
+                Assertions.assertThrows(IllegalStateException.class, () -> service.enableGroupCommit(1, 1));
+
+                List<CompletableFuture<Boolean>> created = new ArrayList<>();
+                for (int i = 30; i < 40; i++) {
+                    created.add(service.create(new Beet(i, "grouped"), Beet.class, Integer.class));
+                }
+                CompletableFuture<Boolean> duplicate = service.create(new Beet(30, "duplicate"), Beet.class, Integer.class);
+                Assert.assertFalse(duplicate.isDone());
+                //the twelfth write fills the group
+                CompletableFuture<Boolean> updated = service.update(new Beet(31, "updated"), Beet.class, Integer.class);
+
+                for (CompletableFuture<Boolean> future : created) {
+                    Assert.assertTrue(future.get());
+                }
+                ExecutionException failed = Assertions.assertThrows(ExecutionException.class, duplicate::get);
+                Assert.assertTrue(failed.getCause() instanceof SQLException);
+                Assert.assertTrue(updated.get());
+                Assert.assertEquals("updated", service.getByID(31, Beet.class, Integer.class).get().get().name);
+                Assert.assertEquals("grouped", service.getByID(30, Beet.class, Integer.class).get().get().name);
+
+                //a group is also written once its window has passed, or when disabled
+                service.disableGroupCommit();
+                service.enableGroupCommit(5, 100);
+                Assert.assertTrue(service.create(new Beet(40, "window"), Beet.class, Integer.class).get());
+                CompletableFuture<Boolean> held = service.update(new Beet(40, "held"), Beet.class, Integer.class);
+                service.disableGroupCommit();
+                Assert.assertTrue(held.get());
+                Assert.assertFalse(service.isGroupCommitEnabled());
+            }
+        }
+    }
+
+    @Test
+    public void DBThreadServiceConcurrencyLimitAdapts() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4);
+        Assert.assertEquals(4, limit.getLimit());
+
+        //the limit adapts once per window of operations
+        for (int i = 0; i < AdaptiveConcurrencyLimit.WINDOW; i++) {
+            Assert.assertTrue(limit.tryAcquire());
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < AdaptiveConcurrencyLimit.WINDOW - 1; i++) {
+            Assert.assertTrue(limit.tryAcquire());
+            limit.release(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        Assert.assertEquals(4, limit.getLimit());
+
+        //slowed windows lower the limit
+        for (int i = 0; i < 10 * AdaptiveConcurrencyLimit.WINDOW; i++) {
+            Assert.assertTrue(limit.tryAcquire());
+            limit.release(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        Assert.assertEquals(1, limit.getLimit());
+        Assert.assertEquals(0, limit.getRunning());
+
+        //fast windows raise it again, up to its maximum
+        for (int i = 0; i < 5 * AdaptiveConcurrencyLimit.WINDOW; i++) {
+            Assert.assertTrue(limit.tryAcquire());
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        Assert.assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void DBThreadServiceConcurrencyLimitIgnoresMixedLatencies() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8);
+        Random random = new Random(42);
+
+        //cached reads finishing in microseconds mixed with batch writes taking tens of milliseconds
+        for (int i = 0; i < 100 * AdaptiveConcurrencyLimit.WINDOW; i++) {
+            Assert.assertTrue(limit.tryAcquire());
+            limit.release(random.nextBoolean() ? TimeUnit.MILLISECONDS.toNanos(20 + random.nextInt(60))
+                    : TimeUnit.MICROSECONDS.toNanos(5 + random.nextInt(20)));
+            Assert.assertTrue(limit.getLimit() > 1);
+        }
+        Assert.assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    public void DBThreadServiceStrategies() throws Exception {
+        try (DataSource dataSource = new DataSource("jdbc:h2:mem:tcp://localhost/~/test;MODE=PostgreSQL;","sa","")) {
+            try (DBThreadService service = DBThreadService.createDBThreadService(dataSource)) {
+                Assert.assertEquals(ExecutionStrategy.FIXED, service.getExecutionStrategy());
+                Assert.assertEquals(dataSource.getMaximumPoolSize(), service.getThreadPoolSize());
+            }
+
+            //caller runs completes before returning
+            try (DBThreadService service = DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.CALLER_RUNS, 1)) {
+                CompletableFuture<Boolean> created = service.create(new Beet(10, "caller"), Beet.class, Integer.class);
+                Assert.assertTrue(created.isDone());
+                Assert.assertTrue(created.get());
+            }
+
+            //virtual threads fall back to a fixed pool before Java 21
+            boolean virtual = true;
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                virtual = false;
+            }
+            try (DBThreadService service = DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.VIRTUAL, 3)) {
+                Assert.assertEquals(virtual ? ExecutionStrategy.VIRTUAL : ExecutionStrategy.FIXED, service.getExecutionStrategy());
+            }
+
+            Assertions.assertThrows(IllegalArgumentException.class, () -> DBThreadService.createDBThreadService(null));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> DBThreadService.createDBThreadService(dataSource, null, 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.FIXED, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.FIXED, 1, 0, OverflowPolicy.BLOCK));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> DBThreadService.createDBThreadService(dataSource, ExecutionStrategy.FIXED, 1, 1, null));
+        }
+    }
+}
+
+@SORMObject
+class Beet {
+    @SORMID
+    int beetID = 0;
+    @SORMField
+    String name = "";
+
+    @SORMNoArgConstructor
+    Beet(){}
+
+    Beet(int beetID, String name){
+        this.beetID = beetID;
+        this.name = name;
+    }
+}
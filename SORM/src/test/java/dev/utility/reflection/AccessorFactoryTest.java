@@ -0,0 +1,94 @@
+package dev.utility.reflection;
+
+import dev.model.enumeration.AccessStrategy;
+import dev.model.exception.SORMAccessException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * testing {@link AccessorFactory}
+ */
+public class AccessorFactoryTest {
+
+    private static class Account {
+        private int number;
+        private long balance;
+        private double rate;
+        private char code;
+        private boolean open;
+        private Short branch;
+        private String owner;
+        private final String region = "north";
+
+        private Account(){}
+    }
+
+    @Test
+    public void AccessorFactoryMethodHandlePrimitives() throws Exception {
+        assertPrimitivesAccessible(AccessStrategy.METHOD_HANDLE);
+    }
+
+    @Test
+    public void AccessorFactoryReflectionPrimitives() throws Exception {
+        assertPrimitivesAccessible(AccessStrategy.REFLECTION);
+    }
+
+    @Test
+    public void AccessorFactoryMethodHandleWrappersAndObjects() throws Exception {
+        assertWrappersAccessible(AccessStrategy.METHOD_HANDLE);
+    }
+
+    @Test
+    public void AccessorFactoryReflectionWrappersAndObjects() throws Exception {
+        assertWrappersAccessible(AccessStrategy.REFLECTION);
+    }
+
+    @Test
+    public void AccessorFactoryFinalField() throws Exception {
+        Account account = (Account) AccessorFactory.createInstantiator(Account.class.getDeclaredConstructor(), AccessStrategy.METHOD_HANDLE).newInstance();
+        PropertyAccessor region = AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("region"), AccessStrategy.METHOD_HANDLE);
+        Assert.assertEquals("north", region.get(account));
+    }
+
+    @Test
+    public void AccessorFactoryWrongType() throws Exception {
+        Account account = new Account();
+        PropertyAccessor owner = AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("owner"), AccessStrategy.METHOD_HANDLE);
+        Assertions.assertThrows(SORMAccessException.class, () -> owner.set(account, 5));
+    }
+
+    @Test
+    public void AccessorFactoryNullParameters() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AccessorFactory.createPropertyAccessor(null, AccessStrategy.REFLECTION));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("owner"), null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AccessorFactory.createInstantiator(null, AccessStrategy.REFLECTION));
+    }
+
+    private static void assertPrimitivesAccessible(AccessStrategy strategy) throws Exception {
+        Account account = (Account) AccessorFactory.createInstantiator(Account.class.getDeclaredConstructor(), strategy).newInstance();
+        AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("number"), strategy).setInt(account, 42);
+        AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("balance"), strategy).setLong(account, 9000000000L);
+        AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("rate"), strategy).setDouble(account, 1.5);
+        AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("code"), strategy).setChar(account, 'x');
+        AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("open"), strategy).setBoolean(account, true);
+        Assert.assertEquals(42, account.number);
+        Assert.assertEquals(9000000000L, account.balance);
+        Assert.assertEquals(1.5, account.rate, 0.0);
+        Assert.assertEquals('x', account.code);
+        Assert.assertTrue(account.open);
+        Assert.assertEquals(42, AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("number"), strategy).get(account));
+    }
+
+    private static void assertWrappersAccessible(AccessStrategy strategy) throws Exception {
+        Account account = new Account();
+        PropertyAccessor branch = AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("branch"), strategy);
+        PropertyAccessor owner = AccessorFactory.createPropertyAccessor(Account.class.getDeclaredField("owner"), strategy);
+        branch.setShort(account, (short) 7);
+        owner.set(account, "Bob");
+        Assert.assertEquals(Short.valueOf((short) 7), account.branch);
+        Assert.assertEquals("Bob", owner.get(account));
+        owner.set(account, null);
+        Assert.assertNull(account.owner);
+    }
+}
@@ -2,10 +2,13 @@ package dev.utility.reflection;
 
 import dev.model.annotation.SORMField;
 import dev.model.annotation.SORMID;
+import dev.model.annotation.SORMNoArgConstructor;
 import dev.model.annotation.SORMObject;
 import dev.model.annotation.SORMReference;
 import dev.model.database.DataField;
 import dev.model.database.DataReference;
+import dev.model.database.EntityMetadata;
+import dev.model.enumeration.AccessStrategy;
 import dev.model.enumeration.SQLDataType;
 import dev.model.exception.NoSORMIDFoundException;
 import dev.model.exception.NoSORMObjectFoundException;
@@ -184,4 +187,73 @@ public class POJOPropertyGetSetTest {
         TestEmployee7 e = new TestEmployee7();
         Assertions.assertThrows(NoSORMObjectFoundException.class, () -> POJOPropertyGetSet.getReference(e));
     }
+
+    @Test
+    public void PropertyGathererEntityMetadataIsCached() {
+
+        @SORMObject
+        class TestReference2{
+            @SORMID
+            private long key;
+        }
+        @SORMObject
+        class TestEmployee8{
+            @SORMID
+            private String emplID;
+            @SORMField
+            private String name;
+            @SORMField
+            private int age;
+            @SORMReference
+            TestReference2 o;
+            @SORMNoArgConstructor
+            TestEmployee8(){}
+        }
+        EntityMetadata metadata = POJOPropertyGetSet.getEntityMetadata(TestEmployee8.class);
+        Assert.assertSame(metadata, POJOPropertyGetSet.getEntityMetadata(TestEmployee8.class));
+        Assert.assertEquals("TestEmployee8", metadata.getTableName());
+        Assert.assertEquals("emplID", metadata.getIdColumn().get().getColumnName());
+        Assert.assertEquals(SQLDataType.TEXT, metadata.getIdColumn().get().getDataType());
+        Assert.assertEquals(2, metadata.getFieldColumns().size());
+        Assert.assertEquals("name", metadata.getFieldColumns().get(0).getColumnName());
+        Assert.assertEquals(SQLDataType.INTEGER, metadata.getFieldColumns().get(1).getDataType());
+        Assert.assertEquals(1, metadata.getReferenceColumns().size());
+        Assert.assertEquals(SQLDataType.BIGINT, metadata.getReferenceColumns().get(0).getDataType());
+        Assert.assertTrue(metadata.getNoArgConstructor().isPresent());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> metadata.getFieldColumns().clear());
+    }
+
+    @Test
+    public void PropertyGathererEntityMetadataNoSORMObject() {
+
+        class TestEmployee9{
+            @SORMID
+            private String emplID;
+        }
+        Assertions.assertThrows(NoSORMObjectFoundException.class, () -> POJOPropertyGetSet.getEntityMetadata(TestEmployee9.class));
+    }
+
+    @Test
+    public void PropertyGathererAccessStrategySwitch() throws SORMAccessException {
+
+        @SORMObject
+        class TestEmployee10{
+            @SORMID
+            private long emplID = 12;
+            @SORMField
+            private String name = "Billy Bob";
+        }
+        TestEmployee10 e = new TestEmployee10();
+        EntityMetadata before = POJOPropertyGetSet.getEntityMetadata(TestEmployee10.class);
+        try {
+            POJOPropertyGetSet.setAccessStrategy(AccessStrategy.REFLECTION);
+            Assert.assertEquals(AccessStrategy.REFLECTION, POJOPropertyGetSet.getAccessStrategy());
+            Assert.assertNotSame(before, POJOPropertyGetSet.getEntityMetadata(TestEmployee10.class));
+            Assert.assertEquals(12L, POJOPropertyGetSet.getID(e).getValue());
+            Assert.assertEquals("Billy Bob", POJOPropertyGetSet.getFields(e).get(0).getValue());
+        } finally {
+            POJOPropertyGetSet.setAccessStrategy(AccessStrategy.METHOD_HANDLE);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> POJOPropertyGetSet.setAccessStrategy(null));
+    }
 }